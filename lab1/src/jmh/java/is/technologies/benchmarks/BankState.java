@@ -0,0 +1,67 @@
+package is.technologies.benchmarks;
+
+import is.technologies.entities.*;
+import is.technologies.models.*;
+import is.technologies.service.CentralBank;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ The BankState class holds a central bank with one bank and the given number of debit accounts,
+ shared by all threads of a benchmark. Every account belongs to its own verified client and starts with
+ a balance large enough for the benchmarks to withdraw from it for the whole run.
+ */
+@State(Scope.Benchmark)
+public class BankState {
+
+  /**The balance every bank account starts with.*/
+  private static final Money INITIAL_BALANCE = Money.of(100_000_000);
+
+  /**The number of bank accounts in the bank.*/
+  @Param({"1000", "100000"})
+  public int accountCount;
+
+  /**The central bank the bank is registered in.*/
+  public CentralBank centralBank;
+
+  /**The bank the benchmarks operate on.*/
+  public Bank bank;
+
+  /**The bank accounts of the bank.*/
+  public List<BankAccount> accounts;
+
+  /**
+   Creates the bank and opens the bank accounts.
+   @throws Exception if the bank can't be filled
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    centralBank = new CentralBank(new TimeProvider());
+    bank = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5),
+        new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    for (int i = 0; i < accountCount; i++) {
+      Client client = new Client.Builder()
+          .setFirstName("Client" + i)
+          .setSurname("Benchmark")
+          .setAddress("Teatralnaya " + i)
+          .setPassport("1017 " + i)
+          .build();
+      client.setMediator(new ClientMediator(client));
+      bank.addNewClient(client);
+      bank.addNewDebitAccountToClient(client);
+      bank.moneyTopUpTransaction(client.getBankAccounts().get(0), INITIAL_BALANCE);
+    }
+    accounts = bank.getBankAccounts();
+  }
+
+  /**
+   Picks a random bank account of the bank.
+   @return the bank account
+   */
+  public BankAccount randomAccount() {
+    return accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+  }
+}
@@ -0,0 +1,43 @@
+package is.technologies.benchmarks;
+
+import java.io.File;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ The BenchmarkRunner class runs the benchmarks once for every number of threads and writes the results
+ of each run as JSON to target/jmh, so runs of two builds can be compared.
+ The numbers of threads are taken from the comma-separated first argument, "1,4,8" by default.
+ The change of the date moves one shared clock, so it is only measured in one thread.
+ */
+public final class BenchmarkRunner {
+
+  private BenchmarkRunner() {}
+
+  public static void main(String[] args) throws RunnerException {
+    String[] threadCounts = (args.length > 0 ? args[0] : "1,4,8").split(",");
+    new File("target/jmh").mkdirs();
+
+    for (String threadCount : threadCounts) {
+      int threads = Integer.parseInt(threadCount.trim());
+      var options = new OptionsBuilder()
+          .include(BenchmarkRunner.class.getPackageName() + ".*")
+          .exclude(ChangeDateBenchmark.class.getSimpleName())
+          .threads(threads)
+          .resultFormat(ResultFormatType.JSON)
+          .result("target/jmh/results-" + threads + "-threads.json")
+          .build();
+      new Runner(options).run();
+    }
+
+    var changeDateOptions = new OptionsBuilder()
+        .include(ChangeDateBenchmark.class.getSimpleName())
+        .threads(1)
+        .resultFormat(ResultFormatType.JSON)
+        .result("target/jmh/results-change-date.json")
+        .build();
+    new Runner(changeDateOptions).run();
+  }
+}
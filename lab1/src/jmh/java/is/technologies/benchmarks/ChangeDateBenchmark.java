@@ -0,0 +1,48 @@
+package is.technologies.benchmarks;
+
+import java.util.Calendar;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ The ChangeDateBenchmark class measures how long the central bank takes to move its date one year forward.
+ Every invocation starts from a freshly filled bank, so the interest is accrued over the same year each time.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChangeDateBenchmark {
+
+  /**The number of bank accounts in the bank.*/
+  @Param({"1000", "100000"})
+  public int accountCount;
+
+  /**The bank to move the date of, filled again before every invocation.*/
+  private BankState state;
+
+  /**The date one year after the current date of the bank.*/
+  private Calendar nextYear;
+
+  @Setup(Level.Invocation)
+  public void setUp() throws Exception {
+    state = new BankState();
+    state.accountCount = accountCount;
+    state.setUp();
+    nextYear = (Calendar) state.centralBank.getTimeProvider().getDate().clone();
+    nextYear.add(Calendar.YEAR, 1);
+  }
+
+  @Benchmark
+  public void changeDate() {
+    state.centralBank.changeDate(nextYear);
+  }
+
+  @Benchmark
+  public void changeDateInParallel() throws Exception {
+    state.centralBank.changeDate(nextYear, ForkJoinPool.commonPool());
+  }
+}
@@ -0,0 +1,41 @@
+package is.technologies.benchmarks;
+
+import is.technologies.entities.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ The MoneyOperationsBenchmark class measures the throughput of the money operations of a bank
+ on random bank accounts. The number of threads is chosen by the runner.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyOperationsBenchmark {
+
+  /**The amount of money moved by every operation.*/
+  private static final Money AMOUNT = Money.of(1);
+
+  @Benchmark
+  public void topUp(BankState state) throws Exception {
+    state.bank.moneyTopUpTransaction(state.randomAccount(), AMOUNT);
+  }
+
+  @Benchmark
+  public void withdraw(BankState state) throws Exception {
+    state.bank.moneyWithdrawTransaction(state.randomAccount(), AMOUNT);
+  }
+
+  @Benchmark
+  public MoneyTransferTransaction transfer(BankState state) throws Exception {
+    return state.bank.moneyTransferTransaction(state.randomAccount(), state.randomAccount(), AMOUNT);
+  }
+
+  @Benchmark
+  public Transaction transferAndRollback(BankState state) throws Exception {
+    var transaction = state.bank.moneyTransferTransaction(state.randomAccount(), state.randomAccount(), AMOUNT);
+    return state.bank.rollback(transaction);
+  }
+}
@@ -0,0 +1,47 @@
+package is.technologies.benchmarks;
+
+import is.technologies.notifications.NotificationDispatcher;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ The NotificationBenchmark class measures how long a change of the percent for debit accounts takes to reach
+ every client of the bank, in the calling thread and through a notification dispatcher.
+ Each benchmark runs in its own fork, so the bank of the first one never has a dispatcher.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationBenchmark {
+
+  /**The percent announced by the benchmarks.*/
+  private static final BigDecimal PERCENT = new BigDecimal(5);
+
+  /**The dispatcher that delivers the notifications in the background.*/
+  private NotificationDispatcher dispatcher;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    dispatcher = new NotificationDispatcher(Runtime.getRuntime().availableProcessors(), 1024);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    dispatcher.close();
+  }
+
+  @Benchmark
+  public void broadcast(BankState state) throws Exception {
+    state.bank.changePercentForDebitAccounts(PERCENT);
+  }
+
+  @Benchmark
+  public Object broadcastAsync(BankState state) throws Exception {
+    state.bank.setNotificationDispatcher(dispatcher);
+    return state.bank.changePercentForDebitAccounts(PERCENT).join();
+  }
+}
@@ -85,8 +85,7 @@ public class Main {
     Calendar newDate = timeProverForChangingDate.getDate();
     newDate.add(Calendar.MONTH, months);
 
-    timeProverForChangingDate.changeDate(newDate);
-    centralBank.changeDate(timeProverForChangingDate.getDate());
+    centralBank.changeDate(newDate);
 
     mainMenu();
   }
@@ -187,7 +186,7 @@ public class Main {
     }
   }
 
-  public static void transactions(Bank bank) throws BankAccountException, TransactionException {
+  public static void transactions(Bank bank) throws BankAccountException, TransactionException, BankException {
     int countOfTransactions = 1;
 
     for (Transaction transaction : bank.getTransactions()) {
@@ -222,7 +221,7 @@ public class Main {
 
     switch (nextOption) {
       case 1:
-        chosentransaction.rollback();
+        bank.rollback(chosentransaction);
         centralBank.rolledBackTransaction(chosentransaction);
         bankMenu(bank);
         break;
@@ -392,7 +391,7 @@ public class Main {
     BigDecimal amountOfMoney = scanner.nextBigDecimal();
 
     var transaction = centralBank.moneyTransferTransaction(bankAccount, bankAccountToTransfer,
-        amountOfMoney);
+        Money.of(amountOfMoney));
 
     bankAccountMenu(bankAccount);
   }
@@ -402,7 +401,7 @@ public class Main {
 
     System.out.println("Enter the amount of money");
     BigDecimal amountOfMoney = scanner.nextBigDecimal();
-    bankAccount.getBank().moneyWithdrawTransaction(bankAccount, amountOfMoney);
+    bankAccount.getBank().moneyWithdrawTransaction(bankAccount, Money.of(amountOfMoney));
 
     bankAccountMenu(bankAccount);
   }
@@ -412,7 +411,7 @@ public class Main {
 
     System.out.println("Enter the amount of money");
     BigDecimal amountOfMoney = scanner.nextBigDecimal();
-    bankAccount.getBank().moneyTopUpTransaction(bankAccount, amountOfMoney);
+    bankAccount.getBank().moneyTopUpTransaction(bankAccount, Money.of(amountOfMoney));
 
     bankAccountMenu(bankAccount);
   }
@@ -480,7 +479,7 @@ public class Main {
           Calendar calendar = Calendar.getInstance();
           calendar.add(Calendar.YEAR, Integer.parseInt(yearsOfDepositAccount));
           client.getBank()
-              .addNewDepositAccountToClient(client, BigDecimal.valueOf(Integer.parseInt(amount)),
+              .addNewDepositAccountToClient(client, Money.of(Integer.parseInt(amount)),
                   calendar);
           clientAccountMenu(client);
           break;
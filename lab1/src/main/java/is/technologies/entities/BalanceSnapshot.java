@@ -0,0 +1,50 @@
+package is.technologies.entities;
+
+import java.util.Collections;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ The BalanceSnapshot class holds the balances of a set of bank accounts at one moment.
+ Every transaction either happened before the snapshot and is in all of its balances, or after it and is in none.
+ */
+@Getter
+public class BalanceSnapshot {
+
+  /**The version of the balances, the epoch of the account lock the snapshot was taken in.*/
+  private final long version;
+
+  /**The balance of every bank account of the snapshot by its ID, in the order the bank accounts were given.*/
+  private final Map<BankAccountId, Money> balances;
+
+  /**
+   Creates a new snapshot.
+   @param version the version of the balances
+   @param balances the balance of every bank account by its ID
+   */
+  BalanceSnapshot(long version, Map<BankAccountId, Money> balances) {
+    this.version = version;
+    this.balances = Collections.unmodifiableMap(balances);
+  }
+
+  /**
+   Gets the balance of a bank account at the moment of the snapshot.
+   @param bankAccountId the ID of the bank account
+   @return the balance of the bank account, or null if it isn't in the snapshot
+   */
+  public Money getBalance(BankAccountId bankAccountId) {
+    return balances.get(bankAccountId);
+  }
+
+  /**
+   Adds up the balances of all bank accounts of the snapshot.
+   @return the sum of the balances
+   */
+  public Money getTotal() {
+    Money total = Money.ZERO;
+    for (Money balance : balances.values()) {
+      total = total.add(balance);
+    }
+    return total;
+  }
+}
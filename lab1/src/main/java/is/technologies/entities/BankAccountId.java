@@ -7,8 +7,10 @@ import lombok.*;
 /**
  The BankAccountId class represents a unique identifier for a bank account.
  It consists of a bank ID and an account ID.
+ Two identifiers are equal if both IDs are equal, so the identifier can be used as a key of a hash map.
  */
 @Getter
+@EqualsAndHashCode
 public class BankAccountId {
     /**
      The unique ID of the bank where the account is located.
@@ -0,0 +1,116 @@
+package is.technologies.entities;
+
+import java.math.BigDecimal;
+import lombok.Getter;
+
+/**
+ The BankStats class holds the figures of one bank, or of all banks of a central bank, at the moment they were read.
+ The figures are kept up to date by the operations themselves, so reading them doesn't walk the clients or
+ the bank accounts. The sums of money are decimals, because the money of all bank accounts together may not fit
+ into a Money.
+ The balances include the interest of a bank account only once it is settled, when the account is next read
+ or changed: the interest of a bank account that isn't used isn't in the figures, even after a month end.
+ */
+@Getter
+public class BankStats {
+
+  /**The sum of no money.*/
+  private static final BigDecimal ZERO = BigDecimal.valueOf(0, Money.SCALE);
+
+  /**The figures of no banks.*/
+  public static final BankStats EMPTY = new BankStats(0, 0, 0, ZERO, 0, ZERO, ZERO, 0, ZERO);
+
+  /**The number of clients.*/
+  private final int clientCount;
+
+  /**The number of clients that aren't verified.*/
+  private final int unverifiedClientCount;
+
+  /**The number of debit accounts.*/
+  private final int debitAccountCount;
+
+  /**The sum of the balances of the debit accounts.*/
+  private final BigDecimal debitBalance;
+
+  /**The number of credit accounts.*/
+  private final int creditAccountCount;
+
+  /**The sum of the balances of the credit accounts.*/
+  private final BigDecimal creditBalance;
+
+  /**The credit used by the credit accounts, the sum of how far their balances are below their credit limits.*/
+  private final BigDecimal creditExposure;
+
+  /**The number of deposit accounts.*/
+  private final int depositAccountCount;
+
+  /**The sum of the balances of the deposit accounts.*/
+  private final BigDecimal depositBalance;
+
+  /**
+   Creates new figures.
+   @param clientCount the number of clients
+   @param unverifiedClientCount the number of clients that aren't verified
+   @param debitAccountCount the number of debit accounts
+   @param debitBalance the sum of the balances of the debit accounts
+   @param creditAccountCount the number of credit accounts
+   @param creditBalance the sum of the balances of the credit accounts
+   @param creditExposure the credit used by the credit accounts
+   @param depositAccountCount the number of deposit accounts
+   @param depositBalance the sum of the balances of the deposit accounts
+   */
+  public BankStats(
+      int clientCount,
+      int unverifiedClientCount,
+      int debitAccountCount,
+      BigDecimal debitBalance,
+      int creditAccountCount,
+      BigDecimal creditBalance,
+      BigDecimal creditExposure,
+      int depositAccountCount,
+      BigDecimal depositBalance) {
+    this.clientCount = clientCount;
+    this.unverifiedClientCount = unverifiedClientCount;
+    this.debitAccountCount = debitAccountCount;
+    this.debitBalance = debitBalance;
+    this.creditAccountCount = creditAccountCount;
+    this.creditBalance = creditBalance;
+    this.creditExposure = creditExposure;
+    this.depositAccountCount = depositAccountCount;
+    this.depositBalance = depositBalance;
+  }
+
+  /**
+   Adds the figures of another bank to these.
+   @param other the figures of the other bank
+   @return the sums of the figures
+   */
+  public BankStats add(BankStats other) {
+    return new BankStats(
+        clientCount + other.clientCount,
+        unverifiedClientCount + other.unverifiedClientCount,
+        debitAccountCount + other.debitAccountCount,
+        debitBalance.add(other.debitBalance),
+        creditAccountCount + other.creditAccountCount,
+        creditBalance.add(other.creditBalance),
+        creditExposure.add(other.creditExposure),
+        depositAccountCount + other.depositAccountCount,
+        depositBalance.add(other.depositBalance));
+  }
+
+  /**
+   Gets the number of bank accounts of all types.
+   @return the number of bank accounts
+   */
+  public int getAccountCount() {
+    return debitAccountCount + creditAccountCount + depositAccountCount;
+  }
+
+  /**
+   Adds up the balances of the bank accounts of all types, without the interest that isn't settled yet.
+   @return the sum of the balances
+   */
+  public BigDecimal getTotalBalance() {
+    return debitBalance.add(creditBalance).add(depositBalance);
+  }
+}
@@ -4,15 +4,24 @@ import java.math.BigDecimal;
 import is.technologies.models.*;
 import is.technologies.notifications.*;
 import is.technologies.exceptions.*;
-import java.util.Objects;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
 import lombok.Getter;
 
 /**
  The Mediator class is responsible for handling notifications and deciding whether they are useful or spam for a given client.
+ Every notification carries the changed rate with its previous and new values, and the decision for every rate is
+ looked up in a table built once, so notifying a client doesn't parse the message. The rules compare the two values
+ of the notification rather than the rates of the bank, which already hold the new value when the clients are notified.
+ A change is useful when it is in the client's favour: a lower commission, or a higher limit, restriction or percent.
  */
 @Getter
 public class ClientMediator implements Mediator {
 
+  /**The rules that decide from the previous and the new value of a rate if the change is useful for a client.*/
+  private static final Map<Rate, BiPredicate<BigDecimal, BigDecimal>> USEFUL_RULES = usefulRules();
+
   /**
    Represents a client field.
    */
@@ -45,75 +54,34 @@ public class ClientMediator implements Mediator {
     if (notification == null)
       throw MediatorException.invalidNotification();
 
-    if (notification instanceof ChangeCommissionForCreditAccountNotification) {
-      String[] message = notification.getMessage().split(" ");
-      BigDecimal newCommision = new BigDecimal(message[0]);
-
-      if (client.getBank().getCommissionForCreditAccount().compareTo(newCommision) > 0) {
-        client.addUsefulNotification(notification);
-      }
-      else {
-        client.addSpamNotification(notification);
-      }
-    }
-    else if (notification instanceof ChangeCreditLimitNotification) {
-      String[] message = notification.getMessage().split(" ");
-      BigDecimal newCreditLimit = new BigDecimal(message[0]);
-
-      if (client.getBank().getCreditLimit().compareTo(newCreditLimit) > 0) {
-        client.addSpamNotification(notification);
-      }
-      else {
-        client.addUsefulNotification(notification);
-      }
+    if (USEFUL_RULES.get(notification.getRate()).test(notification.getPreviousValue(), notification.getValue())) {
+      client.addUsefulNotification(notification);
     }
-        else if (notification instanceof ChangePercentsForDebitAccountNotification) {
-      String[] message = notification.getMessage().split(" ");
-      BigDecimal newPercent = new BigDecimal(message[0]);
-
-      if (client.getBank().getPercentForDebitAccounts().compareTo(newPercent) > 0) {
-        client.addSpamNotification(notification);
-      }
-      else {
-        client.addUsefulNotification(notification);
-      }
-    }
-        else if (notification instanceof ChangeRestrictionForNotVerifiedCustomersNotification) {
-      String[] message = notification.getMessage().split(" ");
-      BigDecimal newRestriction = new BigDecimal(message[0]);
-
-      if (client.getBank().getRestrictionForNotVerifiedCustomers().compareTo(newRestriction) > 0) {
-        client.addSpamNotification(notification);
-      }
-      else {
-        client.addUsefulNotification(notification);
-      }
+    else {
+      client.addSpamNotification(notification);
     }
-        else if (notification instanceof ChangePercentForDepositAccountNotification) {
-      String[] message = notification.getMessage().split(" ");
-      String data = message[0];
-      BigDecimal newPercent = new BigDecimal(message[1]);
-
-      if (Objects.equals(data, "PercentLessFiftyThousand") && client.getBank().getPercentLessFiftyThousand().compareTo(newPercent) > 0) {
-        client.addUsefulNotification(notification);
-      }
-      else {
-        client.addSpamNotification(notification);
-      }
-
-      if (Objects.equals(data, "PercentLessOneHundredThousand") && client.getBank().getPercentLessOneHundredThousand().compareTo(newPercent) > 0) {
-        client.addUsefulNotification(notification);
-      }
-      else {
-        client.addSpamNotification(notification);
-      }
+  }
 
-      if (Objects.equals(data, "PercentMoreOneHundredThousand") && client.getBank().getPercentMoreOneHundredThousand().compareTo(newPercent) > 0) {
-        client.addUsefulNotification(notification);
-      }
-      else {
-        client.addSpamNotification(notification);
-      }
-    }
+  /**
+   Builds the table of the rules that decide if the change of a rate is useful for a client.
+   @return the rules by rate
+   */
+  private static Map<Rate, BiPredicate<BigDecimal, BigDecimal>> usefulRules() {
+    Map<Rate, BiPredicate<BigDecimal, BigDecimal>> rules = new EnumMap<>(Rate.class);
+    rules.put(Rate.COMMISSION_FOR_CREDIT_ACCOUNT,
+        (previousValue, value) -> previousValue.compareTo(value) > 0);
+    rules.put(Rate.CREDIT_LIMIT,
+        (previousValue, value) -> previousValue.compareTo(value) < 0);
+    rules.put(Rate.PERCENT_FOR_DEBIT_ACCOUNTS,
+        (previousValue, value) -> previousValue.compareTo(value) < 0);
+    rules.put(Rate.RESTRICTION_FOR_NOT_VERIFIED_CUSTOMERS,
+        (previousValue, value) -> previousValue.compareTo(value) < 0);
+    rules.put(Rate.PERCENT_LESS_FIFTY_THOUSAND,
+        (previousValue, value) -> previousValue.compareTo(value) < 0);
+    rules.put(Rate.PERCENT_LESS_ONE_HUNDRED_THOUSAND,
+        (previousValue, value) -> previousValue.compareTo(value) < 0);
+    rules.put(Rate.PERCENT_MORE_ONE_HUNDRED_THOUSAND,
+        (previousValue, value) -> previousValue.compareTo(value) < 0);
+    return rules;
   }
 }
@@ -0,0 +1,99 @@
+package is.technologies.entities;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Calendar;
+
+/**
+ The EpochDays class converts dates to and from epoch days, the number of days since 1970-01-01, and answers
+ the questions the simulation asks about every day: whether it is the last day of its month, and where its month ends.
+ The last days of the months between FIRST_YEAR and LAST_YEAR are computed once into a sorted table, so these
+ questions are answered from the table without building a calendar; the days outside of it fall back to java.time.
+ */
+public final class EpochDays {
+
+  /**The first year of the table of month ends.*/
+  private static final int FIRST_YEAR = 1900;
+
+  /**The last year of the table of month ends.*/
+  private static final int LAST_YEAR = 2199;
+
+  /**The epoch days of the last days of the months in the table, in ascending order.*/
+  private static final int[] MONTH_ENDS = monthEnds();
+
+  private EpochDays() {}
+
+  /**
+   Converts a calendar to the epoch day of its date in its time zone.
+   @param time the calendar to convert
+   @return the epoch day of the calendar
+   */
+  public static int of(Calendar time) {
+    return (int) LocalDate.ofInstant(time.toInstant(), time.getTimeZone().toZoneId()).toEpochDay();
+  }
+
+  /**
+   Gets the epoch day of today in the default time zone.
+   @return the epoch day of today
+   */
+  public static int today() {
+    return (int) LocalDate.now().toEpochDay();
+  }
+
+  /**
+   Converts an epoch day to a new calendar set to the start of that day in the default time zone.
+   @param day the epoch day to convert
+   @return a new calendar of the day
+   */
+  public static Calendar toCalendar(int day) {
+    Calendar time = Calendar.getInstance();
+    time.setTimeInMillis(startOf(day));
+    return time;
+  }
+
+  /**
+   Gets the start of an epoch day in the default time zone.
+   @param day the epoch day
+   @return the start of the day in milliseconds since the epoch
+   */
+  public static long startOf(int day) {
+    return LocalDate.ofEpochDay(day).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  /**
+   Finds the last day of the month of an epoch day.
+   @param day the epoch day
+   @return the epoch day of the last day of its month
+   */
+  public static int endOfMonth(int day) {
+    if (day < MONTH_ENDS[0] - 30 || day > MONTH_ENDS[MONTH_ENDS.length - 1])
+      return (int) YearMonth.from(LocalDate.ofEpochDay(day)).atEndOfMonth().toEpochDay();
+
+    int index = Arrays.binarySearch(MONTH_ENDS, day);
+    return index >= 0 ? day : MONTH_ENDS[-index - 1];
+  }
+
+  /**
+   Checks whether an epoch day is the last day of its month.
+   @param day the epoch day
+   @return true if the day is the last day of its month
+   */
+  public static boolean isLastDayOfMonth(int day) {
+    return endOfMonth(day) == day;
+  }
+
+  /**
+   Computes the table of month ends.
+   @return the epoch days of the last days of the months from FIRST_YEAR to LAST_YEAR
+   */
+  private static int[] monthEnds() {
+    int[] monthEnds = new int[(LAST_YEAR - FIRST_YEAR + 1) * 12];
+    YearMonth month = YearMonth.of(FIRST_YEAR, 1);
+    for (int i = 0; i < monthEnds.length; i++, month = month.plusMonths(1)) {
+      monthEnds[i] = (int) month.atEndOfMonth().toEpochDay();
+    }
+    return monthEnds;
+  }
+}
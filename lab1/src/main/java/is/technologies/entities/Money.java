@@ -0,0 +1,262 @@
+package is.technologies.entities;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import lombok.EqualsAndHashCode;
+
+/**
+ The Money class represents an amount of money as a fixed-point number.
+ The amount is stored as a long number of minor units, one minor unit is 10^-SCALE of the currency,
+ so the largest amount is about 922 trillion.
+ Adding, subtracting and multiplying by a whole number are exact and throw an ArithmeticException on overflow.
+ Converting from BigDecimal and applying a percent round half up to the nearest minor unit.
+ Percents are kept with PERCENT_SCALE digits after the point and interest accruals with ACCRUAL_SCALE digits,
+ so the daily interest of a small balance doesn't lose its precision; the accruals are rounded to a minor unit
+ when they are added to a balance.
+ */
+@EqualsAndHashCode
+public final class Money implements Comparable<Money> {
+
+  /**The number of decimal digits after the point.*/
+  public static final int SCALE = 4;
+
+  /**The number of decimal digits after the point of a percent.*/
+  public static final int PERCENT_SCALE = 10;
+
+  /**The number of decimal digits after the point of an interest accrual.*/
+  public static final int ACCRUAL_SCALE = 8;
+
+  /**The number of minor units in one unit of the currency.*/
+  private static final long ONE = 10_000L;
+
+  /**The number of minor units of an accrual in one minor unit of money.*/
+  private static final long ACCRUALS_PER_UNIT = 10_000L;
+
+  /**The number of minor units in one percent.*/
+  private static final long PERCENT_ONE = 10_000_000_000L;
+
+  /**The divisor that turns the product of an amount and a percent in minor units into a percent of the amount.*/
+  private static final long PERCENT_DIVISOR = PERCENT_ONE * 100;
+
+  /**The divisor that turns the product of an amount and a percent in minor units into an accrual.*/
+  private static final long ACCRUAL_DIVISOR = PERCENT_DIVISOR / ACCRUALS_PER_UNIT;
+
+  /**The square root of PERCENT_DIVISOR, used to split the operands of a percent into parts that don't overflow.*/
+  private static final long MILLION = 1_000_000L;
+
+  /**The square root of ACCRUAL_DIVISOR, used to split the operands of an accrual into parts that don't overflow.*/
+  private static final long TEN_THOUSAND = 10_000L;
+
+  /**The largest percent in minor units that can be applied without falling back to BigDecimal.*/
+  private static final long MAX_FAST_PERCENT = 1L << 43;
+
+  /**The amount of zero.*/
+  public static final Money ZERO = new Money(0);
+
+  /**The amount in minor units.*/
+  private final long units;
+
+  /**
+   Creates a new amount of money from the given number of minor units.
+   @param units the amount in minor units
+   */
+  private Money(long units) {
+    this.units = units;
+  }
+
+  /**
+   Creates a new amount of money from the given number of minor units.
+   @param units the amount in minor units
+   @return the amount of money
+   */
+  public static Money ofUnits(long units) {
+    return units == 0 ? ZERO : new Money(units);
+  }
+
+  /**
+   Creates a new amount of money from the given whole amount.
+   @param amount the whole amount of money
+   @return the amount of money
+   @throws ArithmeticException if the amount doesn't fit into the range of the money
+   */
+  public static Money of(long amount) {
+    return ofUnits(Math.multiplyExact(amount, ONE));
+  }
+
+  /**
+   Creates a new amount of money from the given decimal amount, rounded half up to the nearest minor unit.
+   @param amount the decimal amount of money
+   @return the amount of money
+   @throws ArithmeticException if the amount doesn't fit into the range of the money
+   */
+  public static Money of(BigDecimal amount) {
+    return ofUnits(toUnits(amount));
+  }
+
+  /**
+   Converts the given decimal amount to minor units, rounded half up to the nearest minor unit.
+   @param amount the decimal amount
+   @return the amount in minor units
+   @throws ArithmeticException if the amount doesn't fit into the range of the money
+   */
+  public static long toUnits(BigDecimal amount) {
+    return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+  }
+
+  /**
+   Calculates the daily percent for the given annual percent, rounded half up to PERCENT_SCALE digits.
+   @param percent the annual percent
+   @return the daily percent in minor units of a percent
+   @throws ArithmeticException if the percent doesn't fit into the range of the percents
+   */
+  public static long dayPercent(BigDecimal percent) {
+    return percent.divide(new BigDecimal(365), PERCENT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+  }
+
+  /**
+   Calculates the given percent of the given amount, rounded half up to the nearest minor unit.
+   The calculation is exact and doesn't allocate as long as the percent is less than 2^43 minor units.
+   @param units the amount in minor units
+   @param percentUnits the non-negative percent in minor units of a percent
+   @return the percent of the amount in minor units
+   */
+  public static long percentOf(long units, long percentUnits) {
+    return divide(units, percentUnits, PERCENT_DIVISOR, MILLION);
+  }
+
+  /**
+   Calculates the interest accrual of the given percent of the given amount, rounded half up to the nearest minor
+   unit of an accrual, so the accruals of many days add up without rounding every day to a minor unit of money.
+   @param units the amount in minor units
+   @param percentUnits the non-negative percent in minor units of a percent
+   @return the accrual in minor units of an accrual
+   */
+  public static long accrualOf(long units, long percentUnits) {
+    return divide(units, percentUnits, ACCRUAL_DIVISOR, TEN_THOUSAND);
+  }
+
+  /**
+   Rounds interest accruals half up to the nearest minor unit of money.
+   @param accrualUnits the accruals in minor units of an accrual
+   @return the accruals in minor units
+   */
+  public static long unitsOfAccrual(long accrualUnits) {
+    if (accrualUnits < 0)
+      return -unitsOfAccrual(Math.negateExact(accrualUnits));
+    long whole = accrualUnits / ACCRUALS_PER_UNIT;
+    return (accrualUnits % ACCRUALS_PER_UNIT) * 2 >= ACCRUALS_PER_UNIT ? whole + 1 : whole;
+  }
+
+  /**
+   Converts an amount of money to minor units of an accrual.
+   @param units the amount in minor units
+   @return the amount in minor units of an accrual
+   @throws ArithmeticException if the amount doesn't fit into the range of the accruals
+   */
+  public static long accrualOfUnits(long units) {
+    return Math.multiplyExact(units, ACCRUALS_PER_UNIT);
+  }
+
+  /**
+   Multiplies an amount by a percent and divides the product by a divisor, rounded half up. The operands are split
+   by the square root of the divisor, so the calculation is exact and doesn't allocate as long as the percent is
+   less than 2^43 minor units.
+   @param units the amount in minor units
+   @param percentUnits the non-negative percent in minor units of a percent
+   @param divisor the divisor of the product
+   @param root the square root of the divisor
+   @return the rounded quotient
+   */
+  private static long divide(long units, long percentUnits, long divisor, long root) {
+    if (units < 0)
+      return -divide(Math.negateExact(units), percentUnits, divisor, root);
+    if (percentUnits >= MAX_FAST_PERCENT)
+      return BigDecimal.valueOf(units).multiply(BigDecimal.valueOf(percentUnits))
+          .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP).longValueExact();
+
+    long high = units / divisor;
+    long rest = units % divisor;
+    long middle = rest / root * percentUnits;
+    long low = rest % root * percentUnits;
+
+    long whole = Math.addExact(Math.multiplyExact(high, percentUnits), middle / root);
+    long remainder = middle % root * root + low;
+    whole = Math.addExact(whole, remainder / divisor);
+    remainder %= divisor;
+
+    return remainder * 2 >= divisor ? Math.addExact(whole, 1) : whole;
+  }
+
+  /**
+   Gets the amount in minor units.
+   @return the amount in minor units
+   */
+  public long getUnits() {
+    return units;
+  }
+
+  /**
+   Adds the given amount to this amount.
+   @param other the amount to add
+   @return the sum of the amounts
+   @throws ArithmeticException if the sum doesn't fit into the range of the money
+   */
+  public Money add(Money other) {
+    return ofUnits(Math.addExact(units, other.units));
+  }
+
+  /**
+   Subtracts the given amount from this amount.
+   @param other the amount to subtract
+   @return the difference of the amounts
+   @throws ArithmeticException if the difference doesn't fit into the range of the money
+   */
+  public Money subtract(Money other) {
+    return ofUnits(Math.subtractExact(units, other.units));
+  }
+
+  /**
+   Multiplies this amount by the given whole number.
+   @param multiplier the number to multiply by
+   @return the product of the amount and the number
+   @throws ArithmeticException if the product doesn't fit into the range of the money
+   */
+  public Money multiply(long multiplier) {
+    return ofUnits(Math.multiplyExact(units, multiplier));
+  }
+
+  /**
+   Checks if this amount is less than zero.
+   @return true if the amount is negative, false otherwise
+   */
+  public boolean isNegative() {
+    return units < 0;
+  }
+
+  /**
+   Compares this amount with the given amount.
+   @param other the amount to compare with
+   @return a negative number, zero or a positive number if this amount is less than, equal to or greater than the given one
+   */
+  @Override
+  public int compareTo(Money other) {
+    return Long.compare(units, other.units);
+  }
+
+  /**
+   Converts this amount to a decimal with SCALE digits after the point.
+   @return the decimal amount
+   */
+  public BigDecimal toBigDecimal() {
+    return BigDecimal.valueOf(units, SCALE);
+  }
+
+  /**
+   Returns the decimal representation of this amount.
+   @return the decimal representation of the amount
+   */
+  @Override
+  public String toString() {
+    return toBigDecimal().toPlainString();
+  }
+}
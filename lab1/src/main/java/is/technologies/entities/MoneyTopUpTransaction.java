@@ -1,7 +1,6 @@
 package is.technologies.entities;
 
 import is.technologies.exceptions.*;
-import java.math.BigDecimal;
 import lombok.Getter;
 
 
@@ -14,7 +13,7 @@ public class MoneyTopUpTransaction implements Transaction {
   /**
    Represents the amount of money to be transferred in this transaction.
    */
-  private final BigDecimal money;
+  private final Money money;
 
   /**
    Represents a flag indicating whether the money transfer has been completed.
@@ -23,6 +22,12 @@ public class MoneyTopUpTransaction implements Transaction {
    */
   private boolean isMoneyTransferred;
 
+  /**
+   Represents a flag indicating whether the transaction has been rolled back. A rolled back transaction
+   can't be executed or rolled back again, whichever journal it is rolled back through.
+   */
+  private boolean isRolledBack;
+
   /**
    Represents the bank account from which the money will be transferred.
    */
@@ -39,10 +44,10 @@ public class MoneyTopUpTransaction implements Transaction {
    @param money The amount of money to transfer.
    @throws TransactionException if there is an error with the transaction, such as an invalid bank account or amount of money.
    */
-  public MoneyTopUpTransaction(BankAccount account, BigDecimal money) throws TransactionException {
+  public MoneyTopUpTransaction(BankAccount account, Money money) throws TransactionException {
     if (account == null)
       throw TransactionException.invalidBankAccount();
-    if (money.compareTo(BigDecimal.ZERO) < 0)
+    if (money.isNegative())
       throw TransactionException.invalidMoney(money);
     this.accountFrom = account;
     this.accountTo = account;
@@ -56,14 +61,14 @@ public class MoneyTopUpTransaction implements Transaction {
    @throws BankAccountException if the bank account operation fails
    */
   public void execute() throws TransactionException, BankAccountException {
-    if (isMoneyTransferred)
+    if (isMoneyTransferred || isRolledBack)
       throw TransactionException.invalidTransaction();
     accountFrom.topUp(money);
     isMoneyTransferred = true;
   }
 
   /**
-   Rolls back the money top-up transaction.
+   Rolls back the money top-up transaction. The money is no longer transferred afterwards.
    @throws TransactionException if the transaction is invalid or an error occurs during the transaction
    @throws BankAccountException if an error occurs while updating the bank account
    */
@@ -73,5 +78,7 @@ public class MoneyTopUpTransaction implements Transaction {
     if (!isMoneyTransferred)
       throw TransactionException.invalidTransaction();
     accountFrom.withdraw(money);
+    isMoneyTransferred = false;
+    isRolledBack = true;
   }
 }
@@ -1,6 +1,5 @@
 package is.technologies.entities;
 
-import java.math.BigDecimal;
 import is.technologies.exceptions.*;
 import lombok.Getter;
 
@@ -13,7 +12,7 @@ public class MoneyTransferTransaction implements Transaction {
   /**
    Represents the amount of money to be transferred in this transaction.
    */
-  private final BigDecimal money;
+  private final Money money;
 
   /**
    Represents a flag indicating whether the money transfer has been completed.
@@ -22,6 +21,12 @@ public class MoneyTransferTransaction implements Transaction {
    */
   private boolean isMoneyTransferred;
 
+  /**
+   Represents a flag indicating whether the transaction has been rolled back. A rolled back transaction
+   can't be executed or rolled back again, whichever journal it is rolled back through.
+   */
+  private boolean isRolledBack;
+
   /**
    Represents the bank account from which the money will be transferred.
    */
@@ -39,13 +44,13 @@ public class MoneyTransferTransaction implements Transaction {
    @param money The amount of money to be transferred.
    @throws TransactionException If either bankAccountFrom or bankAccountTo is null, or if the money value is negative.
    */
-  public MoneyTransferTransaction(BankAccount bankAccountFrom, BankAccount bankAccountTo, BigDecimal money)
+  public MoneyTransferTransaction(BankAccount bankAccountFrom, BankAccount bankAccountTo, Money money)
       throws TransactionException {
     if (bankAccountFrom == null)
       throw TransactionException.invalidBankAccount();
     if (bankAccountTo == null)
       throw TransactionException.invalidBankAccount();
-    if (money.compareTo(BigDecimal.ZERO) < 0)
+    if (money.isNegative())
       throw TransactionException.invalidMoney(money);
 
     accountFrom = bankAccountFrom;
@@ -55,25 +60,31 @@ public class MoneyTransferTransaction implements Transaction {
   }
 
   /**
-   Executes the money transfer transaction.
+   Executes the money transfer transaction. If the money can't be put on the receiving account,
+   it is returned to the sending one before the failure is passed on.
    @throws TransactionException if the transaction has already been executed or if the transfer is not allowed for any reason.
    @throws BankAccountException if there is an error with the bank accounts.
    */
   public void execute() throws TransactionException, BankAccountException {
-    if (isMoneyTransferred) {
+    if (isMoneyTransferred || isRolledBack) {
       throw TransactionException.invalidTransaction();
     }
 
     if (!accountFrom.isWithdrawAllowed(money))
       throw TransactionException.invalidTransaction();
     accountFrom.withdraw(money);
-    accountTo.topUp(money);
+    try {
+      accountTo.topUp(money);
+    } catch (BankAccountException | RuntimeException e) {
+      accountFrom.topUp(money);
+      throw e;
+    }
 
     isMoneyTransferred = true;
   }
 
   /**
-   Rolls back the money transfer transaction.
+   Rolls back the money transfer transaction. The money is no longer transferred afterwards.
    @throws TransactionException if the transaction has not been executed or if there is an error rolling back the transaction.
    @throws BankAccountException if there is an error with the bank accounts.
    */
@@ -82,5 +93,7 @@ public class MoneyTransferTransaction implements Transaction {
       throw TransactionException.invalidTransaction();
     accountTo.withdraw(money);
     accountFrom.topUp(money);
+    isMoneyTransferred = false;
+    isRolledBack = true;
   }
 }
@@ -1,6 +1,5 @@
 package is.technologies.entities;
 
-import java.math.BigDecimal;
 import is.technologies.exceptions.*;
 import lombok.Getter;
 
@@ -13,7 +12,7 @@ public class MoneyWithdrawTransaction implements Transaction {
   /**
    Represents the amount of money to be transferred in this transaction.
    */
-  private final BigDecimal money;
+  private final Money money;
 
   /**
    Represents a flag indicating whether the money transfer has been completed.
@@ -22,6 +21,12 @@ public class MoneyWithdrawTransaction implements Transaction {
    */
   private boolean isMoneyTransferred;
 
+  /**
+   Represents a flag indicating whether the transaction has been rolled back. A rolled back transaction
+   can't be executed or rolled back again, whichever journal it is rolled back through.
+   */
+  private boolean isRolledBack;
+
   /**
    Represents the bank account from which the money will be transferred.
    */
@@ -38,11 +43,11 @@ public class MoneyWithdrawTransaction implements Transaction {
    @param money the amount of money to withdraw from the account.
    @throws TransactionException if the provided bank account or money amount is invalid.
    */
-  public MoneyWithdrawTransaction(BankAccount account, BigDecimal money)
+  public MoneyWithdrawTransaction(BankAccount account, Money money)
       throws TransactionException {
     if (account == null)
       throw TransactionException.invalidBankAccount();
-    if (money.compareTo(BigDecimal.ZERO) < 0)
+    if (money.isNegative())
       throw TransactionException.invalidMoney(money);
 
     accountFrom = account;
@@ -57,7 +62,7 @@ public class MoneyWithdrawTransaction implements Transaction {
    @throws BankAccountException if the withdraw operation fails.
    */
   public void execute() throws TransactionException, BankAccountException {
-    if (isMoneyTransferred)
+    if (isMoneyTransferred || isRolledBack)
       throw TransactionException.invalidTransaction();
     if (!accountFrom.isWithdrawAllowed(money))
       throw TransactionException.invalidTransaction();
@@ -66,7 +71,7 @@ public class MoneyWithdrawTransaction implements Transaction {
   }
 
   /**
-   Rolls back the money withdraw transaction.
+   Rolls back the money withdraw transaction. The money is no longer transferred afterwards.
    @throws TransactionException if the transaction is invalid or has not been executed.
    @throws BankAccountException if the top-up operation fails.
    */
@@ -74,5 +79,7 @@ public class MoneyWithdrawTransaction implements Transaction {
     if (!isMoneyTransferred)
       throw TransactionException.invalidTransaction();
     accountFrom.topUp(money);
+    isMoneyTransferred = false;
+    isRolledBack = true;
   }
 }
@@ -1,6 +1,9 @@
 package is.technologies.entities;
 
 import is.technologies.exceptions.*;
+import is.technologies.notifications.NotificationDispatcher;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  Represents an observable interface.
@@ -29,4 +32,14 @@ public interface Observable<TPayload> {
    @throws ClientException if there is an error with the client.
    */
   void notify(TPayload payload) throws AggregatorException, MediatorException, ClientException;
+
+  /**
+   Delivers the specified payload to all observers subscribed to this observable in the background.
+   @param payload The payload to notify the observers with.
+   @param dispatcher The dispatcher that delivers the payload.
+   @return the future completed with the observers that failed to take the payload.
+   @throws AggregatorException if the payload or the dispatcher is invalid.
+   */
+  CompletableFuture<List<Observer<TPayload>>> notifyAsync(TPayload payload, NotificationDispatcher dispatcher)
+      throws AggregatorException;
 }
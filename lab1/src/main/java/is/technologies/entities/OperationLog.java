@@ -0,0 +1,112 @@
+package is.technologies.entities;
+
+import is.technologies.models.*;
+import java.math.BigDecimal;
+import java.util.Calendar;
+
+/**
+ Represents a log of the operations that change the state of the banking system.
+ The central bank and the banks report every operation after it has been applied. Money operations are reported
+ while the bank accounts are still locked, so the operations on one bank account are reported in the order
+ they were applied.
+ */
+public interface OperationLog {
+
+  /**The log that ignores all operations, used until a real log is attached.*/
+  OperationLog NONE = new OperationLog() {
+    @Override
+    public void bankAdded(Bank bank) {}
+
+    @Override
+    public void clientAdded(Client client) {}
+
+    @Override
+    public void accountOpened(BankAccount bankAccount) {}
+
+    @Override
+    public void transactionExecuted(Transaction transaction, boolean isInterbank) {}
+
+    @Override
+    public void transactionRolledBack(Bank bank, Transaction transaction) {}
+
+    @Override
+    public void transferRolledBack(MoneyTransferTransaction transaction) {}
+
+    @Override
+    public void transactionMarkedRolledBack(Transaction transaction) {}
+
+    @Override
+    public void rateChanged(Bank bank, Rate rate, BigDecimal value) {}
+
+    @Override
+    public void velocityWindowChanged(Bank bank, int windowDays) {}
+
+    @Override
+    public void dateChanged(Calendar time) {}
+  };
+
+  /**
+   Logs that a new bank was added to the central bank.
+   @param bank the added bank
+   */
+  void bankAdded(Bank bank);
+
+  /**
+   Logs that a new client was added to a bank.
+   @param client the added client, already registered in its bank
+   */
+  void clientAdded(Client client);
+
+  /**
+   Logs that a new bank account was opened, together with its current state.
+   @param bankAccount the opened bank account
+   */
+  void accountOpened(BankAccount bankAccount);
+
+  /**
+   Logs that a transaction was executed.
+   @param transaction the executed transaction
+   @param isInterbank true if the transaction was executed by the central bank, false if by a bank
+   */
+  void transactionExecuted(Transaction transaction, boolean isInterbank);
+
+  /**
+   Logs that a transaction was rolled back by a bank.
+   @param bank the bank that rolled the transaction back
+   @param transaction the rolled back transaction
+   */
+  void transactionRolledBack(Bank bank, Transaction transaction);
+
+  /**
+   Logs that a money transfer transaction was rolled back by the central bank.
+   @param transaction the rolled back transaction
+   */
+  void transferRolledBack(MoneyTransferTransaction transaction);
+
+  /**
+   Logs that a transaction was marked as rolled back in the journals of the banks without changing the balances.
+   @param transaction the marked transaction
+   */
+  void transactionMarkedRolledBack(Transaction transaction);
+
+  /**
+   Logs that a bank changed one of its rates.
+   @param bank the bank that changed the rate
+   @param rate the changed rate
+   @param value the new value of the rate
+   */
+  void rateChanged(Bank bank, Rate rate, BigDecimal value);
+
+  /**
+   Logs that a bank changed the window its restriction for not verified customers applies to.
+   @param bank the bank that changed the window
+   @param windowDays the new length of the window in days
+   */
+  void velocityWindowChanged(Bank bank, int windowDays);
+
+  /**
+   Logs that the date of the central bank was changed.
+   @param time the new date
+   */
+  void dateChanged(Calendar time);
+}
@@ -0,0 +1,28 @@
+package is.technologies.entities;
+
+/**
+ Represents the rates a bank can change for its clients.
+ */
+public enum Rate {
+
+  /**The percent for debit accounts.*/
+  PERCENT_FOR_DEBIT_ACCOUNTS,
+
+  /**The percent for deposit accounts with balances less than fifty thousand.*/
+  PERCENT_LESS_FIFTY_THOUSAND,
+
+  /**The percent for deposit accounts with balances between fifty thousand and one hundred thousand.*/
+  PERCENT_LESS_ONE_HUNDRED_THOUSAND,
+
+  /**The percent for deposit accounts with balances greater than one hundred thousand.*/
+  PERCENT_MORE_ONE_HUNDRED_THOUSAND,
+
+  /**The commission for credit accounts.*/
+  COMMISSION_FOR_CREDIT_ACCOUNT,
+
+  /**The restriction for not verified customers.*/
+  RESTRICTION_FOR_NOT_VERIFIED_CUSTOMERS,
+
+  /**The credit limit for credit accounts.*/
+  CREDIT_LIMIT
+}
@@ -0,0 +1,105 @@
+package is.technologies.entities;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ The RateTable class holds one version of the rates of a bank.
+ A table never changes: changing a rate makes a new table with the next version, and the bank accounts keep
+ the version they were opened with. The daily percents and the amounts of money of the rates are computed once
+ when the table is made, so the bank accounts don't convert the rates every day.
+ */
+public final class RateTable {
+
+  /**The version of the table, 0 for the rates the bank was created with.*/
+  @Getter
+  private final int version;
+
+  /**The rates by the ordinal of their Rate.*/
+  private final BigDecimal[] values;
+
+  /**The daily percents of the rates in minor units, by the ordinal of their Rate.*/
+  private final long[] dayPercents;
+
+  /**The rates as amounts of money in minor units, by the ordinal of their Rate.*/
+  private final long[] units;
+
+  /**
+   Creates the first table of a bank.
+   @param percentForDebitAccounts the percent for debit accounts
+   @param percentLessFiftyThousand the percent for deposit accounts with balances less than fifty thousand
+   @param percentLessOneHundredThousand the percent for deposit accounts with balances less than one hundred thousand
+   @param percentMoreOneHundredThousand the percent for deposit accounts with balances greater than one hundred thousand
+   @param commissionForCreditAccount the commission for credit accounts
+   @param restrictionForNotVerifiedCustomers the restriction for not verified customers
+   @param creditLimit the credit limit for credit accounts
+   */
+  public RateTable(
+      BigDecimal percentForDebitAccounts,
+      BigDecimal percentLessFiftyThousand,
+      BigDecimal percentLessOneHundredThousand,
+      BigDecimal percentMoreOneHundredThousand,
+      BigDecimal commissionForCreditAccount,
+      BigDecimal restrictionForNotVerifiedCustomers,
+      BigDecimal creditLimit) {
+    this(0, new BigDecimal[] {percentForDebitAccounts, percentLessFiftyThousand, percentLessOneHundredThousand,
+        percentMoreOneHundredThousand, commissionForCreditAccount, restrictionForNotVerifiedCustomers, creditLimit});
+  }
+
+  /**
+   Creates a table.
+   @param version the version of the table
+   @param values the rates by the ordinal of their Rate, owned by the table
+   */
+  private RateTable(int version, BigDecimal[] values) {
+    this.version = version;
+    this.values = values;
+    dayPercents = new long[values.length];
+    units = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      dayPercents[i] = Money.dayPercent(values[i]);
+      units[i] = Money.toUnits(values[i]);
+    }
+  }
+
+  /**
+   Makes a table with one rate changed.
+   @param version the version of the new table
+   @param rate the rate to change
+   @param value the new value of the rate
+   @return the new table
+   */
+  public RateTable with(int version, Rate rate, BigDecimal value) {
+    BigDecimal[] newValues = Arrays.copyOf(values, values.length);
+    newValues[rate.ordinal()] = value;
+    return new RateTable(version, newValues);
+  }
+
+  /**
+   Gets a rate.
+   @param rate the rate
+   @return the value of the rate
+   */
+  public BigDecimal get(Rate rate) {
+    return values[rate.ordinal()];
+  }
+
+  /**
+   Gets the daily percent of a rate.
+   @param rate the rate, an annual percent
+   @return the daily percent in minor units
+   */
+  public long getDayPercent(Rate rate) {
+    return dayPercents[rate.ordinal()];
+  }
+
+  /**
+   Gets a rate as an amount of money.
+   @param rate the rate, an amount of money
+   @return the amount in minor units
+   */
+  public long getUnits(Rate rate) {
+    return units[rate.ordinal()];
+  }
+}
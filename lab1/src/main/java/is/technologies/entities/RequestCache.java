@@ -0,0 +1,246 @@
+package is.technologies.entities;
+
+import is.technologies.exceptions.*;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ The RequestCache class makes the operations submitted with a request ID idempotent.
+ The first operation with a request ID is executed and its transaction is remembered; an operation with the same
+ request ID gets the remembered transaction back without being executed again, and an operation submitted while
+ the first one is still running waits for it. If the first operation fails, nothing is remembered and the next one
+ with the same request ID is executed.
+ The cache is bounded: it is split into segments, each a map in the order the requests arrived with its own lock,
+ and a segment forgets its oldest finished request when it is full. A request whose operation is still running is
+ never forgotten, so a segment may hold more requests than its share of the capacity while they run.
+ A remembered transaction also expires after the time to live, counted from the end of its operation.
+ The cache is kept in memory only: neither the write-ahead log nor its snapshots store it, so a request repeated
+ after the central bank is restored is executed again.
+ */
+public class RequestCache {
+
+  /**The number of requests remembered by a cache created without a capacity.*/
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+
+  /**The time to live of the requests of a cache created without one.*/
+  public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+  /**The number of segments, a power of two.*/
+  private static final int SEGMENTS = 16;
+
+  /**The segments of the cache.*/
+  private final Segment[] segments;
+
+  /**The time to live of a remembered transaction in nanoseconds.*/
+  private final long timeToLive;
+
+  /**
+   Creates a new cache with the default capacity and time to live.
+   */
+  public RequestCache() {
+    this(DEFAULT_CAPACITY, DEFAULT_TIME_TO_LIVE.toNanos());
+  }
+
+  /**
+   Creates a new cache with the given capacity and time to live.
+   @param capacity the largest number of requests to remember
+   @param timeToLive the time a transaction is remembered for after its operation
+   @throws TransactionException if the capacity or the time to live isn't positive
+   */
+  public RequestCache(int capacity, Duration timeToLive) throws TransactionException {
+    this(capacity, checkedTimeToLive(capacity, timeToLive));
+  }
+
+  /**
+   Creates a new cache with the given capacity and time to live in nanoseconds.
+   @param capacity the largest number of requests to remember
+   @param timeToLive the time a transaction is remembered for after its operation, in nanoseconds
+   */
+  private RequestCache(int capacity, long timeToLive) {
+    this.timeToLive = timeToLive;
+    segments = new Segment[SEGMENTS];
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment(Math.max(1, capacity / SEGMENTS));
+    }
+  }
+
+  /**
+   Executes the given operation once per request ID.
+   @param requestId the ID of the request, or null to execute the operation without deduplication
+   @param type the type of the transaction of the operation
+   @param operation the operation to execute
+   @param <T> the type of the transaction of the operation
+   @return the transaction of the operation, or the remembered transaction of the request
+   @throws BankException if the operation fails
+   @throws TransactionException if the operation fails, or the request ID was used for another type of transaction
+   @throws BankAccountException if the operation fails
+   */
+  public <T extends Transaction> T execute(String requestId, Class<T> type, Operation<T> operation)
+      throws BankException, TransactionException, BankAccountException {
+    if (requestId == null)
+      return operation.execute();
+
+    Segment segment = segments[(requestId.hashCode() ^ (requestId.hashCode() >>> 16)) & (SEGMENTS - 1)];
+    while (true) {
+      CompletableFuture<Transaction> result;
+      boolean owner = false;
+      synchronized (segment) {
+        Entry entry = segment.get(requestId);
+        if (entry == null || entry.isExpired(System.nanoTime())) {
+          entry = new Entry();
+          segment.removeExpired(System.nanoTime());
+          segment.put(requestId, entry);
+          owner = true;
+        }
+        result = entry.result;
+      }
+
+      if (owner)
+        return executeOwned(segment, requestId, result, operation);
+
+      Transaction original = result.join();
+      if (original == null)
+        continue;
+      if (!type.isInstance(original))
+        throw TransactionException.duplicateRequest();
+      return type.cast(original);
+    }
+  }
+
+  /**
+   Executes the operation of a request this thread has reserved and publishes its result.
+   @param segment the segment of the request
+   @param requestId the ID of the request
+   @param result the result of the request waited for by the other operations with the same request ID
+   @param operation the operation to execute
+   @param <T> the type of the transaction of the operation
+   @return the transaction of the operation
+   @throws BankException if the operation fails
+   @throws TransactionException if the operation fails
+   @throws BankAccountException if the operation fails
+   */
+  private <T extends Transaction> T executeOwned(
+      Segment segment, String requestId, CompletableFuture<Transaction> result, Operation<T> operation)
+      throws BankException, TransactionException, BankAccountException {
+    T transaction = null;
+    try {
+      transaction = operation.execute();
+      return transaction;
+    } finally {
+      synchronized (segment) {
+        Entry entry = segment.get(requestId);
+        if (entry != null && entry.result == result) {
+          if (transaction == null)
+            segment.remove(requestId);
+          else
+            entry.expiresAt = System.nanoTime() + timeToLive;
+        }
+      }
+      result.complete(transaction);
+    }
+  }
+
+  /**
+   Checks the arguments of a cache.
+   @param capacity the largest number of requests to remember
+   @param timeToLive the time a transaction is remembered for after its operation
+   @return the time to live in nanoseconds
+   @throws TransactionException if the capacity or the time to live isn't positive
+   */
+  private static long checkedTimeToLive(int capacity, Duration timeToLive) throws TransactionException {
+    if (capacity <= 0)
+      throw TransactionException.invalidCapacity(capacity);
+    if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero())
+      throw TransactionException.invalidTimeToLive();
+    return timeToLive.toNanos();
+  }
+
+  /**
+   An operation that executes a transaction.
+   @param <T> the type of the transaction
+   */
+  public interface Operation<T extends Transaction> {
+    /**
+     Executes the operation.
+     @return the executed transaction
+     @throws BankException if the operation fails
+     @throws TransactionException if the operation fails
+     @throws BankAccountException if the operation fails
+     */
+    T execute() throws BankException, TransactionException, BankAccountException;
+  }
+
+  /**
+   A segment of the cache, the requests in the order they arrived. It forgets its oldest finished request when it
+   is full.
+   */
+  private static final class Segment extends LinkedHashMap<String, Entry> {
+
+    /**The largest number of requests in the segment.*/
+    private final int capacity;
+
+    /**
+     Creates a new empty segment.
+     @param capacity the largest number of requests in the segment
+     */
+    private Segment(int capacity) {
+      this.capacity = capacity;
+    }
+
+    /**
+     Forgets the expired requests at the head of the segment.
+     @param now the current time in nanoseconds
+     */
+    private void removeExpired(long now) {
+      Iterator<Entry> entries = values().iterator();
+      while (entries.hasNext() && entries.next().isExpired(now)) {
+        entries.remove();
+      }
+    }
+
+    /**
+     Forgets the oldest request whose operation has finished if the segment is over its capacity.
+     The requests whose operations are still running stay, as the operations waiting for them rely on them.
+     @param eldest the oldest request of the segment
+     @return always false, the request to forget is removed here
+     */
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+      if (size() <= capacity)
+        return false;
+
+      Iterator<Entry> entries = values().iterator();
+      while (entries.hasNext()) {
+        if (entries.next().result.isDone()) {
+          entries.remove();
+          return false;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   A request of the cache.
+   */
+  private static final class Entry {
+
+    /**The transaction of the request, completed with null if its operation failed.*/
+    private final CompletableFuture<Transaction> result = new CompletableFuture<>();
+
+    /**The time the request expires at in nanoseconds, only meaningful once its operation has finished.*/
+    private long expiresAt;
+
+    /**
+     Checks whether the operation of the request has finished and its transaction has expired.
+     @param now the current time in nanoseconds
+     @return true if the request has expired
+     */
+    private boolean isExpired(long now) {
+      return result.isDone() && now - expiresAt >= 0;
+    }
+  }
+}
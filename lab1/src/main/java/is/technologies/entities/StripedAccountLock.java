@@ -0,0 +1,283 @@
+package is.technologies.entities;
+
+import java.lang.invoke.VarHandle;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ The StripedAccountLock class guards bank accounts with a fixed number of locks.
+ Every bank account is mapped to one of the locks by the hash of its ID, so the number of locks doesn't grow with
+ the number of accounts. When two accounts are locked together, their locks are always taken in the order of
+ the lock indexes, so two transfers between the same accounts in opposite directions can't deadlock.
+ The lock also versions the balances for consistent snapshots without stopping the writers. Every acquisition
+ enters the current epoch and every release leaves it. A snapshot moves to a new epoch, waits only for the writers
+ that entered the old one, and reads the balances while the writers of the new epoch go on: before changing an
+ account, they save its balance for the snapshot. A thread must not lock again the accounts it already holds.
+ */
+public class StripedAccountLock {
+
+  /**The default number of locks.*/
+  private static final int DEFAULT_STRIPES = 1024;
+
+  /**The locks the bank accounts are mapped to.*/
+  private final ReentrantLock[] stripes;
+
+  /**The epoch entered by the holder of every lock, set on the first lock of an acquisition.*/
+  private final long[] stripeEpochs;
+
+  /**The current epoch.*/
+  private final AtomicLong epoch;
+
+  /**The number of holders that entered an even and an odd epoch.*/
+  private final AtomicInteger[] writers;
+
+  /**The lock that lets one snapshot or day change run at a time.*/
+  private final ReentrantLock snapshotLock;
+
+  /**The snapshot being taken, null if there is none.*/
+  private volatile Capture capture;
+
+  /**
+   Creates a new lock with the default number of stripes.
+   */
+  public StripedAccountLock() {
+    this(DEFAULT_STRIPES);
+  }
+
+  /**
+   Creates a new lock with at least the given number of stripes, rounded up to a power of two.
+   @param stripes the number of stripes
+   */
+  public StripedAccountLock(int stripes) {
+    int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+    this.stripes = new ReentrantLock[size];
+    for (int i = 0; i < size; i++) {
+      this.stripes[i] = new ReentrantLock();
+    }
+    stripeEpochs = new long[size];
+    epoch = new AtomicLong();
+    writers = new AtomicInteger[] {new AtomicInteger(), new AtomicInteger()};
+    snapshotLock = new ReentrantLock();
+    capture = null;
+  }
+
+  /**
+   Acquires the lock of the given bank account.
+   @param bankAccount the bank account to lock
+   */
+  public void lock(BankAccount bankAccount) {
+    int stripe = stripeOf(bankAccount);
+    stripes[stripe].lock();
+    stripeEpochs[stripe] = enter();
+    save(bankAccount, stripeEpochs[stripe]);
+  }
+
+  /**
+   Releases the lock of the given bank account.
+   @param bankAccount the bank account to unlock
+   */
+  public void unlock(BankAccount bankAccount) {
+    int stripe = stripeOf(bankAccount);
+    leave(stripeEpochs[stripe]);
+    stripes[stripe].unlock();
+  }
+
+  /**
+   Acquires the locks of both given bank accounts in a deterministic order.
+   If both accounts are mapped to the same lock, it is acquired once.
+   @param first the first bank account to lock
+   @param second the second bank account to lock
+   */
+  public void lock(BankAccount first, BankAccount second) {
+    int firstStripe = stripeOf(first);
+    int secondStripe = stripeOf(second);
+
+    stripes[Math.min(firstStripe, secondStripe)].lock();
+    if (firstStripe != secondStripe)
+      stripes[Math.max(firstStripe, secondStripe)].lock();
+
+    long entered = enter();
+    stripeEpochs[Math.min(firstStripe, secondStripe)] = entered;
+    save(first, entered);
+    save(second, entered);
+  }
+
+  /**
+   Releases the locks of both given bank accounts.
+   @param first the first bank account to unlock
+   @param second the second bank account to unlock
+   */
+  public void unlock(BankAccount first, BankAccount second) {
+    int firstStripe = stripeOf(first);
+    int secondStripe = stripeOf(second);
+
+    leave(stripeEpochs[Math.min(firstStripe, secondStripe)]);
+    if (firstStripe != secondStripe)
+      stripes[Math.max(firstStripe, secondStripe)].unlock();
+    stripes[Math.min(firstStripe, secondStripe)].unlock();
+  }
+
+  /**
+   Acquires the locks of all given bank accounts in the order of the lock indexes.
+   Every lock is acquired once, however many of the accounts are mapped to it.
+   @param bankAccounts the bank accounts to lock
+   */
+  public void lockAll(Collection<? extends BankAccount> bankAccounts) {
+    BitSet locked = stripesOf(bankAccounts);
+    for (int stripe = locked.nextSetBit(0); stripe >= 0; stripe = locked.nextSetBit(stripe + 1)) {
+      stripes[stripe].lock();
+    }
+    if (locked.isEmpty())
+      return;
+
+    long entered = enter();
+    stripeEpochs[locked.nextSetBit(0)] = entered;
+    for (BankAccount bankAccount : bankAccounts) {
+      save(bankAccount, entered);
+    }
+  }
+
+  /**
+   Releases the locks of all given bank accounts.
+   @param bankAccounts the bank accounts to unlock
+   */
+  public void unlockAll(Collection<? extends BankAccount> bankAccounts) {
+    BitSet locked = stripesOf(bankAccounts);
+    if (!locked.isEmpty())
+      leave(stripeEpochs[locked.nextSetBit(0)]);
+    for (int stripe = locked.previousSetBit(stripes.length - 1); stripe >= 0; stripe = locked.previousSetBit(stripe - 1)) {
+      stripes[stripe].unlock();
+    }
+  }
+
+  /**
+   Takes a consistent snapshot of the balances of the given bank accounts without blocking the writers.
+   The snapshot waits for the transactions that are running when it starts, and none of the transactions that
+   start later are in it. Snapshots and day changes run one at a time.
+   @param bankAccounts the bank accounts to read
+   @return the balances of the bank accounts
+   */
+  public BalanceSnapshot snapshot(Collection<? extends BankAccount> bankAccounts) {
+    List<BankAccount> accounts = List.copyOf(bankAccounts);
+    snapshotLock.lock();
+    try {
+      var newCapture = new Capture(epoch.get() + 1);
+      capture = newCapture;
+      long oldEpoch = epoch.getAndIncrement();
+      while (writers[(int) (oldEpoch & 1)].get() != 0) {
+        Thread.onSpinWait();
+      }
+
+      Map<BankAccountId, Money> balances = new LinkedHashMap<>();
+      for (BankAccount bankAccount : accounts) {
+        Money balance = bankAccount.getBalance();
+        VarHandle.acquireFence();
+        Money savedBalance = newCapture.savedBalances.get(bankAccount);
+        balances.put(bankAccount.getBankAccountId(), savedBalance != null ? savedBalance : balance);
+      }
+      capture = null;
+      return new BalanceSnapshot(newCapture.epoch, balances);
+    } finally {
+      snapshotLock.unlock();
+    }
+  }
+
+  /**
+   Keeps snapshots from being taken until {@link #unlockSnapshots} is called, used by the changes of the date,
+   which change every balance without locking the bank accounts.
+   */
+  public void lockSnapshots() {
+    snapshotLock.lock();
+  }
+
+  /**
+   Lets snapshots be taken again.
+   */
+  public void unlockSnapshots() {
+    snapshotLock.unlock();
+  }
+
+  /**
+   Enters the current epoch as a writer.
+   @return the entered epoch
+   */
+  private long enter() {
+    while (true) {
+      long entered = epoch.get();
+      writers[(int) (entered & 1)].incrementAndGet();
+      if (epoch.get() == entered)
+        return entered;
+      writers[(int) (entered & 1)].decrementAndGet();
+    }
+  }
+
+  /**
+   Leaves an epoch as a writer.
+   @param entered the epoch entered by the writer
+   */
+  private void leave(long entered) {
+    writers[(int) (entered & 1)].decrementAndGet();
+  }
+
+  /**
+   Saves the balance of a locked bank account for the snapshot being taken in the given epoch, if there is one.
+   @param bankAccount the locked bank account
+   @param entered the epoch entered by the writer
+   */
+  private void save(BankAccount bankAccount, long entered) {
+    Capture current = capture;
+    if (current != null && current.epoch == entered)
+      current.savedBalances.putIfAbsent(bankAccount, bankAccount.getBalance());
+  }
+
+  /**
+   Maps the given bank accounts to the set of indexes of their locks.
+   @param bankAccounts the bank accounts
+   @return the indexes of the locks of the bank accounts
+   */
+  private BitSet stripesOf(Collection<? extends BankAccount> bankAccounts) {
+    var locked = new BitSet(stripes.length);
+    for (BankAccount bankAccount : bankAccounts) {
+      locked.set(stripeOf(bankAccount));
+    }
+    return locked;
+  }
+
+  /**
+   Maps the given bank account to the index of its lock.
+   @param bankAccount the bank account
+   @return the index of the lock of the bank account
+   */
+  private int stripeOf(BankAccount bankAccount) {
+    int hash = bankAccount.getBankAccountId().hashCode();
+    return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+  }
+
+  /**
+   A snapshot being taken: the balances saved by the writers of its epoch before they changed them.
+   */
+  private static final class Capture {
+
+    /**The epoch of the snapshot.*/
+    private final long epoch;
+
+    /**The balances of the bank accounts changed in the epoch, as they were before the change.*/
+    private final Map<BankAccount, Money> savedBalances;
+
+    /**
+     Creates a new capture.
+     @param epoch the epoch of the snapshot
+     */
+    private Capture(long epoch) {
+      this.epoch = epoch;
+      this.savedBalances = new ConcurrentHashMap<>();
+    }
+  }
+}
@@ -1,38 +1,50 @@
 package is.technologies.entities;
 
 import java.util.Calendar;
-import java.util.Date;
 import lombok.Getter;
 
 
 /**
- A class representing a time provider that provides the current date and time.
+ A class representing a time provider that provides the current date.
+ The date is kept as an epoch day, so moving the simulation from day to day is an addition;
+ calendars are only built when the date is asked for as one.
  */
 @Getter
 public class TimeProvider {
 
   /**
-   The current time represented by a {@code Calendar} instance.
+   The current date as the number of days since 1970-01-01.
    */
-  private Calendar date;
+  private volatile int day;
 
   /**
-   Initializes a new instance of the {@code TimeProvider} class, with the current time set as the initial time.
+   Initializes a new instance of the {@code TimeProvider} class, with the current date set as the initial date.
    */
   public TimeProvider() {
-    this.date = Calendar.getInstance();
-    this.date.setTime(new Date());
-    date.set(Calendar.HOUR_OF_DAY, 0);
-    date.set(Calendar.MINUTE, 0);
-    date.set(Calendar.SECOND, 0);
-    date.set(Calendar.MILLISECOND, 0);
+    this.day = EpochDays.today();
   }
 
   /**
-   Changes the current time to the specified date and time.
-   @param dateTime the new date and time to set as the current time.
+   Returns the current date.
+   @return a new calendar set to the start of the current day
+   */
+  public Calendar getDate() {
+    return EpochDays.toCalendar(day);
+  }
+
+  /**
+   Changes the current date to the date of the specified time.
+   @param dateTime the time whose date becomes the current date.
    */
   public void changeDate(Calendar dateTime) {
-    date = dateTime;
+    day = EpochDays.of(dateTime);
+  }
+
+  /**
+   Changes the current date to the specified epoch day.
+   @param day the new current date as the number of days since 1970-01-01.
+   */
+  public void changeDay(int day) {
+    this.day = day;
   }
 }
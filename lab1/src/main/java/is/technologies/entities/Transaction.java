@@ -1,7 +1,6 @@
 package is.technologies.entities;
 
 import is.technologies.exceptions.*;
-import java.math.BigDecimal;
 
 /**
  Represents a transaction interface.
@@ -23,7 +22,7 @@ public interface Transaction {
    Gets the amount of money being transferred.
    @return The amount of money being transferred.
    */
-  BigDecimal getMoney();
+  Money getMoney();
 
   /**
    Checks if the money has been transferred.
@@ -31,6 +30,12 @@ public interface Transaction {
    */
   boolean isMoneyTransferred();
 
+  /**
+   Checks if the transaction has been rolled back.
+   @return true if the transaction has been rolled back, false otherwise.
+   */
+  boolean isRolledBack();
+
   /**
    Rolls back the transaction.
    @throws TransactionException if there is an error with the transaction.
@@ -0,0 +1,409 @@
+package is.technologies.entities;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ The TransactionJournal class is an append-only list of transactions.
+ Every appended transaction gets a sequence ID equal to its position in the journal. Entries are never removed:
+ a rolled back transaction is marked with a tombstone and stays in the journal for audit.
+ The entries are stored in fixed-size chunks, so appending never copies the existing entries, and an index by
+ transaction makes contains, the sequence ID lookup and the rollback mark constant-time operations.
+ Every entry is stamped with the start of the simulated date it was appended on, taken from the time provider of
+ the bank system rather than the wall clock, so the statements for a time range follow the simulated calendar.
+ The sequence IDs are also appended to the history of
+ every bank account of the transaction, so a statement of one bank account is read from its history without
+ scanning the journal.
+ Appending is synchronized, reading doesn't lock.
+ @param <T> The type of the transactions in the journal.
+ */
+public class TransactionJournal<T extends Transaction> extends AbstractList<T> {
+
+  /**The number of bits of the position of an entry inside its chunk.*/
+  private static final int CHUNK_BITS = 12;
+
+  /**The number of entries in a chunk.*/
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+  /**The mask that selects the position of an entry inside its chunk.*/
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  /**The index of the entries by transaction.*/
+  private final Map<T, Entry<T>> entries;
+
+  /**The histories of the bank accounts by their IDs.*/
+  private final Map<BankAccountId, History> histories;
+
+  /**The chunks of entries in the order of their sequence IDs.*/
+  private volatile Entry<T>[][] chunks;
+
+  /**The number of entries in the journal.*/
+  private volatile int size;
+
+  /**The provider of the simulated date the entries are stamped with.*/
+  private final TimeProvider timeProvider;
+
+  /**The epoch day the last entry was stamped on.*/
+  private int stampedDay;
+
+  /**The start of the epoch day the last entry was stamped on, in milliseconds since the epoch.*/
+  private long stampedDayStart;
+
+  /**
+   Creates a new empty journal.
+   @param timeProvider the provider of the simulated date the entries are stamped with, cannot be null
+   */
+  @SuppressWarnings("unchecked")
+  public TransactionJournal(TimeProvider timeProvider) {
+    this.timeProvider = timeProvider;
+    stampedDay = Integer.MIN_VALUE;
+    entries = new ConcurrentHashMap<>();
+    histories = new ConcurrentHashMap<>();
+    chunks = new Entry[16][];
+    size = 0;
+  }
+
+  /**
+   Appends the given transaction to the end of the journal.
+   A transaction that is already in the journal isn't appended again.
+   @param transaction the transaction to append
+   @return the sequence ID of the transaction
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized long append(T transaction) {
+    Entry<T> existing = entries.get(transaction);
+    if (existing != null)
+      return existing.sequenceId;
+
+    int sequenceId = size;
+    int chunk = sequenceId >>> CHUNK_BITS;
+    if (chunk == chunks.length)
+      chunks = Arrays.copyOf(chunks, chunks.length * 2);
+    if (chunks[chunk] == null)
+      chunks[chunk] = new Entry[CHUNK_SIZE];
+
+    long time = stamp();
+    if (sequenceId > 0)
+      time = Math.max(time, get(sequenceId - 1, chunks).time);
+    var entry = new Entry<>(transaction, sequenceId, time);
+    chunks[chunk][sequenceId & CHUNK_MASK] = entry;
+    entries.put(transaction, entry);
+    addToHistory(transaction.getAccountFrom(), sequenceId, time);
+    if (transaction.getAccountTo() != transaction.getAccountFrom())
+      addToHistory(transaction.getAccountTo(), sequenceId, time);
+    size = sequenceId + 1;
+    return sequenceId;
+  }
+
+  /**
+   Gets the time to stamp a new entry with: the start of the current simulated date. The start of the day is
+   computed once per day. The caller holds the lock of the journal.
+   @return the time in milliseconds since the epoch
+   */
+  private long stamp() {
+    int day = timeProvider.getDay();
+    if (day != stampedDay) {
+      stampedDayStart = EpochDays.startOf(day);
+      stampedDay = day;
+    }
+    return stampedDayStart;
+  }
+
+  /**
+   Appends a sequence ID to the history of a bank account.
+   @param bankAccount the bank account of the transaction, may be null
+   @param sequenceId the sequence ID of the transaction
+   @param time the time the transaction was appended
+   */
+  private void addToHistory(BankAccount bankAccount, int sequenceId, long time) {
+    if (bankAccount == null)
+      return;
+    histories.computeIfAbsent(bankAccount.getBankAccountId(), id -> new History()).add(sequenceId, time);
+  }
+
+  /**
+   Appends the given transaction to the end of the journal.
+   @param transaction the transaction to append
+   @return always true
+   */
+  @Override
+  public boolean add(T transaction) {
+    append(transaction);
+    return true;
+  }
+
+  /**
+   Appends the given transactions to the end of the journal in their order, taking the lock of the journal once.
+   Transactions that are already in the journal aren't appended again.
+   @param transactions the transactions to append
+   */
+  public synchronized void appendAll(Collection<? extends T> transactions) {
+    for (T transaction : transactions) {
+      append(transaction);
+    }
+  }
+
+  /**
+   Appends the given transactions to the end of the journal.
+   @param transactions the transactions to append
+   @return true if any transactions were given
+   */
+  @Override
+  public boolean addAll(Collection<? extends T> transactions) {
+    appendAll(transactions);
+    return !transactions.isEmpty();
+  }
+
+  /**
+   Gets the transaction with the given sequence ID.
+   @param index the sequence ID of the transaction
+   @return the transaction with the given sequence ID
+   @throws IndexOutOfBoundsException if there is no transaction with the given sequence ID
+   */
+  @Override
+  public T get(int index) {
+    if (index < 0 || index >= size)
+      throw new IndexOutOfBoundsException(index);
+    return get(index, chunks).transaction;
+  }
+
+  /**
+   Gets the number of transactions of a bank account, including the rolled back ones.
+   @param bankAccountId the ID of the bank account
+   @return the number of transactions of the bank account
+   */
+  public int historySize(BankAccountId bankAccountId) {
+    History history = histories.get(bankAccountId);
+    return history == null ? 0 : history.size;
+  }
+
+  /**
+   Gets a page of the transactions of a bank account in the order they were appended.
+   @param bankAccountId the ID of the bank account
+   @param offset the number of transactions of the bank account to skip
+   @param limit the largest number of transactions to return
+   @return the transactions of the page
+   */
+  public List<T> history(BankAccountId bankAccountId, int offset, int limit) {
+    return history(bankAccountId, Long.MIN_VALUE, Long.MAX_VALUE, offset, limit);
+  }
+
+  /**
+   Gets a page of the transactions of a bank account appended in the given time range, in the order they were appended.
+   The range is found by a binary search over the history of the bank account.
+   @param bankAccountId the ID of the bank account
+   @param from the first time of the range, in milliseconds since the epoch
+   @param to the time after the range, in milliseconds since the epoch
+   @param offset the number of transactions of the range to skip
+   @param limit the largest number of transactions to return
+   @return the transactions of the page
+   */
+  public List<T> history(BankAccountId bankAccountId, long from, long to, int offset, int limit) {
+    History history = histories.get(bankAccountId);
+    List<T> page = new ArrayList<>();
+    if (history == null)
+      return page;
+
+    int historySize = history.size;
+    int end = history.indexOf(to, historySize);
+    Entry<T>[][] chunks = this.chunks;
+    for (int i = history.indexOf(from, historySize) + offset; i < end && page.size() < limit; i++) {
+      page.add(get(history.sequenceId(i), chunks).transaction);
+    }
+    return page;
+  }
+
+  /**
+   Gets the time the given transaction was appended: the start of the simulated date it was appended on.
+   @param transaction the transaction
+   @return the time in milliseconds since the epoch, or -1 if the transaction isn't in the journal
+   */
+  public long getTime(T transaction) {
+    Entry<T> entry = entries.get(transaction);
+    return entry == null ? -1 : entry.time;
+  }
+
+  /**
+   Gets the entry with the given sequence ID from the given chunks.
+   @param sequenceId the sequence ID of the entry
+   @param chunks the chunks of the journal
+   @param <T> The type of the transaction of the entry.
+   @return the entry
+   */
+  private static <T> Entry<T> get(int sequenceId, Entry<T>[][] chunks) {
+    return chunks[sequenceId >>> CHUNK_BITS][sequenceId & CHUNK_MASK];
+  }
+
+  /**
+   Gets the number of transactions in the journal, including the rolled back ones.
+   @return the number of transactions in the journal
+   */
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   Checks if the given transaction is in the journal.
+   @param transaction the transaction to check
+   @return true if the transaction is in the journal, false otherwise
+   */
+  @Override
+  public boolean contains(Object transaction) {
+    return transaction != null && entries.containsKey(transaction);
+  }
+
+  /**
+   Gets the sequence ID of the given transaction.
+   @param transaction the transaction
+   @return the sequence ID of the transaction, or -1 if the transaction isn't in the journal
+   */
+  public long getSequenceId(T transaction) {
+    Entry<T> entry = entries.get(transaction);
+    return entry == null ? -1 : entry.sequenceId;
+  }
+
+  /**
+   Marks the given transaction as rolled back.
+   @param transaction the transaction to mark
+   @return true if the transaction was marked, false if it isn't in the journal or was already rolled back
+   */
+  public boolean markRolledBack(T transaction) {
+    Entry<T> entry = entries.get(transaction);
+    return entry != null && entry.markRolledBack();
+  }
+
+  /**
+   Checks if the given transaction is marked as rolled back.
+   @param transaction the transaction to check
+   @return true if the transaction is in the journal and was rolled back, false otherwise
+   */
+  public boolean isRolledBack(T transaction) {
+    Entry<T> entry = entries.get(transaction);
+    return entry != null && entry.rolledBack;
+  }
+
+  /**
+   An entry of the journal.
+   @param <T> The type of the transaction of the entry.
+   */
+  private static final class Entry<T> {
+
+    /**The transaction of the entry.*/
+    private final T transaction;
+
+    /**The sequence ID of the transaction.*/
+    private final long sequenceId;
+
+    /**The simulated time the transaction was appended, in milliseconds since the epoch, never before the previous entry.*/
+    private final long time;
+
+    /**The tombstone of the entry, true if the transaction was rolled back.*/
+    private volatile boolean rolledBack;
+
+    /**
+     Creates a new entry for the given transaction.
+     @param transaction the transaction of the entry
+     @param sequenceId the sequence ID of the transaction
+     @param time the time the transaction was appended
+     */
+    private Entry(T transaction, long sequenceId, long time) {
+      this.transaction = transaction;
+      this.sequenceId = sequenceId;
+      this.time = time;
+      this.rolledBack = false;
+    }
+
+    /**
+     Marks the entry as rolled back.
+     @return true if the entry was marked, false if it was already rolled back
+     */
+    private synchronized boolean markRolledBack() {
+      if (rolledBack)
+        return false;
+      rolledBack = true;
+      return true;
+    }
+  }
+
+  /**
+   The history of one bank account: the sequence IDs and the times of its transactions in the order they were
+   appended, in chunks of primitive arrays. It is appended to under the lock of the journal.
+   */
+  private static final class History {
+
+    /**The chunks of sequence IDs.*/
+    private volatile int[][] sequenceIds;
+
+    /**The chunks of times, parallel to the chunks of sequence IDs.*/
+    private volatile long[][] times;
+
+    /**The number of transactions in the history.*/
+    private volatile int size;
+
+    /**
+     Creates a new empty history.
+     */
+    private History() {
+      sequenceIds = new int[4][];
+      times = new long[4][];
+      size = 0;
+    }
+
+    /**
+     Appends a transaction to the history.
+     @param sequenceId the sequence ID of the transaction
+     @param time the time the transaction was appended
+     */
+    private void add(int sequenceId, long time) {
+      int index = size;
+      int chunk = index >>> CHUNK_BITS;
+      if (chunk == sequenceIds.length) {
+        sequenceIds = Arrays.copyOf(sequenceIds, chunk * 2);
+        times = Arrays.copyOf(times, chunk * 2);
+      }
+      if (sequenceIds[chunk] == null) {
+        sequenceIds[chunk] = new int[CHUNK_SIZE];
+        times[chunk] = new long[CHUNK_SIZE];
+      }
+
+      sequenceIds[chunk][index & CHUNK_MASK] = sequenceId;
+      times[chunk][index & CHUNK_MASK] = time;
+      size = index + 1;
+    }
+
+    /**
+     Gets the sequence ID of a transaction of the history.
+     @param index the position of the transaction in the history
+     @return the sequence ID of the transaction
+     */
+    private int sequenceId(int index) {
+      return sequenceIds[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    /**
+     Finds the position of the first transaction of the history appended at or after the given time.
+     @param time the time in milliseconds since the epoch
+     @param size the number of transactions to search
+     @return the position of the transaction, or the size if there is no such transaction
+     */
+    private int indexOf(long time, int size) {
+      long[][] times = this.times;
+      int low = 0;
+      int high = size;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (times[middle >>> CHUNK_BITS][middle & CHUNK_MASK] < time)
+          low = middle + 1;
+        else
+          high = middle;
+      }
+      return low;
+    }
+  }
+}
@@ -1,14 +1,19 @@
 package is.technologies.entities;
 
-import java.util.Calendar;
-
 /**
  Represents a watcher interface.
  */
 public interface Watcher {
   /**
-   Updates the date of this watcher to the specified time.
-   @param time The time to update the date to.
+   Updates the date of this watcher for the specified day.
+   @param day The day being passed, as an epoch day.
+   */
+  void updateDate(int day);
+
+  /**
+   Updates the date of this watcher for several consecutive days at once.
+   @param lastDay The last day of the period as an epoch day, no other day of the period is the last day of a month.
+   @param days The number of days in the period.
    */
-  void updateDate(Calendar time);
+  void updateDates(int lastDay, int days);
 }
@@ -14,4 +14,8 @@ public class AggregatorException extends Exception {
   public static AggregatorException invalidObserver() {
     return new AggregatorException("observer is invalid");
   }
+
+  public static AggregatorException invalidDispatcher() {
+    return new AggregatorException("dispatcher is invalid");
+  }
 }
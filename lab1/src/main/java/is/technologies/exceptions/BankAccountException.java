@@ -1,5 +1,6 @@
 package is.technologies.exceptions;
 
+import is.technologies.entities.Money;
 import java.math.BigDecimal;
 
 
@@ -27,7 +28,7 @@ public class BankAccountException extends Exception{
     return new BankAccountException(percentMoreOneHundredThousand + INVALID_MESSAGE);
   }
 
-  public static BankAccountException invalidCommissionForCreditAccount(BigDecimal commissionForCreditAccount) {
+  public static BankAccountException invalidCommissionForCreditAccount(Money commissionForCreditAccount) {
     return new BankAccountException(commissionForCreditAccount + INVALID_MESSAGE);
   }
 
@@ -35,11 +36,11 @@ public class BankAccountException extends Exception{
     return new BankAccountException(restrictionForNotVerifiedCustomers + INVALID_MESSAGE);
   }
 
-  public static BankAccountException invalidCreditLimit(BigDecimal creditLimit) {
+  public static BankAccountException invalidCreditLimit(Money creditLimit) {
     return new BankAccountException(creditLimit + INVALID_MESSAGE);
   }
 
-  public static BankAccountException invalidAmountOfMoney(BigDecimal money) {
+  public static BankAccountException invalidAmountOfMoney(Money money) {
     return new BankAccountException(money + INVALID_MESSAGE);
   }
 
@@ -59,7 +60,15 @@ public class BankAccountException extends Exception{
     return new BankAccountException(percent + "is invalid");
   }
 
-  public static BankAccountException invalidBalance(BigDecimal balance) {
+  public static BankAccountException invalidBalance(Money balance) {
     return new BankAccountException(balance + "is invalid");
   }
+
+  public static BankAccountException invalidDate() {
+    return new BankAccountException("date is invalid");
+  }
+
+  public static BankAccountException invalidRates() {
+    return new BankAccountException("rates are invalid");
+  }
 }
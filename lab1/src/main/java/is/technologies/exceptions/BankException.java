@@ -1,5 +1,6 @@
 package is.technologies.exceptions;
 
+import is.technologies.entities.Money;
 import java.math.BigDecimal;
 
 
@@ -46,6 +47,14 @@ public class BankException extends Exception{
     return new BankException(creditLimit + INVALID_MESSAGE);
   }
 
+  public static BankException invalidAccountLock() {
+    return new BankException("account lock is invalid");
+  }
+
+  public static BankException invalidOperationLog() {
+    return new BankException("operation log is invalid");
+  }
+
   public static BankException invalidClient() {
     return new BankException("client is invalid");
   }
@@ -62,19 +71,55 @@ public class BankException extends Exception{
     return new BankException("client doesn't exist in system");
   }
 
+  public static BankException clientAlreadyExistsInSystem() {
+    return new BankException("client already exists in system");
+  }
+
   public static BankException bankAccountDoesntExistInSystem() {
     return new BankException("Bank account doesn't exist in system");
   }
 
+  public static BankException bankAccountAlreadyExistsInSystem() {
+    return new BankException("Bank account already exists in system");
+  }
+
   public static BankException transactionDoesntExistInSystem() {
     return new BankException("Transaction doesn't exist in system");
   }
 
-  public static BankException invalidAmountOfMoney(BigDecimal money) {
+  public static BankException transactionAlreadyRolledBack() {
+    return new BankException("Transaction is already rolled back");
+  }
+
+  public static BankException invalidAmountOfMoney(Money money) {
     return new BankException(money + INVALID_MESSAGE);
   }
 
   public static BankException invalidOperation() {
     return new BankException("operation is invalid");
   }
+
+  public static BankException invalidMetrics() {
+    return new BankException("metrics are invalid");
+  }
+
+  public static BankException invalidAccountStorage() {
+    return new BankException("account storage is invalid");
+  }
+
+  public static BankException invalidPage() {
+    return new BankException("page is invalid");
+  }
+
+  public static BankException invalidRequestCache() {
+    return new BankException("request cache is invalid");
+  }
+
+  public static BankException invalidVelocityWindow(int windowDays) {
+    return new BankException(windowDays + INVALID_MESSAGE);
+  }
+
+  public static BankException invalidTimeProvider() {
+    return new BankException("time provider is invalid");
+  }
 }
@@ -10,4 +10,36 @@ public class CentralBankException extends Exception{
   public static CentralBankException invalidWatcher() {
     return new CentralBankException("watcher is invalid");
   }
+
+  public static CentralBankException invalidPool() {
+    return new CentralBankException("pool is invalid");
+  }
+
+  public static CentralBankException invalidBatch() {
+    return new CentralBankException("batch is invalid");
+  }
+
+  public static CentralBankException invalidBatchMode() {
+    return new CentralBankException("batch mode is invalid");
+  }
+
+  public static CentralBankException invalidOperationLog() {
+    return new CentralBankException("operation log is invalid");
+  }
+
+  public static CentralBankException invalidMetrics() {
+    return new CentralBankException("metrics are invalid");
+  }
+
+  public static CentralBankException invalidAccountStorage() {
+    return new CentralBankException("account storage is invalid");
+  }
+
+  public static CentralBankException invalidRequestCache() {
+    return new CentralBankException("request cache is invalid");
+  }
+
+  public static CentralBankException invalidClearingMode() {
+    return new CentralBankException("clearing mode is invalid");
+  }
 }
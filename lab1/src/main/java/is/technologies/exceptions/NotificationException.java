@@ -9,4 +9,20 @@ public class NotificationException extends Exception{
   public static NotificationException invalidMessage() {
     return new NotificationException("message is invalid");
   }
+
+  public static NotificationException invalidRate() {
+    return new NotificationException("rate is invalid");
+  }
+
+  public static NotificationException invalidValue() {
+    return new NotificationException("value is invalid");
+  }
+
+  public static NotificationException invalidThreads(int threads) {
+    return new NotificationException("number of threads " + threads + " is invalid");
+  }
+
+  public static NotificationException invalidQueueCapacity(int queueCapacity) {
+    return new NotificationException("queue capacity " + queueCapacity + " is invalid");
+  }
 }
@@ -1,6 +1,6 @@
 package is.technologies.exceptions;
 
-import java.math.BigDecimal;
+import is.technologies.entities.Money;
 
 /**
  An exception class representing errors that may occur in the Transaction class.
@@ -13,11 +13,23 @@ public class TransactionException extends Exception{
     return new TransactionException("bank account is invalid");
   }
 
-  public static TransactionException invalidMoney(BigDecimal money) {
+  public static TransactionException invalidMoney(Money money) {
     return new TransactionException(money + "is invalid");
   }
 
   public static TransactionException invalidTransaction() {
     return new TransactionException("transaction is invalid");
   }
+
+  public static TransactionException duplicateRequest() {
+    return new TransactionException("request ID was used for another transaction");
+  }
+
+  public static TransactionException invalidCapacity(int capacity) {
+    return new TransactionException("capacity " + capacity + " is invalid");
+  }
+
+  public static TransactionException invalidTimeToLive() {
+    return new TransactionException("time to live is invalid");
+  }
 }
@@ -0,0 +1,29 @@
+package is.technologies.exceptions;
+
+
+/**
+ An exception class representing errors that may occur in the WriteAheadLog class.
+ */
+public class WriteAheadLogException extends Exception{
+  private WriteAheadLogException(String message) {}
+
+  public static WriteAheadLogException invalidDirectory() {
+    return new WriteAheadLogException("directory is invalid");
+  }
+
+  public static WriteAheadLogException invalidGroupCommitSize(int groupCommitSize) {
+    return new WriteAheadLogException(groupCommitSize + " is invalid");
+  }
+
+  public static WriteAheadLogException corruptedSnapshot() {
+    return new WriteAheadLogException("snapshot is corrupted");
+  }
+
+  public static WriteAheadLogException corruptedLog() {
+    return new WriteAheadLogException("log is corrupted");
+  }
+
+  public static WriteAheadLogException invalidRecord(long sequenceId) {
+    return new WriteAheadLogException("record " + sequenceId + " can't be replayed");
+  }
+}
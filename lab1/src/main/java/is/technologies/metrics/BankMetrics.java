@@ -0,0 +1,65 @@
+package is.technologies.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ The BankMetrics class counts the operations of the banking system in striped counters and their latencies
+ in histograms, so they can be reported from many threads at once without contention.
+ A snapshot of all metrics can be taken at any moment and exported as text.
+ */
+public class BankMetrics implements Metrics {
+
+  /**The striped counter of every event.*/
+  private final LongAdder[] counters;
+
+  /**The histogram of every timer.*/
+  private final LatencyHistogram[] histograms;
+
+  /**
+   Creates new metrics with all counters at zero.
+   */
+  public BankMetrics() {
+    counters = new LongAdder[MetricCounter.values().length];
+    for (int i = 0; i < counters.length; i++) {
+      counters[i] = new LongAdder();
+    }
+    histograms = new LatencyHistogram[MetricTimer.values().length];
+    for (int i = 0; i < histograms.length; i++) {
+      histograms[i] = new LatencyHistogram();
+    }
+  }
+
+  @Override
+  public void increment(MetricCounter counter) {
+    counters[counter.ordinal()].increment();
+  }
+
+  @Override
+  public long startTimer() {
+    return System.nanoTime();
+  }
+
+  @Override
+  public void stopTimer(MetricTimer timer, long start) {
+    histograms[timer.ordinal()].record(System.nanoTime() - start);
+  }
+
+  /**
+   Copies the current values of all counters and histograms.
+   The operations reported while the snapshot is taken may be in some of the values and not in others.
+   @return the snapshot of the metrics
+   */
+  public MetricsSnapshot snapshot() {
+    Map<MetricCounter, Long> counts = new EnumMap<>(MetricCounter.class);
+    for (MetricCounter counter : MetricCounter.values()) {
+      counts.put(counter, counters[counter.ordinal()].sum());
+    }
+    Map<MetricTimer, HistogramSnapshot> latencies = new EnumMap<>(MetricTimer.class);
+    for (MetricTimer timer : MetricTimer.values()) {
+      latencies.put(timer, histograms[timer.ordinal()].snapshot());
+    }
+    return new MetricsSnapshot(counts, latencies);
+  }
+}
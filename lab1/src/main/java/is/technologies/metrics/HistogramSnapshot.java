@@ -0,0 +1,69 @@
+package is.technologies.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ The HistogramSnapshot class holds the latencies counted by a histogram at one moment.
+ */
+@Getter
+public class HistogramSnapshot {
+
+  /**The number of latencies in every bucket of the histogram.*/
+  @Getter(AccessLevel.NONE)
+  private final long[] counts;
+
+  /**The number of latencies.*/
+  private final long count;
+
+  /**The sum of all latencies in nanoseconds.*/
+  private final long total;
+
+  /**The largest latency in nanoseconds.*/
+  private final long max;
+
+  /**
+   Creates a new snapshot of the counts of a histogram.
+   @param counts the number of latencies in every bucket
+   @param total the sum of all latencies
+   @param max the largest latency
+   */
+  HistogramSnapshot(long[] counts, long total, long max) {
+    long count = 0;
+    for (long bucketCount : counts) {
+      count += bucketCount;
+    }
+
+    this.counts = counts;
+    this.count = count;
+    this.total = total;
+    this.max = max;
+  }
+
+  /**
+   Gets the mean latency.
+   @return the mean latency in nanoseconds, zero if no latency was counted
+   */
+  public double getMean() {
+    return count == 0 ? 0 : (double) total / count;
+  }
+
+  /**
+   Gets the latency that the given share of latencies don't exceed.
+   @param quantile the share of latencies, from 0 to 1
+   @return the upper bound of the bucket of the quantile in nanoseconds, zero if no latency was counted
+   */
+  public long getQuantile(double quantile) {
+    if (count == 0)
+      return 0;
+
+    long rank = (long) Math.ceil(Math.min(Math.max(quantile, 0), 1) * count);
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= Math.max(rank, 1))
+        return Math.min(LatencyHistogram.upperBoundOf(i), max);
+    }
+    return max;
+  }
+}
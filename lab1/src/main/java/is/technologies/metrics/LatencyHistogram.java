@@ -0,0 +1,94 @@
+package is.technologies.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ The LatencyHistogram class counts latencies in nanoseconds in buckets with a bounded relative error.
+ Every power of two is split into {@value #SUB_BUCKETS} equal buckets, so a latency is reported at most
+ 1/{@value #SUB_BUCKETS} of itself off, from one nanosecond up to the largest long, in a fixed number of buckets.
+ The buckets are striped counters, so threads that record at the same time don't contend on one memory location.
+ */
+final class LatencyHistogram {
+
+  /**The number of bits of a latency below its highest bit that select the bucket.*/
+  private static final int SUB_BUCKET_BITS = 3;
+
+  /**The number of buckets every power of two is split into.*/
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /**The number of buckets, enough for every non-negative long.*/
+  static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  /**The number of latencies in every bucket.*/
+  private final LongAdder[] buckets;
+
+  /**The sum of all latencies.*/
+  private final LongAdder total;
+
+  /**The largest latency.*/
+  private final LongAccumulator max;
+
+  /**
+   Creates a new empty histogram.
+   */
+  LatencyHistogram() {
+    buckets = new LongAdder[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+    total = new LongAdder();
+    max = new LongAccumulator(Math::max, 0);
+  }
+
+  /**
+   Counts one latency.
+   @param nanos the latency in nanoseconds, negative latencies are counted as zero
+   */
+  void record(long nanos) {
+    long latency = Math.max(nanos, 0);
+    buckets[bucketOf(latency)].increment();
+    total.add(latency);
+    max.accumulate(latency);
+  }
+
+  /**
+   Copies the current counts of the histogram.
+   @return the snapshot of the histogram
+   */
+  HistogramSnapshot snapshot() {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+    }
+    return new HistogramSnapshot(counts, total.sum(), max.get());
+  }
+
+  /**
+   Finds the bucket of a latency.
+   @param latency the non-negative latency
+   @return the index of the bucket
+   */
+  static int bucketOf(long latency) {
+    if (latency < SUB_BUCKETS)
+      return (int) latency;
+
+    int highestBit = 63 - Long.numberOfLeadingZeros(latency);
+    int subBucket = (int) (latency >>> (highestBit - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (highestBit - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   Finds the largest latency counted in a bucket.
+   @param bucket the index of the bucket
+   @return the upper bound of the bucket
+   */
+  static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS)
+      return bucket;
+
+    int shift = bucket / SUB_BUCKETS - 1;
+    long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+}
@@ -0,0 +1,28 @@
+package is.technologies.metrics;
+
+/**
+ Represents the events of the banking system that are counted by the metrics.
+ */
+public enum MetricCounter {
+
+  /**A top-up of a bank account was executed.*/
+  TOP_UPS,
+
+  /**A withdrawal from a bank account was executed.*/
+  WITHDRAWALS,
+
+  /**A transfer between two bank accounts was executed.*/
+  TRANSFERS,
+
+  /**A transaction was rolled back.*/
+  ROLLBACKS,
+
+  /**An operation was refused because its owner isn't allowed to take that much money at once.*/
+  REJECTED_OPERATIONS,
+
+  /**A transaction was declined by a bank account, for example because of a lack of money.*/
+  DECLINED_TRANSACTIONS,
+
+  /**A change of a rate was announced to the clients.*/
+  NOTIFICATIONS
+}
@@ -0,0 +1,22 @@
+package is.technologies.metrics;
+
+/**
+ Represents the operations of the banking system whose latency is measured by the metrics.
+ */
+public enum MetricTimer {
+
+  /**The execution of a money transaction, including the wait for the locks of its bank accounts.*/
+  TRANSACTION,
+
+  /**The rollback of a money transaction, including the wait for the locks of its bank accounts.*/
+  ROLLBACK,
+
+  /**The update of all bank accounts of a bank for a period of days.*/
+  DATE_UPDATE,
+
+  /**The change of the date of the central bank.*/
+  DATE_CHANGE,
+
+  /**The delivery of a notification to all clients subscribed to it.*/
+  NOTIFICATION
+}
@@ -0,0 +1,42 @@
+package is.technologies.metrics;
+
+/**
+ Represents the instrumentation the central bank and the banks report their operations to.
+ A timer is started with {@link #startTimer()} and the returned value is passed back to {@link #stopTimer},
+ so the metrics that are turned off don't even read the clock.
+ */
+public interface Metrics {
+
+  /**The metrics that ignore all operations, used until real metrics are attached.*/
+  Metrics NONE = new Metrics() {
+    @Override
+    public void increment(MetricCounter counter) {}
+
+    @Override
+    public long startTimer() {
+      return 0;
+    }
+
+    @Override
+    public void stopTimer(MetricTimer timer, long start) {}
+  };
+
+  /**
+   Counts one more event.
+   @param counter the counter of the event
+   */
+  void increment(MetricCounter counter);
+
+  /**
+   Starts measuring an operation.
+   @return the value to pass to {@link #stopTimer} when the operation ends
+   */
+  long startTimer();
+
+  /**
+   Records the latency of an operation.
+   @param timer the timer of the operation
+   @param start the value returned by {@link #startTimer()} when the operation started
+   */
+  void stopTimer(MetricTimer timer, long start);
+}
@@ -0,0 +1,83 @@
+package is.technologies.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ The MetricsSnapshot class holds the values of all counters and histograms of the metrics at one moment.
+ */
+public class MetricsSnapshot {
+
+  /**The quantiles written by the export.*/
+  private static final double[] EXPORTED_QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+  /**The value of every counter.*/
+  private final Map<MetricCounter, Long> counts;
+
+  /**The latencies of every timer.*/
+  private final Map<MetricTimer, HistogramSnapshot> latencies;
+
+  /**
+   Creates a new snapshot.
+   @param counts the value of every counter
+   @param latencies the latencies of every timer
+   */
+  MetricsSnapshot(Map<MetricCounter, Long> counts, Map<MetricTimer, HistogramSnapshot> latencies) {
+    this.counts = counts;
+    this.latencies = latencies;
+  }
+
+  /**
+   Gets the value of a counter.
+   @param counter the counter
+   @return the number of counted events
+   */
+  public long getCount(MetricCounter counter) {
+    return counts.get(counter);
+  }
+
+  /**
+   Gets the latencies of a timer.
+   @param timer the timer
+   @return the snapshot of the histogram of the timer
+   */
+  public HistogramSnapshot getLatencies(MetricTimer timer) {
+    return latencies.get(timer);
+  }
+
+  /**
+   Writes all metrics in the Prometheus text format, one metric per line.
+   The counters are named bank_&lt;counter&gt;_total and the latencies are written in seconds as summaries
+   named bank_&lt;timer&gt;_seconds.
+   @return the text of the metrics
+   */
+  public String export() {
+    var text = new StringBuilder();
+    for (Map.Entry<MetricCounter, Long> count : counts.entrySet()) {
+      String name = "bank_" + count.getKey().name().toLowerCase(Locale.ROOT) + "_total";
+      text.append("# TYPE ").append(name).append(" counter\n");
+      text.append(name).append(' ').append(count.getValue()).append('\n');
+    }
+    for (Map.Entry<MetricTimer, HistogramSnapshot> latency : latencies.entrySet()) {
+      String name = "bank_" + latency.getKey().name().toLowerCase(Locale.ROOT) + "_seconds";
+      HistogramSnapshot histogram = latency.getValue();
+      text.append("# TYPE ").append(name).append(" summary\n");
+      for (double quantile : EXPORTED_QUANTILES) {
+        text.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+            .append(seconds(histogram.getQuantile(quantile))).append('\n');
+      }
+      text.append(name).append("_sum ").append(seconds(histogram.getTotal())).append('\n');
+      text.append(name).append("_count ").append(histogram.getCount()).append('\n');
+    }
+    return text.toString();
+  }
+
+  /**
+   Converts nanoseconds to seconds.
+   @param nanos the time in nanoseconds
+   @return the time in seconds
+   */
+  private static String seconds(long nanos) {
+    return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+  }
+}
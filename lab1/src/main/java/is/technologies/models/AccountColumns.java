@@ -0,0 +1,275 @@
+package is.technologies.models;
+
+import is.technologies.entities.Money;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ The AccountColumns class stores the state of the bank accounts of one type of a bank column by column.
+ Every bank account gets a slot; the values of the slots are kept in fixed-size chunks, and each chunk holds one
+ buffer of longs per column. Chunks are never moved once allocated, so a bank account keeps the buffers of
+ its chunk and reads its values without going through the store.
+ The buffers wrap arrays on the heap or a direct buffer outside of it, depending on the storage of the store;
+ only these columns move out of the heap, the bank account objects that read them stay on it.
+ The interest of the slots is settled lazily: a day change only counts the processed days and remembers the ends
+ of the months, and every slot keeps the number of processed days it was settled at. A bank account settles its
+ slot when it is read or changed, accruing the days since then and capitalising at the month ends in between,
+ so a day inside a month costs the same however many bank accounts there are. At the end of a month the bank
+ settles all its bank accounts, so the capitalised money reaches the balances and the totals of the store.
+ The rates of a slot are kept as the version of the rate table of the bank it was opened with.
+ The store also keeps the sum of the balances of its slots, changed by every write of a balance, so the total
+ is read without walking the slots.
+ Allocating a slot is synchronized; the values of a slot are guarded by its bank account.
+ */
+abstract class AccountColumns {
+
+  /**The number of bits of the position of a slot inside its chunk.*/
+  static final int CHUNK_BITS = 12;
+
+  /**The number of slots in a chunk.*/
+  static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+  /**The mask that selects the position of a slot inside its chunk.*/
+  static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  /**The column of the balances in minor units, the first column of every store.*/
+  static final int BALANCE = 0;
+
+  /**The number of columns of every chunk.*/
+  private final int columnCount;
+
+  /**The column of the number of processed days every slot was settled at.*/
+  private final int settledColumn;
+
+  /**The versions of the rate table of the bank.*/
+  private final RateHistory rates;
+
+  /**The memory the chunks are allocated in.*/
+  private final AccountStorage storage;
+
+  /**The chunks of slots, each holding one buffer per column.*/
+  private volatile LongBuffer[][] chunks;
+
+  /**The number of allocated slots.*/
+  private volatile int size;
+
+  /**The number of days processed by the store.*/
+  private volatile long processedDays;
+
+  /**The sum of the balances of the slots in minor units, which may not fit into a long.*/
+  private final WideAdder totalBalance;
+
+  /**The numbers of processed days at the ends of the processed months, in ascending order.*/
+  private volatile long[] monthEnds;
+
+  /**The number of processed months.*/
+  private volatile int monthEndCount;
+
+  /**
+   Creates a new store without slots.
+   @param columnCount the number of columns of every chunk
+   @param settledColumn the column of the number of processed days every slot was settled at
+   @param rates the versions of the rate table of the bank
+   @param storage the memory to allocate the chunks in
+   */
+  AccountColumns(int columnCount, int settledColumn, RateHistory rates, AccountStorage storage) {
+    this.columnCount = columnCount;
+    this.settledColumn = settledColumn;
+    this.rates = rates;
+    this.storage = storage;
+    this.chunks = new LongBuffer[16][];
+    this.size = 0;
+    this.processedDays = 0;
+    this.totalBalance = new WideAdder();
+    this.monthEnds = new long[16];
+    this.monthEndCount = 0;
+  }
+
+  /**
+   Allocates the slot of a new bank account, settled at the current number of processed days.
+   @return the index of the slot
+   */
+  synchronized int allocate() {
+    int index = size;
+    int chunk = index >>> CHUNK_BITS;
+    if (chunk == chunks.length) {
+      LongBuffer[][] newChunks = new LongBuffer[chunks.length * 2][];
+      System.arraycopy(chunks, 0, newChunks, 0, chunks.length);
+      chunks = newChunks;
+    }
+    if (chunks[chunk] == null)
+      chunks[chunk] = allocateChunk();
+
+    chunks[chunk][settledColumn].put(index & CHUNK_MASK, processedDays);
+    size = index + 1;
+    return index;
+  }
+
+  /**
+   Allocates the buffers of a new chunk.
+   Outside of the heap all columns of the chunk share one direct buffer, in the native byte order.
+   @return the buffers of the chunk, one per column
+   */
+  private LongBuffer[] allocateChunk() {
+    LongBuffer[] columns = new LongBuffer[columnCount];
+    if (storage == AccountStorage.HEAP) {
+      for (int i = 0; i < columnCount; i++) {
+        columns[i] = LongBuffer.wrap(new long[CHUNK_SIZE]);
+      }
+      return columns;
+    }
+
+    int columnBytes = CHUNK_SIZE * Long.BYTES;
+    ByteBuffer chunk = ByteBuffer.allocateDirect(columnCount * columnBytes);
+    for (int i = 0; i < columnCount; i++) {
+      ByteBuffer column = chunk.duplicate();
+      column.position(i * columnBytes).limit((i + 1) * columnBytes);
+      columns[i] = column.slice().order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+    return columns;
+  }
+
+  /**
+   Gets the buffers of the chunk that holds the given slot.
+   @param index the index of the slot
+   @return the buffers of the chunk, one per column
+   */
+  LongBuffer[] chunkOf(int index) {
+    return chunks[index >>> CHUNK_BITS];
+  }
+
+  /**
+   Gets the versions of the rate table of the bank.
+   @return the rate history of the bank
+   */
+  RateHistory rates() {
+    return rates;
+  }
+
+  /**
+   Gets the number of allocated slots.
+   @return the number of slots
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   Gets the sum of the balances of the slots.
+   @return the total balance
+   */
+  BigDecimal totalBalance() {
+    return new BigDecimal(totalBalance.sum(), Money.SCALE);
+  }
+
+  /**
+   Sets the balance of a slot and adds the change to the totals of the store. The caller must guard the slot.
+   @param chunk the buffers of the chunk of the slot
+   @param slot the position of the slot in its chunk
+   @param balance the new balance in minor units
+   */
+  void setBalance(LongBuffer[] chunk, int slot, long balance) {
+    long oldBalance = chunk[BALANCE].get(slot);
+    chunk[BALANCE].put(slot, balance);
+    balanceChanged(chunk, slot, oldBalance, balance);
+  }
+
+  /**
+   Adds the change of the balance of a slot to the totals of the store.
+   @param chunk the buffers of the chunk of the slot
+   @param slot the position of the slot in its chunk
+   @param oldBalance the balance before the change in minor units
+   @param balance the balance after the change in minor units
+   */
+  void balanceChanged(LongBuffer[] chunk, int slot, long oldBalance, long balance) {
+    totalBalance.add(balance);
+    totalBalance.subtract(oldBalance);
+  }
+
+  /**
+   Gets the number of days processed by the store.
+   @return the number of processed days
+   */
+  long processedDays() {
+    return processedDays;
+  }
+
+  /**
+   Starts a period of days by counting its days.
+   @param days the number of days in the period
+   */
+  void startPeriod(int days) {
+    processedDays += days;
+  }
+
+  /**
+   Processes a period of days. Only the store is changed, the slots are settled when their bank accounts are used.
+   @param days the number of days in the period
+   @param isLastDayOfMonth true if the last day of the period is the last day of the month
+   */
+  void daysChange(int days, boolean isLastDayOfMonth) {
+    if (isLastDayOfMonth)
+      addMonthEnd(processedDays + days);
+    startPeriod(days);
+  }
+
+  /**
+   Remembers the end of a month before the days up to it are counted, so a slot settled up to the new number
+   of processed days always sees the month end.
+   @param monthEnd the number of processed days at the end of the month
+   */
+  private void addMonthEnd(long monthEnd) {
+    if (monthEndCount == monthEnds.length)
+      monthEnds = Arrays.copyOf(monthEnds, monthEndCount * 2);
+    monthEnds[monthEndCount] = monthEnd;
+    monthEndCount++;
+  }
+
+  /**
+   Settles a slot up to the current number of processed days: accrues the days since it was last settled and
+   capitalises at every month end in between. The caller must guard the slot.
+   @param chunk the buffers of the chunk of the slot
+   @param slot the position of the slot in its chunk
+   */
+  void settle(LongBuffer[] chunk, int slot) {
+    long now = processedDays;
+    long settled = chunk[settledColumn].get(slot);
+    if (settled >= now)
+      return;
+
+    int count = monthEndCount;
+    long[] ends = monthEnds;
+    int index = Arrays.binarySearch(ends, 0, count, settled + 1);
+    if (index < 0)
+      index = -index - 1;
+
+    long from = settled;
+    for (; index < count && ends[index] <= now; index++) {
+      accrue(chunk, slot, ends[index] - from);
+      capitalize(chunk, slot, ends[index]);
+      from = ends[index];
+    }
+    if (from < now)
+      accrue(chunk, slot, now - from);
+    chunk[settledColumn].put(slot, now);
+  }
+
+  /**
+   Accrues the interest or the commission of a slot for a number of days without a month end among them.
+   @param chunk the buffers of the chunk of the slot
+   @param slot the position of the slot in its chunk
+   @param days the number of days
+   */
+  abstract void accrue(LongBuffer[] chunk, int slot, long days);
+
+  /**
+   Capitalises the accruals of a slot at the end of a month.
+   @param chunk the buffers of the chunk of the slot
+   @param slot the position of the slot in its chunk
+   @param monthEnd the number of processed days at the end of the month
+   */
+  abstract void capitalize(LongBuffer[] chunk, int slot, long monthEnd);
+}
@@ -0,0 +1,166 @@
+package is.technologies.models;
+
+import is.technologies.entities.BankAccount;
+import java.util.UUID;
+
+/**
+ The AccountIndex class finds the bank accounts of a bank by the UUIDs of their IDs.
+ It is an open-addressing hash table that keeps the two halves of every UUID in primitive arrays, so it doesn't
+ allocate an entry per bank account, and a lookup compares longs instead of following the ID and UUID objects.
+ Adding is synchronized and expected to be rare next to lookups, which don't lock: a table that has to grow
+ is rebuilt and published at once, and a lookup that races with the add of the same bank account may miss it,
+ but never finds another one.
+ */
+final class AccountIndex {
+
+  /**The number of slots of a new table.*/
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**The current table.*/
+  private volatile Table table;
+
+  /**The number of bank accounts in the index.*/
+  private int size;
+
+  /**
+   Creates a new empty index.
+   */
+  AccountIndex() {
+    table = new Table(INITIAL_CAPACITY);
+    size = 0;
+  }
+
+  /**
+   Finds the bank account with the given UUID.
+   @param accountId the UUID of the bank account
+   @return the bank account, or null if there is no such bank account
+   */
+  BankAccount get(UUID accountId) {
+    return table.get(accountId.getMostSignificantBits(), accountId.getLeastSignificantBits());
+  }
+
+  /**
+   Checks whether a bank account with the given UUID is in the index.
+   @param accountId the UUID of the bank account
+   @return true if there is such a bank account
+   */
+  boolean contains(UUID accountId) {
+    return get(accountId) != null;
+  }
+
+  /**
+   Adds a bank account to the index, replacing the bank account with the same UUID.
+   @param accountId the UUID of the bank account
+   @param bankAccount the bank account
+   */
+  synchronized void put(UUID accountId, BankAccount bankAccount) {
+    long high = accountId.getMostSignificantBits();
+    long low = accountId.getLeastSignificantBits();
+    if (table.put(high, low, bankAccount))
+      return;
+
+    size++;
+    if (size * 4L > table.capacity() * 3L) {
+      Table newTable = new Table(table.capacity() * 2);
+      table.copyTo(newTable);
+      table = newTable;
+    }
+  }
+
+  /**
+   A table of the index with a power of two number of slots and linear probing.
+   */
+  private static final class Table {
+
+    /**The most significant halves of the UUIDs in the slots.*/
+    private final long[] highs;
+
+    /**The least significant halves of the UUIDs in the slots.*/
+    private final long[] lows;
+
+    /**The bank accounts in the slots, null for the empty slots.*/
+    private final BankAccount[] bankAccounts;
+
+    /**The mask that selects a slot from a hash.*/
+    private final int mask;
+
+    /**
+     Creates a new empty table.
+     @param capacity the power of two number of slots
+     */
+    Table(int capacity) {
+      highs = new long[capacity];
+      lows = new long[capacity];
+      bankAccounts = new BankAccount[capacity];
+      mask = capacity - 1;
+    }
+
+    /**
+     Gets the number of slots.
+     @return the number of slots
+     */
+    int capacity() {
+      return mask + 1;
+    }
+
+    /**
+     Finds the bank account with the given UUID.
+     @param high the most significant half of the UUID
+     @param low the least significant half of the UUID
+     @return the bank account, or null if there is no such bank account
+     */
+    BankAccount get(long high, long low) {
+      for (int slot = slotOf(high, low); ; slot = (slot + 1) & mask) {
+        BankAccount bankAccount = bankAccounts[slot];
+        if (bankAccount == null)
+          return null;
+        if (highs[slot] == high && lows[slot] == low)
+          return bankAccount;
+      }
+    }
+
+    /**
+     Stores a bank account.
+     @param high the most significant half of the UUID
+     @param low the least significant half of the UUID
+     @param bankAccount the bank account
+     @return true if a bank account with the same UUID was replaced
+     */
+    boolean put(long high, long low, BankAccount bankAccount) {
+      for (int slot = slotOf(high, low); ; slot = (slot + 1) & mask) {
+        if (bankAccounts[slot] == null) {
+          highs[slot] = high;
+          lows[slot] = low;
+          bankAccounts[slot] = bankAccount;
+          return false;
+        }
+        if (highs[slot] == high && lows[slot] == low) {
+          bankAccounts[slot] = bankAccount;
+          return true;
+        }
+      }
+    }
+
+    /**
+     Stores all bank accounts of this table in another table.
+     @param other the table to store the bank accounts in
+     */
+    void copyTo(Table other) {
+      for (int slot = 0; slot <= mask; slot++) {
+        if (bankAccounts[slot] != null)
+          other.put(highs[slot], lows[slot], bankAccounts[slot]);
+      }
+    }
+
+    /**
+     Finds the first slot to probe for a UUID.
+     @param high the most significant half of the UUID
+     @param low the least significant half of the UUID
+     @return the index of the slot
+     */
+    private int slotOf(long high, long low) {
+      long hash = (high ^ low) * 0x9E3779B97F4A7C15L;
+      return (int) (hash >>> 32) & mask;
+    }
+  }
+}
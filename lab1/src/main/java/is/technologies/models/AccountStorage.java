@@ -0,0 +1,19 @@
+package is.technologies.models;
+
+/**
+ Represents the memory the money columns of the bank accounts of a bank are stored in: the balances, accruals and
+ the other per-account numbers of the account columns. The rest of a bank account stays on the heap in either
+ storage: the account object, its ID and UUID, its slot in the account index and its place in the lists of the bank
+ and the client. For a debit account the columns take 32 bytes and the rest about 150 bytes of the heap.
+ */
+public enum AccountStorage {
+
+  /**The money is stored in arrays on the heap.*/
+  HEAP,
+
+  /**
+   The money columns are stored in direct buffers outside of the heap, so the collector doesn't scan or move them.
+   This takes the columns out of the heap, not the bank accounts.
+   */
+  OFF_HEAP
+}
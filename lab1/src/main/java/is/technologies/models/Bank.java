@@ -4,45 +4,92 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import is.technologies.notifications.*;
 import is.technologies.exceptions.*;
+import is.technologies.metrics.*;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 
 /**
  Bank represents a financial institution and has clients, bank accounts, and transactions
- It implements the IWatcher interface and observes ChangePercentsForDebitAccountAggregator, ChangeCommissionForCreditAccountAggregator,
- ChangeCreditLimitAggregator, ChangeRestrictionForNotVerifiedCustomersAggregator, and ChangePercentForDepositAccountAggregator classes.
- These classes allow Bank to make changes to the system.
+ It implements the IWatcher interface and announces the changes of its rates through a NotificationAggregator per topic:
+ the percents for debit accounts, the commission and the credit limit for credit accounts, the restriction for not verified
+ customers and the percents for deposit accounts. A client is notified once however many accounts it has.
  A Bank can add new clients and new bank accounts to a client.
+ Money operations lock the bank accounts they change, so they can be called from several threads at once;
+ clients can be added from several threads too, bank accounts are expected to be added from one thread.
  */
 @Getter
 public class Bank implements Watcher {
 
+  /**The balance from which deposit accounts get the percent for balances between fifty and one hundred thousand.*/
+  private static final Money FIFTY_THOUSAND = Money.of(50000);
+
+  /**The balance from which deposit accounts get the percent for balances greater than one hundred thousand.*/
+  private static final Money ONE_HUNDRED_THOUSAND = Money.of(100000);
+
+  /**The length of the velocity window of a new bank in days.*/
+  public static final int DEFAULT_VELOCITY_WINDOW_DAYS = VelocityLimits.DEFAULT_WINDOW_DAYS;
+
   /**The list of clients in the bank.*/
   private final List<Client> clients;
 
-  /**The list of bank accounts in the bank.*/
+  /**The clients of the bank, used to check in constant time that a client is registered in the bank.*/
+  @Getter(AccessLevel.NONE)
+  private final Set<Client> registeredClients;
+
+  /**The clients of the bank with a passport, indexed by the passport.*/
+  @Getter(AccessLevel.NONE)
+  private final Map<String, Client> clientsByPassport;
+
+  /**The list of bank accounts in the bank, synchronized so a snapshot copies it whole while accounts are opened.*/
   private final List<BankAccount> bankAccounts;
 
-  /**The list of transactions in the bank.*/
-  private final List<Transaction> transactions;
+  /**The bank accounts of the bank, indexed by the UUIDs of their IDs.*/
+  @Getter(AccessLevel.NONE)
+  private final AccountIndex bankAccountsById;
+
+  /**The append-only journal of transactions in the bank, safe to append to from several threads.*/
+  private final TransactionJournal<Transaction> transactions;
+
+  /**The lock that guards the balances of the bank accounts, shared by all banks of the central bank.*/
+  private final StripedAccountLock accountLock;
+
+  /**The money of the debit accounts of the bank, stored column by column.*/
+  @Getter(AccessLevel.PACKAGE)
+  private final DebitColumns debitColumns;
+
+  /**The money of the credit accounts of the bank, stored column by column.*/
+  @Getter(AccessLevel.PACKAGE)
+  private final CreditColumns creditColumns;
+
+  /**The money of the deposit accounts of the bank, stored column by column.*/
+  @Getter(AccessLevel.PACKAGE)
+  private final DepositColumns depositColumns;
 
   /**The aggregator responsible for changing percents for debit accounts.*/
-  private final ChangePercentsForDebitAccountAggregator changePercentsForDebitAccountAggregator;
+  private final NotificationAggregator<Notification> changePercentsForDebitAccountAggregator;
 
   /**The aggregator responsible for changing commission for credit accounts.*/
-  private final ChangeCommissionForCreditAccountAggregator changeCommissionForCreditAccountAggregator;
+  private final NotificationAggregator<Notification> changeCommissionForCreditAccountAggregator;
 
   /**The aggregator responsible for changing credit limits.*/
-  private final ChangeCreditLimitAggregator changeCreditLimitAggregator;
+  private final NotificationAggregator<Notification> changeCreditLimitAggregator;
 
   /**The aggregator responsible for changing restrictions for not verified customers.*/
-  private final ChangeRestrictionForNotVerifiedCustomersAggregator changeRestrictionForNotVerifiedCustomersAggregator;
+  private final NotificationAggregator<Notification> changeRestrictionForNotVerifiedCustomersAggregator;
 
   /**The aggregator responsible for changing percent for deposit accounts.*/
-  private final ChangePercentForDepositAccountAggregator changePercentForDepositAccountAggregator;
+  private final NotificationAggregator<Notification> changePercentForDepositAccountAggregator;
 
   /**The name of the bank.*/
   private final String name;
@@ -50,26 +97,33 @@ public class Bank implements Watcher {
   /**The ID of the bank.*/
   private final int id;
 
-  /**The percent for debit accounts.*/
-  private BigDecimal percentForDebitAccounts;
+  /**The number of clients of the bank that aren't verified.*/
+  @Getter(AccessLevel.NONE)
+  private final LongAdder unverifiedClientCount;
+
+  /**The versions of the rates of the bank, the current one is used for new bank accounts.*/
+  @Getter(AccessLevel.NONE)
+  private final RateHistory rateHistory;
 
-  /**The percent for balances less than fifty thousand.*/
-  private BigDecimal percentLessFiftyThousand;
+  /**The money the not verified clients took over the last days.*/
+  @Getter(AccessLevel.NONE)
+  private final VelocityLimits velocityLimits;
 
-  /**The percent for balances between fifty thousand and one hundred thousand.*/
-  private BigDecimal percentLessOneHundredThousand;
+  /**The provider of the current date of the bank system.*/
+  @Getter(AccessLevel.NONE)
+  private final TimeProvider timeProvider;
 
-  /**The percent for balances greater than one hundred thousand.*/
-  private BigDecimal percentMoreOneHundredThousand;
+  /**The log the bank reports its operations to.*/
+  private OperationLog operationLog;
 
-  /**The commission for credit accounts.*/
-  private BigDecimal commissionForCreditAccount;
+  /**The metrics the bank reports its operations to.*/
+  private Metrics metrics;
 
-  /**The restriction for not verified customers.*/
-  private BigDecimal restrictionForNotVerifiedCustomers;
+  /**The cache that executes the operations submitted with a request ID once.*/
+  private RequestCache requestCache;
 
-  /**The credit limit for credit accounts.*/
-  private BigDecimal creditLimit;
+  /**The dispatcher that delivers the notifications in the background, null if they are delivered by the calling thread.*/
+  private NotificationDispatcher notificationDispatcher;
 
   /**
    Creates a new Bank object with the given parameters and initializes the necessary fields.
@@ -82,6 +136,41 @@ public class Bank implements Watcher {
    @param commissionForCreditAccount the commission rate for credit accounts, must be a non-negative decimal
    @param restrictionForNotVerifiedCustomers the maximum amount a not-verified customer can withdraw, must be a non-negative decimal
    @param creditLimit the maximum credit limit for a customer, must be a non-negative decimal
+   @param accountLock the lock that guards the balances of the bank accounts, cannot be null
+   @param timeProvider the provider of the current date of the bank system, cannot be null
+   @throws BankException if any of the input parameters are invalid
+   */
+  public Bank(
+      String name,
+      int id,
+      BigDecimal percentForDebitAccounts,
+      BigDecimal percentLessFiftyThousand,
+      BigDecimal percentLessOneHundredThousand,
+      BigDecimal percentMoreOneHundredThousand,
+      BigDecimal commissionForCreditAccount,
+      BigDecimal restrictionForNotVerifiedCustomers,
+      BigDecimal creditLimit,
+      StripedAccountLock accountLock,
+      TimeProvider timeProvider) throws BankException {
+    this(name, id, percentForDebitAccounts, percentLessFiftyThousand, percentLessOneHundredThousand,
+        percentMoreOneHundredThousand, commissionForCreditAccount, restrictionForNotVerifiedCustomers, creditLimit,
+        accountLock, timeProvider, AccountStorage.HEAP);
+  }
+
+  /**
+   Creates a new Bank object that stores the money of its bank accounts in the given memory.
+   @param name the name of the bank, cannot be null
+   @param id the identification number of the bank, must be a positive integer
+   @param percentForDebitAccounts the interest rate for debit accounts, must be a non-negative decimal
+   @param percentLessFiftyThousand the interest rate for debit accounts with balance less than $50,000, must be a non-negative decimal
+   @param percentLessOneHundredThousand the interest rate for debit accounts with balance less than $100,000, must be a non-negative decimal
+   @param percentMoreOneHundredThousand the interest rate for debit accounts with balance more than $100,000, must be a non-negative decimal
+   @param commissionForCreditAccount the commission rate for credit accounts, must be a non-negative decimal
+   @param restrictionForNotVerifiedCustomers the maximum amount a not-verified customer can withdraw, must be a non-negative decimal
+   @param creditLimit the maximum credit limit for a customer, must be a non-negative decimal
+   @param accountLock the lock that guards the balances of the bank accounts, cannot be null
+   @param timeProvider the provider of the current date of the bank system, cannot be null
+   @param accountStorage the memory the money columns of the bank accounts are stored in, cannot be null
    @throws BankException if any of the input parameters are invalid
    */
   public Bank(
@@ -94,15 +183,27 @@ public class Bank implements Watcher {
       BigDecimal percentMoreOneHundredThousand,
       BigDecimal commissionForCreditAccount,
       BigDecimal restrictionForNotVerifiedCustomers,
-      BigDecimal creditLimit) throws BankException {
-    clients = new ArrayList<>();
-    transactions = new ArrayList<>();
-    bankAccounts = new ArrayList<>();
-    changePercentsForDebitAccountAggregator = new ChangePercentsForDebitAccountAggregator();
-    changeCommissionForCreditAccountAggregator = new ChangeCommissionForCreditAccountAggregator();
-    changeCreditLimitAggregator = new ChangeCreditLimitAggregator();
-    changeRestrictionForNotVerifiedCustomersAggregator = new ChangeRestrictionForNotVerifiedCustomersAggregator();
-    changePercentForDepositAccountAggregator = new ChangePercentForDepositAccountAggregator();
+      BigDecimal creditLimit,
+      StripedAccountLock accountLock,
+      TimeProvider timeProvider,
+      AccountStorage accountStorage) throws BankException {
+    if (accountStorage == null)
+      throw BankException.invalidAccountStorage();
+    if (timeProvider == null)
+      throw BankException.invalidTimeProvider();
+
+    clients = Collections.synchronizedList(new ArrayList<>());
+    registeredClients = ConcurrentHashMap.newKeySet();
+    clientsByPassport = new ConcurrentHashMap<>();
+    transactions = new TransactionJournal<>(timeProvider);
+    bankAccounts = Collections.synchronizedList(new ArrayList<>());
+    bankAccountsById = new AccountIndex();
+    unverifiedClientCount = new LongAdder();
+    changePercentsForDebitAccountAggregator = new NotificationAggregator<>();
+    changeCommissionForCreditAccountAggregator = new NotificationAggregator<>();
+    changeCreditLimitAggregator = new NotificationAggregator<>();
+    changeRestrictionForNotVerifiedCustomersAggregator = new NotificationAggregator<>();
+    changePercentForDepositAccountAggregator = new NotificationAggregator<>();
 
     if (name == null)
       throw BankException.invalidName();
@@ -122,33 +223,143 @@ public class Bank implements Watcher {
       throw BankException.invalidRestrictionForNotVerifiedCustomers(restrictionForNotVerifiedCustomers);
     if (creditLimit.compareTo(BigDecimal.ZERO) < 0)
       throw BankException.invalidCreditLimit(creditLimit);
+    if (accountLock == null)
+      throw BankException.invalidAccountLock();
 
     this.name = name;
     this.id = id;
-    this.percentForDebitAccounts = percentForDebitAccounts;
-    this.percentLessFiftyThousand = percentLessFiftyThousand;
-    this.percentLessOneHundredThousand = percentLessOneHundredThousand;
-    this.percentMoreOneHundredThousand = percentMoreOneHundredThousand;
-    this.commissionForCreditAccount = commissionForCreditAccount;
-    this.restrictionForNotVerifiedCustomers = restrictionForNotVerifiedCustomers;
-    this.creditLimit = creditLimit;
+    this.rateHistory = new RateHistory(new RateTable(percentForDebitAccounts, percentLessFiftyThousand,
+        percentLessOneHundredThousand, percentMoreOneHundredThousand, commissionForCreditAccount,
+        restrictionForNotVerifiedCustomers, creditLimit));
+    this.timeProvider = timeProvider;
+    this.debitColumns = new DebitColumns(rateHistory, accountStorage);
+    this.creditColumns = new CreditColumns(rateHistory, accountStorage);
+    this.depositColumns = new DepositColumns(rateHistory, accountStorage);
+    this.velocityLimits = new VelocityLimits();
+    this.accountLock = accountLock;
+    this.operationLog = OperationLog.NONE;
+    this.metrics = Metrics.NONE;
+    this.requestCache = new RequestCache();
+  }
+
+  /**
+   Sets the log the bank reports its operations to.
+   @param operationLog the log to report the operations to
+   @throws BankException if the log is null
+   */
+  public void setOperationLog(OperationLog operationLog) throws BankException {
+    if (operationLog == null)
+      throw BankException.invalidOperationLog();
+    this.operationLog = operationLog;
+  }
+
+  /**
+   Sets the metrics the bank reports its operations to.
+   @param metrics the metrics to report the operations to
+   @throws BankException if the metrics are null
+   */
+  public void setMetrics(Metrics metrics) throws BankException {
+    if (metrics == null)
+      throw BankException.invalidMetrics();
+    this.metrics = metrics;
+  }
+
+  /**
+   Sets the cache that executes the operations submitted with a request ID once.
+   @param requestCache the cache of the requests
+   @throws BankException if the cache is null
+   */
+  public void setRequestCache(RequestCache requestCache) throws BankException {
+    if (requestCache == null)
+      throw BankException.invalidRequestCache();
+    this.requestCache = requestCache;
+  }
+
+  /**
+   Sets the dispatcher that delivers the notifications about changed rates in the background.
+   With a dispatcher a rate change returns as soon as the notification is queued; without one the clients
+   are notified before it returns.
+   @param notificationDispatcher the dispatcher to deliver the notifications, or null to deliver them in the calling thread
+   */
+  public void setNotificationDispatcher(NotificationDispatcher notificationDispatcher) {
+    this.notificationDispatcher = notificationDispatcher;
   }
 
   /**
-   Adds a new client to the bank.
+   Adds a new client to the bank. The client and its passport are claimed atomically before anything else is changed,
+   so of two clients with the same passport added at once exactly one is added.
    @param client the client to be added to the bank
-   @throws BankException if the client parameter is null or there is an issue adding the client to the bank
+   @throws BankException if the client parameter is null, the client is already registered in the bank
+   or another client with the same passport is registered in the bank
    @throws AggregatorException if there is an issue subscribing the client to the aggregator
    @throws ClientException if there is an issue adding the bank to the client or the client is invalid
    */
   public void addNewClient(Client client) throws BankException, AggregatorException, ClientException {
     if (client == null)
       throw BankException.invalidClient();
-
+    if (!registeredClients.add(client))
+      throw BankException.clientAlreadyExistsInSystem();
+    boolean hasPassport = !client.getPassport().isEmpty();
+    if (hasPassport && clientsByPassport.putIfAbsent(client.getPassport(), client) != null) {
+      registeredClients.remove(client);
+      throw BankException.clientAlreadyExistsInSystem();
+    }
+
+    try {
+      if (!client.isVerified())
+        changeRestrictionForNotVerifiedCustomersAggregator.subscribe(client);
+      client.setBank(this);
+    } catch (AggregatorException | ClientException | RuntimeException e) {
+      if (hasPassport)
+        clientsByPassport.remove(client.getPassport(), client);
+      registeredClients.remove(client);
+      throw e;
+    }
     if (!client.isVerified())
-      changeRestrictionForNotVerifiedCustomersAggregator.subscribe(client);
-    client.setBank(this);
-    clients.add(client);
+      unverifiedClientCount.increment();
+    synchronized (clients) {
+      clients.add(client);
+      operationLog.clientAdded(client);
+    }
+  }
+
+  /**
+   Finds the client with the given passport.
+   @param passport the passport of the client
+   @return the client with the given passport, or an empty optional if there is no such client in the bank
+   */
+  public Optional<Client> findClient(String passport) {
+    return Optional.ofNullable(clientsByPassport.get(passport));
+  }
+
+  /**
+   Finds the bank account with the given ID.
+   @param bankAccountId the ID of the bank account
+   @return the bank account with the given ID, or an empty optional if there is no such bank account in the bank
+   */
+  public Optional<BankAccount> findAccount(BankAccountId bankAccountId) {
+    if (bankAccountId == null || bankAccountId.getBankId() != id || bankAccountId.getAccountId() == null)
+      return Optional.empty();
+    return Optional.ofNullable(bankAccountsById.get(bankAccountId.getAccountId()));
+  }
+
+  /**
+   Checks in constant time that the given bank account belongs to the bank.
+   @param bankAccount the bank account to check
+   @return true if the bank account belongs to the bank, false otherwise
+   */
+  private boolean containsAccount(BankAccount bankAccount) {
+    return bankAccount.getBank() == this && bankAccountsById.get(bankAccount.getBankAccountId().getAccountId()) == bankAccount;
+  }
+
+  /**
+   Adds a new bank account to the list of bank accounts and to the index of bank accounts.
+   @param bankAccount the bank account to add
+   */
+  private void registerAccount(BankAccount bankAccount) {
+    bankAccounts.add(bankAccount);
+    bankAccountsById.put(bankAccount.getBankAccountId().getAccountId(), bankAccount);
+    operationLog.accountOpened(bankAccount);
   }
 
   /**
@@ -165,14 +376,14 @@ public class Bank implements Watcher {
       throws BankException, AggregatorException, ClientException, BankAccountIdException, BankAccountException {
     if (client == null)
       throw BankException.invalidClient();
-    if (!clients.contains(client))
+    if (!registeredClients.contains(client))
       throw BankException.clientDoesntExistInSystem();
 
     var newDebitAccount = new DebitAccount(new BankAccountId(id, UUID.randomUUID()), client,
-        percentForDebitAccounts, this);
+        rateHistory.current(), this);
     changePercentsForDebitAccountAggregator.subscribe(client);
     client.setBankAccount(newDebitAccount);
-    bankAccounts.add(newDebitAccount);
+    registerAccount(newDebitAccount);
   }
 
   /**
@@ -189,16 +400,15 @@ public class Bank implements Watcher {
       throws BankException, BankAccountIdException, BankAccountException, AggregatorException, ClientException {
     if (client == null)
       throw BankException.invalidClient();
-    if (!clients.contains(client))
+    if (!registeredClients.contains(client))
       throw BankException.clientDoesntExistInSystem();
 
     var newCreditAccount = new CreditAccount(new BankAccountId(id, UUID.randomUUID()), client,
-        creditLimit,
-        commissionForCreditAccount, this);
+        rateHistory.current(), this);
     changeCommissionForCreditAccountAggregator.subscribe(client);
     changeCreditLimitAggregator.subscribe(client);
     client.setBankAccount(newCreditAccount);
-    bankAccounts.add(newCreditAccount);
+    registerAccount(newCreditAccount);
   }
 
   /**
@@ -213,28 +423,132 @@ public class Bank implements Watcher {
    @throws AggregatorException if there is an issue with the aggregator
    @throws ClientException if there is an issue with the client
    */
-  public void addNewDepositAccountToClient(Client client, BigDecimal money, Calendar time)
+  public void addNewDepositAccountToClient(Client client, Money money, Calendar time)
       throws BankException, BankAccountIdException, BankAccountException, AggregatorException, ClientException {
     if (client == null)
       throw BankException.invalidClient();
-    if (!clients.contains(client))
+    if (!registeredClients.contains(client))
       throw BankException.clientDoesntExistInSystem();
-    if (money.compareTo(BigDecimal.ZERO) < 0)
+    if (money.isNegative())
       throw BankException.invalidAmountOfMoney(money);
 
-    BigDecimal percent = BigDecimal.ZERO;
+    var newDepositAccount = new DepositAccount(new BankAccountId(id, UUID.randomUUID()), client,
+        rateHistory.current(), depositRate(money), time, timeProvider.getDay(), money, this);
+    changePercentForDepositAccountAggregator.subscribe(client);
+    client.setBankAccount(newDepositAccount);
+    registerAccount(newDepositAccount);
+  }
+
+  /**
+   Adds a debit account with the given ID and state to the specified client, used when the bank is restored from a log.
+   @param client the client to add the debit account to
+   @param accountId the ID of the bank account inside the bank
+   @param percent the interest rate of the account
+   @param balance the balance of the account
+   @param accruals the interest accruals of the account
+   @return the restored debit account
+   @throws BankException if the client is null or doesn't exist in the system, or the ID is already taken
+   @throws AggregatorException if there is an issue with the aggregator
+   @throws ClientException if there is an issue with the client
+   @throws BankAccountIdException if there is an issue with the bank account ID
+   @throws BankAccountException if there is an issue with the bank account
+   */
+  public DebitAccount restoreDebitAccount(Client client, UUID accountId, BigDecimal percent, Money balance, Money accruals)
+      throws BankException, AggregatorException, ClientException, BankAccountIdException, BankAccountException {
+    BankAccountId bankAccountId = restoredAccountId(client, accountId);
+
+    int version = rateHistory.versionOf(Map.of(Rate.PERCENT_FOR_DEBIT_ACCOUNTS, percent));
+    var debitAccount = new DebitAccount(bankAccountId, client, rateHistory.get(version), this);
+    debitAccount.restore(balance, accruals);
+    changePercentsForDebitAccountAggregator.subscribe(client);
+    client.setBankAccount(debitAccount);
+    registerAccount(debitAccount);
+    return debitAccount;
+  }
 
-    if (money.compareTo(new BigDecimal(50000)) < 0)
-      percent = percentLessFiftyThousand;
-    if (money.compareTo(new BigDecimal(50000)) >= 0 && money.compareTo(new BigDecimal(100000)) < 0)
-      percent = percentLessOneHundredThousand;
-    if (money.compareTo(new BigDecimal(100000)) >= 0)
-      percent = percentMoreOneHundredThousand;
+  /**
+   Adds a credit account with the given ID and state to the specified client, used when the bank is restored from a log.
+   @param client the client to add the credit account to
+   @param accountId the ID of the bank account inside the bank
+   @param creditLimit the credit limit of the account
+   @param commission the commission of the account
+   @param balance the balance of the account
+   @param debt the debt of the account
+   @return the restored credit account
+   @throws BankException if the client is null or doesn't exist in the system, or the ID is already taken
+   @throws AggregatorException if there is an issue with the aggregator
+   @throws ClientException if there is an issue with the client
+   @throws BankAccountIdException if there is an issue with the bank account ID
+   @throws BankAccountException if there is an issue with the bank account
+   */
+  public CreditAccount restoreCreditAccount(
+      Client client, UUID accountId, Money creditLimit, Money commission, Money balance, Money debt)
+      throws BankException, AggregatorException, ClientException, BankAccountIdException, BankAccountException {
+    BankAccountId bankAccountId = restoredAccountId(client, accountId);
 
-    var newDepositAccount = new DepositAccount(new BankAccountId(id, UUID.randomUUID()), client, percent, time, money, this);
+    int version = rateHistory.versionOf(Map.of(
+        Rate.CREDIT_LIMIT, creditLimit.toBigDecimal(), Rate.COMMISSION_FOR_CREDIT_ACCOUNT, commission.toBigDecimal()));
+    var creditAccount = new CreditAccount(bankAccountId, client, rateHistory.get(version), this);
+    creditAccount.restore(balance, debt);
+    changeCommissionForCreditAccountAggregator.subscribe(client);
+    changeCreditLimitAggregator.subscribe(client);
+    client.setBankAccount(creditAccount);
+    registerAccount(creditAccount);
+    return creditAccount;
+  }
+
+  /**
+   Adds a deposit account with the given ID and state to the specified client, used when the bank is restored from a log.
+   @param client the client to add the deposit account to
+   @param accountId the ID of the bank account inside the bank
+   @param percent the interest rate of the account
+   @param dateOfDeadline the deadline of the account
+   @param date the current date of the account
+   @param balance the balance of the account
+   @param accruals the accrued interest of the account
+   @param isDeadlineEnd true if the deadline of the account has passed
+   @return the restored deposit account
+   @throws BankException if the client is null or doesn't exist in the system, or the ID is already taken
+   @throws AggregatorException if there is an issue with the aggregator
+   @throws ClientException if there is an issue with the client
+   @throws BankAccountIdException if there is an issue with the bank account ID
+   @throws BankAccountException if there is an issue with the bank account
+   */
+  public DepositAccount restoreDepositAccount(
+      Client client, UUID accountId, BigDecimal percent, Calendar dateOfDeadline, Calendar date,
+      Money balance, Money accruals, boolean isDeadlineEnd)
+      throws BankException, AggregatorException, ClientException, BankAccountIdException, BankAccountException {
+    BankAccountId bankAccountId = restoredAccountId(client, accountId);
+
+    Rate rate = depositRate(balance);
+    int version = rateHistory.versionOf(Map.of(rate, percent));
+    var depositAccount = new DepositAccount(
+        bankAccountId, client, rateHistory.get(version), rate, dateOfDeadline, EpochDays.of(date), balance, this);
+    depositAccount.restore(balance, accruals, date, isDeadlineEnd);
     changePercentForDepositAccountAggregator.subscribe(client);
-    client.setBankAccount(newDepositAccount);
-    bankAccounts.add(newDepositAccount);
+    client.setBankAccount(depositAccount);
+    registerAccount(depositAccount);
+    return depositAccount;
+  }
+
+  /**
+   Checks that a bank account with the given ID can be restored for the given client.
+   @param client the owner of the restored bank account
+   @param accountId the ID of the bank account inside the bank
+   @return the full ID of the restored bank account
+   @throws BankException if the client is null or doesn't exist in the system, or the ID is already taken
+   @throws BankAccountIdException if there is an issue with the bank account ID
+   */
+  private BankAccountId restoredAccountId(Client client, UUID accountId) throws BankException, BankAccountIdException {
+    if (client == null)
+      throw BankException.invalidClient();
+    if (!registeredClients.contains(client))
+      throw BankException.clientDoesntExistInSystem();
+
+    var bankAccountId = new BankAccountId(id, accountId);
+    if (bankAccountsById.contains(bankAccountId.getAccountId()))
+      throw BankException.bankAccountAlreadyExistsInSystem();
+    return bankAccountId;
   }
 
 /**
@@ -245,18 +559,61 @@ public class Bank implements Watcher {
  @throws TransactionException if an error occurs while executing the transaction
  @throws BankAccountException if an error occurs with the bank account during the transaction
  */
-  public void moneyTopUpTransaction(BankAccount bankAccount, BigDecimal money)
+  public void moneyTopUpTransaction(BankAccount bankAccount, Money money)
+      throws BankException, TransactionException, BankAccountException {
+    moneyTopUpTransaction(bankAccount, money, null);
+  }
+
+  /**
+   Executes a money top-up transaction once per request ID. A retry with the same request ID doesn't top up
+   the bank account again, it returns the transaction of the first call.
+   @param bankAccount the bank account to perform the transaction on
+   @param money the amount of money to top-up
+   @param requestId the ID of the request, or null to execute the transaction without deduplication
+   @return the executed transaction, or the transaction of the first call with the request ID
+   @throws BankException if the specified amount of money is negative, the bank account is null, or the bank account does not exist in the system
+   @throws TransactionException if an error occurs while executing the transaction, or the request ID was used for another type of transaction
+   @throws BankAccountException if an error occurs with the bank account during the transaction
+   */
+  public MoneyTopUpTransaction moneyTopUpTransaction(BankAccount bankAccount, Money money, String requestId)
       throws BankException, TransactionException, BankAccountException {
-    if (money.compareTo(BigDecimal.ZERO) < 0)
+    return requestCache.execute(requestId, MoneyTopUpTransaction.class, () -> executeTopUp(bankAccount, money));
+  }
+
+  /**
+   Executes a money top-up transaction on the given bank account.
+   @param bankAccount the bank account to perform the transaction on
+   @param money the amount of money to top-up
+   @return the executed transaction
+   @throws BankException if the specified amount of money is negative, the bank account is null, or the bank account does not exist in the system
+   @throws TransactionException if an error occurs while executing the transaction
+   @throws BankAccountException if an error occurs with the bank account during the transaction
+   */
+  private MoneyTopUpTransaction executeTopUp(BankAccount bankAccount, Money money)
+      throws BankException, TransactionException, BankAccountException {
+    if (money.isNegative())
       throw BankException.invalidAmountOfMoney(money);
     if (bankAccount == null)
       throw BankException.invalidBankAccount();
-    if (!bankAccounts.contains(bankAccount))
+    if (!containsAccount(bankAccount))
       throw BankException.bankAccountDoesntExistInSystem();
 
     var newMoneyTopUpTransaction = new MoneyTopUpTransaction(bankAccount, money);
-    newMoneyTopUpTransaction.execute();
-    transactions.add(newMoneyTopUpTransaction);
+    long start = metrics.startTimer();
+    accountLock.lock(bankAccount);
+    try {
+      newMoneyTopUpTransaction.execute();
+      operationLog.transactionExecuted(newMoneyTopUpTransaction, false);
+      transactions.add(newMoneyTopUpTransaction);
+    } catch (TransactionException | BankAccountException e) {
+      metrics.increment(MetricCounter.DECLINED_TRANSACTIONS);
+      throw e;
+    } finally {
+      accountLock.unlock(bankAccount);
+    }
+    metrics.stopTimer(MetricTimer.TRANSACTION, start);
+    metrics.increment(MetricCounter.TOP_UPS);
+    return newMoneyTopUpTransaction;
   }
 
   /**
@@ -267,22 +624,287 @@ public class Bank implements Watcher {
    @throws TransactionException if the transaction cannot be executed
    @throws BankAccountException if there is an issue with the bank account
    */
-  public void moneyWithdrawTransaction(BankAccount bankAccount, BigDecimal money)
+  public void moneyWithdrawTransaction(BankAccount bankAccount, Money money)
       throws BankException, TransactionException, BankAccountException {
-    if (money.compareTo(BigDecimal.ZERO) < 0)
+    moneyWithdrawTransaction(bankAccount, money, null);
+  }
+
+  /**
+   Executes a money withdrawal transaction once per request ID. A retry with the same request ID doesn't withdraw
+   the money again, it returns the transaction of the first call.
+   @param bankAccount the bank account from which the money will be withdrawn
+   @param money the amount of money to withdraw
+   @param requestId the ID of the request, or null to execute the transaction without deduplication
+   @return the executed transaction, or the transaction of the first call with the request ID
+   @throws BankException if the bank account or the amount of money is invalid, or if the operation is not allowed for the owner of the bank account
+   @throws TransactionException if the transaction cannot be executed, or the request ID was used for another type of transaction
+   @throws BankAccountException if there is an issue with the bank account
+   */
+  public MoneyWithdrawTransaction moneyWithdrawTransaction(BankAccount bankAccount, Money money, String requestId)
+      throws BankException, TransactionException, BankAccountException {
+    return requestCache.execute(requestId, MoneyWithdrawTransaction.class, () -> executeWithdraw(bankAccount, money));
+  }
+
+  /**
+   Executes a money withdrawal transaction on the specified bank account.
+   @param bankAccount the bank account from which the money will be withdrawn
+   @param money the amount of money to withdraw
+   @return the executed transaction
+   @throws BankException if the bank account or the amount of money is invalid, or if the operation is not allowed for the owner of the bank account
+   @throws TransactionException if the transaction cannot be executed
+   @throws BankAccountException if there is an issue with the bank account
+   */
+  private MoneyWithdrawTransaction executeWithdraw(BankAccount bankAccount, Money money)
+      throws BankException, TransactionException, BankAccountException {
+    if (money.isNegative())
       throw BankException.invalidAmountOfMoney(money);
     if (bankAccount == null)
       throw BankException.invalidBankAccount();
-    if (!bankAccounts.contains(bankAccount))
+    if (!containsAccount(bankAccount))
       throw BankException.bankAccountDoesntExistInSystem();
 
-    if (!bankAccount.getOwner().isVerified() && money.compareTo(restrictionForNotVerifiedCustomers) > 0)
+    if (!reserveOperation(bankAccount, money)) {
+      metrics.increment(MetricCounter.REJECTED_OPERATIONS);
       throw BankException.invalidOperation();
+    }
 
     var newMoneyWithdrawTransaction = new MoneyWithdrawTransaction(bankAccount, money);
-    newMoneyWithdrawTransaction.execute();
-    newMoneyWithdrawTransaction.execute();
-    transactions.add(newMoneyWithdrawTransaction);
+    long start = metrics.startTimer();
+    accountLock.lock(bankAccount);
+    try {
+      newMoneyWithdrawTransaction.execute();
+      operationLog.transactionExecuted(newMoneyWithdrawTransaction, false);
+      transactions.add(newMoneyWithdrawTransaction);
+    } catch (TransactionException | BankAccountException e) {
+      releaseOperation(bankAccount, money);
+      metrics.increment(MetricCounter.DECLINED_TRANSACTIONS);
+      throw e;
+    } finally {
+      accountLock.unlock(bankAccount);
+    }
+    metrics.stopTimer(MetricTimer.TRANSACTION, start);
+    metrics.increment(MetricCounter.WITHDRAWALS);
+    return newMoneyWithdrawTransaction;
+  }
+
+  /**
+   Gets the current version of the rates of the bank, the rates new bank accounts are opened with.
+   @return the current rate table
+   */
+  public RateTable getRates() {
+    return rateHistory.current();
+  }
+
+  /**
+   Gets the percent for debit accounts.
+   @return the current value of the rate
+   */
+  public BigDecimal getPercentForDebitAccounts() {
+    return rateHistory.current().get(Rate.PERCENT_FOR_DEBIT_ACCOUNTS);
+  }
+
+  /**
+   Gets the percent for deposit accounts with balances less than fifty thousand.
+   @return the current value of the rate
+   */
+  public BigDecimal getPercentLessFiftyThousand() {
+    return rateHistory.current().get(Rate.PERCENT_LESS_FIFTY_THOUSAND);
+  }
+
+  /**
+   Gets the percent for deposit accounts with balances between fifty thousand and one hundred thousand.
+   @return the current value of the rate
+   */
+  public BigDecimal getPercentLessOneHundredThousand() {
+    return rateHistory.current().get(Rate.PERCENT_LESS_ONE_HUNDRED_THOUSAND);
+  }
+
+  /**
+   Gets the percent for deposit accounts with balances greater than one hundred thousand.
+   @return the current value of the rate
+   */
+  public BigDecimal getPercentMoreOneHundredThousand() {
+    return rateHistory.current().get(Rate.PERCENT_MORE_ONE_HUNDRED_THOUSAND);
+  }
+
+  /**
+   Gets the commission for credit accounts.
+   @return the current value of the rate
+   */
+  public BigDecimal getCommissionForCreditAccount() {
+    return rateHistory.current().get(Rate.COMMISSION_FOR_CREDIT_ACCOUNT);
+  }
+
+  /**
+   Gets the restriction for not verified customers.
+   @return the current value of the rate
+   */
+  public BigDecimal getRestrictionForNotVerifiedCustomers() {
+    return rateHistory.current().get(Rate.RESTRICTION_FOR_NOT_VERIFIED_CUSTOMERS);
+  }
+
+  /**
+   Gets the credit limit for credit accounts.
+   @return the current value of the rate
+   */
+  public BigDecimal getCreditLimit() {
+    return rateHistory.current().get(Rate.CREDIT_LIMIT);
+  }
+
+  /**
+   Gets the figures of the bank: the numbers of clients and bank accounts, and the totals of the balances.
+   The figures are kept up to date by the operations, so they are read without walking the clients or the bank accounts.
+   Every bank account is settled at the end of a month, so the balances include the interest and the commissions
+   capitalised at the last month end, like the balances of the bank accounts themselves.
+   @return the current figures of the bank
+   */
+  public BankStats getStats() {
+    return new BankStats(
+        clients.size(),
+        unverifiedClientCount.intValue(),
+        debitColumns.size(),
+        debitColumns.totalBalance(),
+        creditColumns.size(),
+        creditColumns.totalBalance(),
+        creditColumns.exposure(),
+        depositColumns.size(),
+        depositColumns.totalBalance());
+  }
+
+  /**
+   Chooses the percent for a deposit account by its balance.
+   @param balance the balance of the deposit account
+   @return the rate that is the percent of the deposit account
+   */
+  private static Rate depositRate(Money balance) {
+    if (balance.compareTo(FIFTY_THOUSAND) < 0)
+      return Rate.PERCENT_LESS_FIFTY_THOUSAND;
+    if (balance.compareTo(ONE_HUNDRED_THOUSAND) < 0)
+      return Rate.PERCENT_LESS_ONE_HUNDRED_THOUSAND;
+    return Rate.PERCENT_MORE_ONE_HUNDRED_THOUSAND;
+  }
+
+  /**
+   Checks if the owner of the given bank account is allowed to take the given amount of money from it.
+   Not verified customers can't take more than the restriction for not verified customers within the velocity window,
+   counting the money they already took in it. With the default window of one day the restriction is a daily cap
+   on all operations of a customer rather than a limit on a single operation. The check doesn't record the operation.
+   @param bankAccount the bank account the money is taken from
+   @param money the amount of money to take
+   @return true if the operation is allowed, false otherwise
+   */
+  public boolean isOperationAllowed(BankAccount bankAccount, Money money) {
+    if (bankAccount.getOwner().isVerified())
+      return true;
+
+    long restriction = rateHistory.current().getUnits(Rate.RESTRICTION_FOR_NOT_VERIFIED_CUSTOMERS);
+    return money.getUnits() <= restriction - velocityLimits.spent(bankAccount.getOwner(), currentDay());
+  }
+
+  /**
+   Checks if the owner of the given bank account is allowed to take the given amount of money from it, and records
+   the money in the velocity window of a not verified owner if it is. An operation that isn't executed afterwards
+   must be released with {@link #releaseOperation}. A rolled back operation keeps counting.
+   @param bankAccount the bank account the money is taken from
+   @param money the amount of money to take
+   @return true if the operation is allowed and recorded, false otherwise
+   */
+  public boolean reserveOperation(BankAccount bankAccount, Money money) {
+    if (bankAccount.getOwner().isVerified())
+      return true;
+
+    long restriction = rateHistory.current().getUnits(Rate.RESTRICTION_FOR_NOT_VERIFIED_CUSTOMERS);
+    return velocityLimits.tryRecord(bankAccount.getOwner(), currentDay(), money.getUnits(), restriction);
+  }
+
+  /**
+   Takes back an operation recorded by {@link #reserveOperation} on the current day that wasn't executed.
+   @param bankAccount the bank account the money was to be taken from
+   @param money the amount of money of the operation
+   */
+  public void releaseOperation(BankAccount bankAccount, Money money) {
+    if (!bankAccount.getOwner().isVerified())
+      velocityLimits.release(bankAccount.getOwner(), currentDay(), money.getUnits());
+  }
+
+  /**
+   Gets the length of the window the restriction for not verified customers applies to.
+   @return the length of the velocity window in days
+   */
+  public int getVelocityWindowDays() {
+    return velocityLimits.windowDays();
+  }
+
+  /**
+   Gets the current day of the bank, the number of days it has processed.
+   @return the current day
+   */
+  private long currentDay() {
+    return debitColumns.processedDays();
+  }
+
+  /**
+   Takes a consistent snapshot of the balances of all bank accounts of the bank without stopping the transactions.
+   The bank accounts opened while the snapshot is taken are either in it with their balances or not in it.
+   @return the balances of the bank accounts at one moment
+   */
+  public BalanceSnapshot snapshot() {
+    List<BankAccount> accounts;
+    synchronized (bankAccounts) {
+      accounts = List.copyOf(bankAccounts);
+    }
+    return accountLock.snapshot(accounts);
+  }
+
+  /**
+   Gets a page of the statement of a bank account: its transactions in this bank in the order they were executed,
+   including the rolled back ones. The statement is read from the history of the bank account in the journal,
+   so it doesn't depend on the number of transactions of the other bank accounts.
+   @param bankAccount the bank account
+   @param page the number of the page, starting from 0
+   @param pageSize the number of transactions in a page
+   @return the transactions of the page
+   @throws BankException if the bank account is null or doesn't exist in the system, or the page is invalid
+   */
+  public List<Transaction> getStatement(BankAccount bankAccount, int page, int pageSize) throws BankException {
+    checkStatement(bankAccount, page, pageSize);
+    return transactions.history(bankAccount.getBankAccountId(), page * pageSize, pageSize);
+  }
+
+  /**
+   Gets a page of the statement of a bank account for the given time range: its transactions in this bank executed
+   from the first time inclusive to the second time exclusive, in the order they were executed.
+   @param bankAccount the bank account
+   @param from the first time of the range
+   @param to the time after the range
+   @param page the number of the page, starting from 0
+   @param pageSize the number of transactions in a page
+   @return the transactions of the page
+   @throws BankException if the bank account is null or doesn't exist in the system, a time is null, or the page is invalid
+   */
+  public List<Transaction> getStatement(BankAccount bankAccount, Calendar from, Calendar to, int page, int pageSize)
+      throws BankException {
+    checkStatement(bankAccount, page, pageSize);
+    if (from == null || to == null)
+      throw BankException.invalidPage();
+    return transactions.history(
+        bankAccount.getBankAccountId(), from.getTimeInMillis(), to.getTimeInMillis(), page * pageSize, pageSize);
+  }
+
+  /**
+   Checks the arguments of a statement query.
+   @param bankAccount the bank account of the statement
+   @param page the number of the page
+   @param pageSize the number of transactions in a page
+   @throws BankException if the bank account is null or doesn't exist in the system, or the page is invalid
+   */
+  private void checkStatement(BankAccount bankAccount, int page, int pageSize) throws BankException {
+    if (bankAccount == null)
+      throw BankException.invalidBankAccount();
+    if (!containsAccount(bankAccount))
+      throw BankException.bankAccountDoesntExistInSystem();
+    if (page < 0 || pageSize <= 0 || (long) page * pageSize > Integer.MAX_VALUE)
+      throw BankException.invalidPage();
   }
 
   /**
@@ -297,10 +919,23 @@ public class Bank implements Watcher {
   }
 
   /**
-   Rolls back a previously executed transaction.
+   Adds several money transfer transactions to the bank's list of transactions at once.
+   @param transactions The transactions to add to the list, in the order they were executed.
+   @throws BankException If the list or one of the transactions is null.
+   */
+  public void addMoneyTransferTransactions(List<? extends Transaction> transactions) throws BankException {
+    if (transactions == null || transactions.contains(null))
+      throw BankException.invalidTransaction();
+    this.transactions.appendAll(transactions);
+  }
+
+  /**
+   Rolls back a previously executed transaction and marks it as rolled back in the journal of the bank.
+   A transaction already rolled back through another journal, such as a transfer rolled back by the central bank,
+   isn't rolled back again.
    @param transaction The transaction to rollback.
    @return The rolled back transaction.
-   @throws BankException If the transaction is null or doesn't exist in the system.
+   @throws BankException If the transaction is null, doesn't exist in the system or was already rolled back.
    @throws TransactionException If an error occurs while rolling back the transaction.
    @throws BankAccountException If an error occurs with a bank account involved in the transaction.
    */
@@ -311,7 +946,19 @@ public class Bank implements Watcher {
     if (!transactions.contains(transaction))
       throw BankException.transactionDoesntExistInSystem();
 
-    transaction.rollback();
+    long start = metrics.startTimer();
+    accountLock.lock(transaction.getAccountFrom(), transaction.getAccountTo());
+    try {
+      if (transaction.isRolledBack() || transactions.isRolledBack(transaction))
+        throw BankException.transactionAlreadyRolledBack();
+      transaction.rollback();
+      transactions.markRolledBack(transaction);
+      operationLog.transactionRolledBack(this, transaction);
+    } finally {
+      accountLock.unlock(transaction.getAccountFrom(), transaction.getAccountTo());
+    }
+    metrics.stopTimer(MetricTimer.ROLLBACK, start);
+    metrics.increment(MetricCounter.ROLLBACKS);
 
     return transaction;
   }
@@ -327,142 +974,229 @@ public class Bank implements Watcher {
    @throws BankAccountException if there is an error related to the bank account
    */
   public MoneyTransferTransaction moneyTransferTransaction(
-      BankAccount bankAccountFrom, BankAccount bankAccountTo, BigDecimal money)
+      BankAccount bankAccountFrom, BankAccount bankAccountTo, Money money)
+      throws BankException, TransactionException, BankAccountException {
+    return moneyTransferTransaction(bankAccountFrom, bankAccountTo, money, null);
+  }
+
+  /**
+   Creates and executes a new MoneyTransferTransaction between two bank accounts once per request ID.
+   A retry with the same request ID doesn't transfer the money again, it returns the transaction of the first call.
+   @param bankAccountFrom the bank account from which the money will be transferred
+   @param bankAccountTo the bank account to which the money will be transferred
+   @param money the amount of money to be transferred
+   @param requestId the ID of the request, or null to execute the transaction without deduplication
+   @return the created MoneyTransferTransaction, or the transaction of the first call with the request ID
+   @throws BankException if there is an error related to the bank
+   @throws TransactionException if there is an error related to the transaction, or the request ID was used for another type of transaction
+   @throws BankAccountException if there is an error related to the bank account
+   */
+  public MoneyTransferTransaction moneyTransferTransaction(
+      BankAccount bankAccountFrom, BankAccount bankAccountTo, Money money, String requestId)
+      throws BankException, TransactionException, BankAccountException {
+    return requestCache.execute(requestId, MoneyTransferTransaction.class,
+        () -> executeTransfer(bankAccountFrom, bankAccountTo, money));
+  }
+
+  /**
+   Creates and executes a new MoneyTransferTransaction between two bank accounts.
+   @param bankAccountFrom the bank account from which the money will be transferred
+   @param bankAccountTo the bank account to which the money will be transferred
+   @param money the amount of money to be transferred
+   @return the created MoneyTransferTransaction
+   @throws BankException if there is an error related to the bank
+   @throws TransactionException if there is an error related to the transaction
+   @throws BankAccountException if there is an error related to the bank account
+   */
+  private MoneyTransferTransaction executeTransfer(BankAccount bankAccountFrom, BankAccount bankAccountTo, Money money)
       throws BankException, TransactionException, BankAccountException {
     if (bankAccountFrom == null)
       throw BankException.invalidBankAccount();
     if (bankAccountTo == null)
       throw BankException.invalidBankAccount();
-    if (!bankAccounts.contains(bankAccountFrom))
+    if (!containsAccount(bankAccountFrom))
       throw BankException.bankAccountDoesntExistInSystem();
-    if (!bankAccounts.contains(bankAccountTo))
+    if (!containsAccount(bankAccountTo))
       throw BankException.bankAccountDoesntExistInSystem();
-    if (money.compareTo(BigDecimal.ZERO) < 0)
+    if (money.isNegative())
       throw BankException.invalidAmountOfMoney(money);
 
-    if (!bankAccountFrom.getOwner().isVerified() && money.compareTo(
-        restrictionForNotVerifiedCustomers) > 0) throw BankException.invalidOperation();
+    if (!reserveOperation(bankAccountFrom, money)) {
+      metrics.increment(MetricCounter.REJECTED_OPERATIONS);
+      throw BankException.invalidOperation();
+    }
 
     var newMoneyTransferTransaction = new MoneyTransferTransaction(bankAccountFrom, bankAccountTo, money);
-    newMoneyTransferTransaction.execute();
-    transactions.add(newMoneyTransferTransaction);
+    long start = metrics.startTimer();
+    accountLock.lock(bankAccountFrom, bankAccountTo);
+    try {
+      newMoneyTransferTransaction.execute();
+      operationLog.transactionExecuted(newMoneyTransferTransaction, false);
+      transactions.add(newMoneyTransferTransaction);
+    } catch (TransactionException | BankAccountException e) {
+      releaseOperation(bankAccountFrom, money);
+      metrics.increment(MetricCounter.DECLINED_TRANSACTIONS);
+      throw e;
+    } finally {
+      accountLock.unlock(bankAccountFrom, bankAccountTo);
+    }
+    metrics.stopTimer(MetricTimer.TRANSACTION, start);
+    metrics.increment(MetricCounter.TRANSFERS);
     return newMoneyTransferTransaction;
   }
 
   /**
    Changes the percent for new debit accounts to the specified value.
    @param newPercent the new percent for new debit accounts
+   @return the future completed with the clients that failed to take the notification
    @throws BankException if the new percent is negative
    @throws AggregatorException if an error occurs in the aggregator
    @throws NotificationException if an error occurs while sending notifications
    @throws MediatorException if an error occurs while sending notifications to mediator
    @throws ClientException if an error occurs with the client
    */
-  public void changePercentForDebitAccounts(BigDecimal newPercent)
+  public CompletableFuture<List<Observer<Notification>>> changePercentForDebitAccounts(BigDecimal newPercent)
       throws BankException, AggregatorException, NotificationException, MediatorException, ClientException {
     if (newPercent.compareTo(BigDecimal.ZERO) < 0)
       throw BankException.invalidPercentForDebitAccounts(newPercent);
 
-    percentForDebitAccounts = newPercent;
-    var newNotification = new ChangePercentsForDebitAccountNotification(newPercent + " - new percent for new debit accounts");
-    changePercentsForDebitAccountAggregator.notify(newNotification);
+    BigDecimal previousValue = rateHistory.publish(Rate.PERCENT_FOR_DEBIT_ACCOUNTS, newPercent);
+    operationLog.rateChanged(this, Rate.PERCENT_FOR_DEBIT_ACCOUNTS, newPercent);
+    var newNotification = new ChangePercentsForDebitAccountNotification(newPercent + " - new percent for new debit accounts", previousValue, newPercent);
+    return announce(changePercentsForDebitAccountAggregator, newNotification);
   }
 
   /**
    Changes the commission for credit accounts to the given new commission.
    Notifies all subscribed clients about the change through the appropriate aggregator.
    @param newCommission the new commission to be set for credit accounts.
+   @return the future completed with the clients that failed to take the notification
    @throws BankException if the new commission is negative.
    @throws NotificationException if there is an error in notifying subscribed clients.
    @throws AggregatorException if there is an error with the aggregator.
    @throws MediatorException if there is an error with the mediator.
    @throws ClientException if there is an error with the client.
    */
-  public void changeCommissionForCreditAccount(BigDecimal newCommission)
+  public CompletableFuture<List<Observer<Notification>>> changeCommissionForCreditAccount(BigDecimal newCommission)
       throws BankException, NotificationException, AggregatorException, MediatorException, ClientException {
     if (newCommission.compareTo(BigDecimal.ZERO) < 0)
       throw BankException.invalidCommissionForCreditAccount(newCommission);
 
-    commissionForCreditAccount = newCommission;
-    var newNotification = new ChangeCommissionForCreditAccountNotification(newCommission + " - new commission for credit accounts");
-    changeCommissionForCreditAccountAggregator.notify(newNotification);
+    BigDecimal previousValue = rateHistory.publish(Rate.COMMISSION_FOR_CREDIT_ACCOUNT, newCommission);
+    operationLog.rateChanged(this, Rate.COMMISSION_FOR_CREDIT_ACCOUNT, newCommission);
+    var newNotification = new ChangeCommissionForCreditAccountNotification(newCommission + " - new commission for credit accounts", previousValue, newCommission);
+    return announce(changeCommissionForCreditAccountAggregator, newNotification);
   }
 
   /**
    Changes the credit limit for credit accounts and notifies all registered observers/aggregators.
    @param newCreditLimit the new credit limit to set
+   @return the future completed with the clients that failed to take the notification
    @throws BankException if the new credit limit is negative
    @throws NotificationException if there is an error while notifying the observers/aggregators
    @throws AggregatorException if there is an error while aggregating the notifications
    @throws MediatorException if there is an error while mediating between the bank and the clients
    @throws ClientException if there is an error with the clients
    */
-  public void changeCreditLimit(BigDecimal newCreditLimit)
+  public CompletableFuture<List<Observer<Notification>>> changeCreditLimit(BigDecimal newCreditLimit)
       throws BankException, NotificationException, AggregatorException, MediatorException, ClientException {
     if (newCreditLimit.compareTo(BigDecimal.ZERO) < 0)
       throw BankException.invalidCreditLimit(newCreditLimit);
 
-    creditLimit = newCreditLimit;
-    var newNotification = new ChangeCreditLimitNotification(newCreditLimit + " - new creditlimit for credit accounts");
-    changeCreditLimitAggregator.notify(newNotification);
+    BigDecimal previousValue = rateHistory.publish(Rate.CREDIT_LIMIT, newCreditLimit);
+    operationLog.rateChanged(this, Rate.CREDIT_LIMIT, newCreditLimit);
+    var newNotification = new ChangeCreditLimitNotification(newCreditLimit + " - new creditlimit for credit accounts", previousValue, newCreditLimit);
+    return announce(changeCreditLimitAggregator, newNotification);
   }
 
   /**
    Changes the restriction for not verified customers to a new value and notifies all subscribed aggregators, mediators,
    and clients about the change using the {@link ChangeRestrictionForNotVerifiedCustomersNotification} notification.
+   The restriction applies to the money taken within the current velocity window, which is one day unless it was
+   changed, so by default it caps what a not verified customer takes per day, not the size of one operation.
    @param newRestriction the new restriction for not verified customers
+   @return the future completed with the clients that failed to take the notification
    @throws BankException if the new restriction is invalid (negative)
    @throws NotificationException if there is an issue with sending notifications to subscribed entities
    @throws AggregatorException if there is an issue with aggregating notifications from subscribed entities
    @throws MediatorException if there is an issue with mediating between different entities
    @throws ClientException if there is an issue with handling client requests or data
    */
-  public void changeRestrictionForNotVerifiedCustomersAggregator(BigDecimal newRestriction)
+  public CompletableFuture<List<Observer<Notification>>> changeRestrictionForNotVerifiedCustomersAggregator(BigDecimal newRestriction)
+      throws BankException, NotificationException, AggregatorException, MediatorException, ClientException {
+    return changeRestrictionForNotVerifiedCustomersAggregator(newRestriction, velocityLimits.windowDays());
+  }
+
+  /**
+   Changes the restriction for not verified customers and the window it applies to, and notifies all subscribed
+   aggregators, mediators, and clients about the change using the {@link ChangeRestrictionForNotVerifiedCustomersNotification} notification.
+   Not verified customers can take at most the restriction within any window of the given number of days.
+   @param newRestriction the new restriction for not verified customers
+   @param windowDays the new length of the velocity window in days
+   @return the future completed with the clients that failed to take the notification
+   @throws BankException if the new restriction is negative or the window is out of range
+   @throws NotificationException if there is an issue with sending notifications to subscribed entities
+   @throws AggregatorException if there is an issue with aggregating notifications from subscribed entities
+   @throws MediatorException if there is an issue with mediating between different entities
+   @throws ClientException if there is an issue with handling client requests or data
+   */
+  public CompletableFuture<List<Observer<Notification>>> changeRestrictionForNotVerifiedCustomersAggregator(BigDecimal newRestriction, int windowDays)
       throws BankException, NotificationException, AggregatorException, MediatorException, ClientException {
     if (newRestriction.compareTo(BigDecimal.ZERO) < 0)
       throw BankException.invalidRestrictionForNotVerifiedCustomers(newRestriction);
-
-    restrictionForNotVerifiedCustomers = newRestriction;
-    var newNotification = new ChangeRestrictionForNotVerifiedCustomersNotification(newRestriction + " - new restriction for not verified clients");
-    changeRestrictionForNotVerifiedCustomersAggregator.notify(newNotification);
+    if (windowDays < 1 || windowDays > VelocityLimits.MAX_WINDOW_DAYS)
+      throw BankException.invalidVelocityWindow(windowDays);
+
+    if (windowDays != velocityLimits.windowDays()) {
+      velocityLimits.setWindowDays(windowDays);
+      operationLog.velocityWindowChanged(this, windowDays);
+    }
+    BigDecimal previousValue = rateHistory.publish(Rate.RESTRICTION_FOR_NOT_VERIFIED_CUSTOMERS, newRestriction);
+    operationLog.rateChanged(this, Rate.RESTRICTION_FOR_NOT_VERIFIED_CUSTOMERS, newRestriction);
+    var newNotification = new ChangeRestrictionForNotVerifiedCustomersNotification(newRestriction + " - new restriction for not verified clients", previousValue, newRestriction);
+    return announce(changeRestrictionForNotVerifiedCustomersAggregator, newNotification);
   }
 
   /**
    Changes the percent for deposit accounts with balance less than 50,000.
    @param newPercent the new percent for deposit accounts with balance less than 50,000.
+   @return the future completed with the clients that failed to take the notification
    @throws BankException if the new percent is negative.
    @throws NotificationException if there was an issue sending a notification.
    @throws AggregatorException if there was an issue with the notification aggregator.
    @throws MediatorException if there was an issue with the notification mediator.
    @throws ClientException if there was an issue with the notification client.
    */
-  public void changePercentLessFiftyThousand(BigDecimal newPercent)
+  public CompletableFuture<List<Observer<Notification>>> changePercentLessFiftyThousand(BigDecimal newPercent)
       throws BankException, NotificationException, AggregatorException, MediatorException, ClientException {
     if (newPercent.compareTo(BigDecimal.ZERO) < 0)
       throw BankException.invalidPercentLessFiftyThousand(newPercent);
 
-    percentLessFiftyThousand = newPercent;
-    var newNotification = new ChangePercentForDepositAccountNotification("PercentLessFiftyThousand" + newPercent + " !");
-    changePercentForDepositAccountAggregator.notify(newNotification);
+    BigDecimal previousValue = rateHistory.publish(Rate.PERCENT_LESS_FIFTY_THOUSAND, newPercent);
+    operationLog.rateChanged(this, Rate.PERCENT_LESS_FIFTY_THOUSAND, newPercent);
+    var newNotification = new ChangePercentForDepositAccountNotification("PercentLessFiftyThousand " + newPercent + " !", Rate.PERCENT_LESS_FIFTY_THOUSAND, previousValue, newPercent);
+    return announce(changePercentForDepositAccountAggregator, newNotification);
   }
 
   /**
    Changes the percent rate for deposit accounts with balances less than 100,000.
    @param newPercent the new percent rate for deposit accounts less than 100,000
+   @return the future completed with the clients that failed to take the notification
    @throws BankException if the new percent rate is negative
    @throws NotificationException if there is an error sending the notification
    @throws AggregatorException if there is an error notifying the aggregator
    @throws MediatorException if there is an error communicating with the mediator
    @throws ClientException if there is an error retrieving client information
    */
-  public void changePercentLessOneHundredThousand(BigDecimal newPercent)
+  public CompletableFuture<List<Observer<Notification>>> changePercentLessOneHundredThousand(BigDecimal newPercent)
       throws BankException, NotificationException, AggregatorException, MediatorException, ClientException {
     if (newPercent.compareTo(BigDecimal.ZERO) < 0)
       throw BankException.invalidPercentLessOneHundredThousand(newPercent);
 
-    percentLessOneHundredThousand = newPercent;
-    var newNotification = new ChangePercentForDepositAccountNotification("PercentLessOneHundredThousand" + newPercent + " !");
-    changePercentForDepositAccountAggregator.notify(newNotification);
+    BigDecimal previousValue = rateHistory.publish(Rate.PERCENT_LESS_ONE_HUNDRED_THOUSAND, newPercent);
+    operationLog.rateChanged(this, Rate.PERCENT_LESS_ONE_HUNDRED_THOUSAND, newPercent);
+    var newNotification = new ChangePercentForDepositAccountNotification("PercentLessOneHundredThousand " + newPercent + " !", Rate.PERCENT_LESS_ONE_HUNDRED_THOUSAND, previousValue, newPercent);
+    return announce(changePercentForDepositAccountAggregator, newNotification);
   }
 
   /**
@@ -470,48 +1204,123 @@ public class Bank implements Watcher {
    Throws BankException if the new percent is negative.
    Notifies the change to the changePercentForDepositAccountAggregator.
    @param newPercent the new interest percent to be set for deposit accounts with balance more than 100,000.
+   @return the future completed with the clients that failed to take the notification
    @throws BankException if the new percent is negative.
    @throws NotificationException if there is an error with the notification process.
    @throws AggregatorException if there is an error with the aggregator process.
    @throws MediatorException if there is an error with the mediator process.
    @throws ClientException if there is an error with the client process.
    */
-  public void changePercentMoreOneHundredThousand(BigDecimal newPercent)
+  public CompletableFuture<List<Observer<Notification>>> changePercentMoreOneHundredThousand(BigDecimal newPercent)
       throws BankException, NotificationException, AggregatorException, MediatorException, ClientException {
     if (newPercent.compareTo(BigDecimal.ZERO) < 0)
       throw BankException.invalidPercentMoreOneHundredThousand(newPercent);
 
-    percentMoreOneHundredThousand = newPercent;
-    var newNotification = new ChangePercentForDepositAccountNotification("PercentMoreOneHundredThousand" + newPercent + " !");
-    changePercentForDepositAccountAggregator.notify(newNotification);
+    BigDecimal previousValue = rateHistory.publish(Rate.PERCENT_MORE_ONE_HUNDRED_THOUSAND, newPercent);
+    operationLog.rateChanged(this, Rate.PERCENT_MORE_ONE_HUNDRED_THOUSAND, newPercent);
+    var newNotification = new ChangePercentForDepositAccountNotification("PercentMoreOneHundredThousand " + newPercent + " !", Rate.PERCENT_MORE_ONE_HUNDRED_THOUSAND, previousValue, newPercent);
+    return announce(changePercentForDepositAccountAggregator, newNotification);
+  }
+
+  /**
+   Notifies the subscribers of the given aggregator, in the background if the bank has a dispatcher.
+   @param aggregator the aggregator of the subscribers to notify
+   @param notification the notification to deliver
+   @return the future completed with the clients that failed to take the notification
+   @throws AggregatorException if there is an error with the aggregator
+   @throws MediatorException if there is an error with the mediator of a client notified in the calling thread
+   @throws ClientException if there is an error with a client notified in the calling thread
+   */
+  private CompletableFuture<List<Observer<Notification>>> announce(
+      Observable<Notification> aggregator, Notification notification)
+      throws AggregatorException, MediatorException, ClientException {
+    metrics.increment(MetricCounter.NOTIFICATIONS);
+    long start = metrics.startTimer();
+    NotificationDispatcher dispatcher = notificationDispatcher;
+    if (dispatcher != null) {
+      return aggregator.notifyAsync(notification, dispatcher)
+          .whenComplete((failedObservers, e) -> metrics.stopTimer(MetricTimer.NOTIFICATION, start));
+    }
+
+    aggregator.notify(notification);
+    metrics.stopTimer(MetricTimer.NOTIFICATION, start);
+    return CompletableFuture.completedFuture(List.of());
   }
 
   /**
-   Removes the given transaction from the list of transactions.
-   @param transaction the transaction to remove
+   Marks the given transaction as rolled back in the journal of the bank.
+   The transaction stays in the journal, so the full history is kept for audit.
+   @param transaction the transaction to mark
    @throws TransactionException if the given transaction is null
    */
-  public void deleteTransaction(Transaction transaction) throws TransactionException {
+  public void markTransactionRolledBack(Transaction transaction) throws TransactionException {
     if (transaction == null)
       throw TransactionException.invalidTransaction();
 
-    transactions.remove(transaction);
+    transactions.markRolledBack(transaction);
   }
 
   /**
-   Updates the date of the bank system and calls the dayChange method of all bank accounts.
-   If the given calendar's day is the last day of the month, isLastDayOfMonth is set to true.
-   @param time the calendar representing the new date to set
+   Updates the date of the bank system and performs the day change of all bank accounts.
+   If the given day is the last day of the month, isLastDayOfMonth is set to true.
+   @param day the epoch day being passed
    */
-  public void updateDate(Calendar time)
+  public void updateDate(int day)
   {
-    int lastDayOfMonth = time.getActualMaximum(Calendar.DAY_OF_MONTH);
+    boolean isLastDayOfMonth = EpochDays.isLastDayOfMonth(day);
 
-    boolean isLastDayOfMonth;
+    long start = metrics.startTimer();
+    daysChange(1, isLastDayOfMonth);
+    metrics.stopTimer(MetricTimer.DATE_UPDATE, start);
 
-    isLastDayOfMonth = lastDayOfMonth == time.get(Calendar.DAY_OF_MONTH);
+  }
 
-    bankAccounts.forEach(bankAccount ->bankAccount.dayChange(isLastDayOfMonth));
+  /**
+   Updates the date of the bank system for several consecutive days at once and performs the day changes of all bank accounts.
+   If the last day of the period is the last day of the month, isLastDayOfMonth is set to true.
+   @param lastDay the epoch day of the last day of the period
+   @param days the number of days in the period
+   */
+  public void updateDates(int lastDay, int days)
+  {
+    boolean isLastDayOfMonth = EpochDays.isLastDayOfMonth(lastDay);
+
+    long start = metrics.startTimer();
+    daysChange(days, isLastDayOfMonth);
+    metrics.stopTimer(MetricTimer.DATE_UPDATE, start);
+  }
 
+  /**
+   Performs the day changes of a period for all bank accounts. Only the columns of every type of bank accounts count
+   the period, the bank accounts settle it when they are used, so a day inside a month doesn't depend on their number.
+   At the end of a month every bank account is settled, so the capitalised interest and commissions reach
+   the balances and the totals of the bank even for the bank accounts that aren't used.
+   @param days the number of days in the period
+   @param isLastDayOfMonth true if the last day of the period is the last day of the month
+   */
+  private void daysChange(int days, boolean isLastDayOfMonth)
+  {
+    debitColumns.daysChange(days, isLastDayOfMonth);
+    creditColumns.daysChange(days, isLastDayOfMonth);
+    depositColumns.daysChange(days, isLastDayOfMonth);
+    if (isLastDayOfMonth)
+      settleAccounts();
+  }
+
+  /**
+   Settles every bank account of the bank up to the processed days. The bank accounts are only appended,
+   so the ones opened during the walk are either settled or opened already settled.
+   */
+  private void settleAccounts()
+  {
+    for (int i = 0; i < bankAccounts.size(); i++) {
+      BankAccount bankAccount = bankAccounts.get(i);
+      if (bankAccount instanceof DebitAccount)
+        ((DebitAccount) bankAccount).settle();
+      else if (bankAccount instanceof CreditAccount)
+        ((CreditAccount) bankAccount).settle();
+      else if (bankAccount instanceof DepositAccount)
+        ((DepositAccount) bankAccount).settle();
+    }
   }
 }
@@ -4,6 +4,7 @@ import is.technologies.entities.*;
 import is.technologies.exceptions.*;
 import is.technologies.notifications.Notification;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import lombok.Getter;
@@ -19,7 +20,7 @@ public class Client implements Observer<Notification> {
   /**An ArrayList of IBankAccount objects that belong to this Client.*/
   private final List<BankAccount> bankAccounts;
 
-  /**An ArrayList of INotification objects that are considered spam and not useful to the Client.*/
+  /**An ArrayList of INotification objects that are considered spam and not useful to the Client, filled by the notification threads.*/
   private final List<Notification> spamNotifications;
 
   /**An ArrayList of INotification objects that are considered useful and relevant to the Client.*/
@@ -57,8 +58,8 @@ public class Client implements Observer<Notification> {
     passport = builder.passport;
     isVerified = builder.isVerified;
     bankAccounts = new ArrayList<>();
-    spamNotifications = new ArrayList<>();
-    usefulNotifications = new ArrayList<>();
+    spamNotifications = Collections.synchronizedList(new ArrayList<>());
+    usefulNotifications = Collections.synchronizedList(new ArrayList<>());
   }
 
   /**
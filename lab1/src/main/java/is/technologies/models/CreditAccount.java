@@ -3,26 +3,41 @@ package is.technologies.models;
 import is.technologies.entities.BankAccount;
 import is.technologies.entities.*;
 import is.technologies.exceptions.*;
-import java.math.BigDecimal;
+import java.nio.LongBuffer;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 /**
  Represents a credit account of a client in a bank, implementing the IBankAccount interface.
+ The money of the account is kept in the credit columns of its bank, so the account is a view of its slot there.
+ The commission of the slot is settled whenever the account is read or changed, and the slot is guarded by
+ the monitor of the account.
  */
 @Getter
 public class CreditAccount implements BankAccount {
 
-  /**The commission rate for transactions performed on this bank account.*/
-  private final BigDecimal commission;
+  /**The rate table of the bank this account was opened with.*/
+  private final RateTable rates;
 
-  /**The current balance of this bank account.*/
-  private BigDecimal balance;
+  /**The credit columns of the bank.*/
+  @Getter(AccessLevel.NONE)
+  private final CreditColumns columns;
 
-  /**The current debt of this bank account, if any.*/
-  private BigDecimal debt;
+  /**The buffers of the chunk of the account in the credit columns of the bank.*/
+  @Getter(AccessLevel.NONE)
+  private final LongBuffer[] chunk;
 
-  /**The credit limit for this bank account, if any.*/
-  private final BigDecimal creditLimit;
+  /**The balances of the chunk of the account in the credit columns of the bank, in minor units.*/
+  @Getter(AccessLevel.NONE)
+  private final LongBuffer balances;
+
+  /**The debts of the chunk of the account in the credit columns of the bank, in minor units.*/
+  @Getter(AccessLevel.NONE)
+  private final LongBuffer debts;
+
+  /**The position of the account in the arrays of its chunk.*/
+  @Getter(AccessLevel.NONE)
+  private final int slot;
 
   /**The unique identifier of this bank account.*/
   private final BankAccountId bankAccountId;
@@ -37,54 +52,94 @@ public class CreditAccount implements BankAccount {
    Constructs a new CreditAccount object with the specified parameters.
    @param accountId The unique identifier of the account
    @param owner The client who owns the account
-   @param creditLimit The maximum amount of credit available to the account holder
-   @param commission The commission charged by the bank for transactions made with this account
+   @param rates The rate table of the bank the credit limit and the commission of the account are taken from
    @param bank The bank that manages the account
-   @throws BankAccountException if the credit limit is negative, the owner is null,
-   the account ID is null, the commission is negative or the bank is null
+   @throws BankAccountException if the owner is null, the account ID is null, the bank is null,
+   or the rate table isn't a version of the rate table of the bank
    */
-  public CreditAccount(BankAccountId accountId, Client owner, BigDecimal creditLimit, BigDecimal commission, Bank bank)
+  public CreditAccount(BankAccountId accountId, Client owner, RateTable rates, Bank bank)
       throws BankAccountException {
-    if (creditLimit.compareTo(BigDecimal.ZERO) < 0)
-      throw BankAccountException.invalidCreditLimit(creditLimit);
     if (owner == null)
       throw BankAccountException.invalidClient();
     if (accountId == null)
       throw BankAccountException.invalidBankAccountId();
-    if (commission.compareTo(BigDecimal.ZERO) < 0)
-      throw BankAccountException.invalidCommissionForCreditAccount(commission);
     if (bank == null)
       throw BankAccountException.invalidBank();
+    if (!bank.getCreditColumns().rates().contains(rates))
+      throw BankAccountException.invalidRates();
+
+    columns = bank.getCreditColumns();
+    int index = columns.allocate();
+    chunk = columns.chunkOf(index);
+    balances = chunk[CreditColumns.BALANCE];
+    debts = chunk[CreditColumns.DEBT];
+    slot = index & AccountColumns.CHUNK_MASK;
+    columns.open(chunk, slot, rates);
 
-    balance = creditLimit;
     bankAccountId = accountId;
     this.owner = owner;
-    this.commission = commission;
-    this.creditLimit = creditLimit;
+    this.rates = rates;
     this.bank = bank;
   }
 
+  /**
+   Returns the current balance of this account.
+   @return the current balance of this account.
+   */
+  public synchronized Money getBalance() {
+    settle();
+    return Money.ofUnits(balances.get(slot));
+  }
+
+  /**
+   Returns the current debt of this account.
+   @return the current debt of this account.
+   */
+  public synchronized Money getDebt() {
+    settle();
+    return Money.ofUnits(debts.get(slot));
+  }
+
   /**
    Returns the credit limit for this account.
    @return the credit limit for this account.
    */
-  public BigDecimal getLimit() {
-    return creditLimit;
+  public Money getLimit() {
+    return getCreditLimit();
+  }
+
+  /**
+   Returns the credit limit of the rate table of this account.
+   @return the credit limit for this account
+   */
+  public Money getCreditLimit() {
+    return Money.ofUnits(rates.getUnits(Rate.CREDIT_LIMIT));
+  }
+
+  /**
+   Returns the commission of the rate table of this account.
+   @return the daily commission for this account
+   */
+  public Money getCommission() {
+    return Money.ofUnits(rates.getUnits(Rate.COMMISSION_FOR_CREDIT_ACCOUNT));
+  }
+
+  /**
+   Restores the balance and the debt of the account, used when the bank is restored from a log.
+   @param balance the balance of the account
+   @param debt the debt of the account
+   */
+  synchronized void restore(Money balance, Money debt) {
+    columns.setBalance(chunk, slot, balance.getUnits());
+    debts.put(slot, debt.getUnits());
+    chunk[CreditColumns.SETTLED].put(slot, columns.processedDays());
   }
 
   /**
-   Changes the account balance and debt based on whether it is the last day of the month or not.
-   @param islastDayOfMonth true if it is the last day of the month, false otherwise
+   Settles the commission of the account up to the days processed by the credit columns.
    */
-  public void dayChange(boolean islastDayOfMonth) {
-    if (balance.compareTo(creditLimit) < 0) {
-      debt = debt.add(commission);
-    }
-
-    if (islastDayOfMonth) {
-      balance = balance.subtract(debt);
-      debt = BigDecimal.ZERO;
-    }
+  synchronized void settle() {
+    columns.settle(chunk, slot);
   }
 
   /**
@@ -93,11 +148,12 @@ public class CreditAccount implements BankAccount {
    @return true if the withdrawal is allowed, false otherwise
    @throws BankAccountException if the specified amount is negative
    */
-  public boolean isWithdrawAllowed(BigDecimal amount) throws BankAccountException {
-    if (amount.compareTo(BigDecimal.ZERO) < 0)
+  public synchronized boolean isWithdrawAllowed(Money amount) throws BankAccountException {
+    if (amount.isNegative())
       throw BankAccountException.invalidAmountOfMoney(amount);
 
-    return (balance.subtract(amount)).compareTo(BigDecimal.ZERO) >= 0;
+    settle();
+    return balances.get(slot) - amount.getUnits() >= 0;
   }
 
   /**
@@ -105,10 +161,11 @@ public class CreditAccount implements BankAccount {
    @param amount the amount of money to be added
    @throws BankAccountException if the specified amount is negative
    */
-  public void topUp(BigDecimal amount) throws BankAccountException {
-    if (amount.compareTo(BigDecimal.ZERO) < 0)
+  public synchronized void topUp(Money amount) throws BankAccountException {
+    if (amount.isNegative())
       throw BankAccountException.invalidAmountOfMoney(amount);
-    balance = balance.add(amount);
+    settle();
+    columns.setBalance(chunk, slot, Math.addExact(balances.get(slot), amount.getUnits()));
   }
 
   /**
@@ -116,9 +173,10 @@ public class CreditAccount implements BankAccount {
    @param amount the amount of money to be withdrawn
    @throws BankAccountException if the specified amount is negative or if the account balance is insufficient
    */
-  public void withdraw(BigDecimal amount) throws BankAccountException {
-    if (amount.compareTo(BigDecimal.ZERO) < 0)
+  public synchronized void withdraw(Money amount) throws BankAccountException {
+    if (amount.isNegative())
       throw BankAccountException.invalidAmountOfMoney(amount);
-    balance = balance.subtract(amount);
+    settle();
+    columns.setBalance(chunk, slot, Math.subtractExact(balances.get(slot), amount.getUnits()));
   }
 }
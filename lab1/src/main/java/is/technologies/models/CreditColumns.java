@@ -0,0 +1,94 @@
+package is.technologies.models;
+
+import is.technologies.entities.Money;
+import is.technologies.entities.Rate;
+import is.technologies.entities.RateTable;
+import java.math.BigDecimal;
+import java.nio.LongBuffer;
+
+/**
+ The CreditColumns class stores the balances, the debts, the rate versions and the settled days of the credit
+ accounts of a bank. Besides the total balance it keeps the credit exposure, the sum of how far the balances
+ are below the credit limits of their slots.
+ */
+final class CreditColumns extends AccountColumns {
+
+  /**The column of the debts in minor units.*/
+  static final int DEBT = 1;
+
+  /**The column of the versions of the rate table the slots were opened with.*/
+  static final int RATE_VERSION = 2;
+
+  /**The column of the numbers of processed days the slots were settled at.*/
+  static final int SETTLED = 3;
+
+  /**The credit used by the slots in minor units, which may not fit into a long.*/
+  private final WideAdder exposure;
+
+  /**
+   Creates a new store without credit accounts.
+   @param rates the versions of the rate table of the bank
+   @param storage the memory to store the credit accounts in
+   */
+  CreditColumns(RateHistory rates, AccountStorage storage) {
+    super(4, SETTLED, rates, storage);
+    exposure = new WideAdder();
+  }
+
+  /**
+   Opens a slot with the balance at the credit limit of its rates, so opening it doesn't use credit.
+   @param chunk the chunk of the slot
+   @param slot the slot in the chunk
+   @param rates the rates the slot is opened with
+   */
+  void open(LongBuffer[] chunk, int slot, RateTable rates) {
+    long creditLimit = rates.getUnits(Rate.CREDIT_LIMIT);
+    chunk[RATE_VERSION].put(slot, rates.getVersion());
+    exposure.add(creditLimit);
+    setBalance(chunk, slot, creditLimit);
+  }
+
+  /**
+   Charges the commission for the days if the account is in credit, the balance doesn't change between month ends.
+   */
+  @Override
+  void accrue(LongBuffer[] chunk, int slot, long days) {
+    RateTable table = rates().get(chunk[RATE_VERSION].get(slot));
+    if (chunk[BALANCE].get(slot) < table.getUnits(Rate.CREDIT_LIMIT)) {
+      long commission = table.getUnits(Rate.COMMISSION_FOR_CREDIT_ACCOUNT);
+      chunk[DEBT].put(slot, Math.addExact(chunk[DEBT].get(slot), Math.multiplyExact(commission, days)));
+    }
+  }
+
+  @Override
+  void capitalize(LongBuffer[] chunk, int slot, long monthEnd) {
+    setBalance(chunk, slot, Math.subtractExact(chunk[BALANCE].get(slot), chunk[DEBT].get(slot)));
+    chunk[DEBT].put(slot, 0);
+  }
+
+  /**
+   Gets the credit used by the slots.
+   @return the sum of how far the balances are below their credit limits
+   */
+  BigDecimal exposure() {
+    return new BigDecimal(exposure.sum(), Money.SCALE);
+  }
+
+  @Override
+  void balanceChanged(LongBuffer[] chunk, int slot, long oldBalance, long balance) {
+    super.balanceChanged(chunk, slot, oldBalance, balance);
+    long creditLimit = rates().get(chunk[RATE_VERSION].get(slot)).getUnits(Rate.CREDIT_LIMIT);
+    exposure.add(creditUsed(creditLimit, balance));
+    exposure.subtract(creditUsed(creditLimit, oldBalance));
+  }
+
+  /**
+   Calculates how far a balance is below its credit limit.
+   @param creditLimit the credit limit in minor units
+   @param balance the balance in minor units
+   @return the credit used in minor units, zero if the balance isn't below the limit
+   */
+  private static long creditUsed(long creditLimit, long balance) {
+    return balance >= creditLimit ? 0 : Math.subtractExact(creditLimit, balance);
+  }
+}
@@ -3,26 +3,43 @@ package is.technologies.models;
 import is.technologies.entities.BankAccount;
 import is.technologies.entities.*;
 import is.technologies.exceptions.*;
+import java.nio.LongBuffer;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 
 /**
  A class representing a debit bank account.
- Implements the IBankAccount interface.
+ Implements the IBankAccount interface. The money of the account is kept in the debit columns of its bank,
+ so the account is a view of its slot there. The interest of the slot is settled whenever the account is read
+ or changed, and the slot is guarded by the monitor of the account.
  */
 @Getter
 public class DebitAccount implements BankAccount {
 
-  /**The interest rate percent for this account.*/
-  private final BigDecimal percent;
+  /**The rate table of the bank this account was opened with.*/
+  private final RateTable rates;
 
-  /**The total amount of interest accruals for this account.*/
-  private BigDecimal accruals;
+  /**The debit columns of the bank.*/
+  @Getter(AccessLevel.NONE)
+  private final DebitColumns columns;
 
-  /**The current balance of this account.*/
-  private BigDecimal balance;
+  /**The buffers of the chunk of the account in the debit columns of the bank.*/
+  @Getter(AccessLevel.NONE)
+  private final LongBuffer[] chunk;
+
+  /**The balances of the chunk of the account in the debit columns of the bank, in minor units.*/
+  @Getter(AccessLevel.NONE)
+  private final LongBuffer balances;
+
+  /**The interest accruals of the chunk of the account in the debit columns of the bank, in minor units of an accrual.*/
+  @Getter(AccessLevel.NONE)
+  private final LongBuffer accruals;
+
+  /**The position of the account in the arrays of its chunk.*/
+  @Getter(AccessLevel.NONE)
+  private final int slot;
 
   /**The bank associated with this account.*/
   private final Bank bank;
@@ -34,53 +51,90 @@ public class DebitAccount implements BankAccount {
   private final Client owner;
 
   /**
-   Creates a new DebitAccount with the specified ID, owner, interest rate, and bank.
+   Creates a new DebitAccount with the specified ID, owner, rate table, and bank.
    @param accountId the ID of this bank account
    @param owner the owner of this bank account
-   @param percent the interest rate for this account
+   @param rates the rate table of the bank the interest rate for this account is taken from
    @param bank the bank associated with this account
-   @throws BankAccountException if the percent is negative, the owner is null, the account ID is null, or the bank is null
+   @throws BankAccountException if the owner is null, the account ID is null, the bank is null,
+   or the rate table isn't a version of the rate table of the bank
    */
-  public DebitAccount(BankAccountId accountId, Client owner, BigDecimal percent, Bank bank)
+  public DebitAccount(BankAccountId accountId, Client owner, RateTable rates, Bank bank)
       throws BankAccountException {
-    if (percent.compareTo(BigDecimal.ZERO) < 0)
-      throw BankAccountException.invalidPercentForDebitAccounts(percent);
     if (owner == null)
       throw BankAccountException.invalidClient();
     if (accountId == null)
       throw BankAccountException.invalidBankAccountId();
     if (bank == null)
       throw BankAccountException.invalidBank();
+    if (!bank.getDebitColumns().rates().contains(rates))
+      throw BankAccountException.invalidRates();
+
+    columns = bank.getDebitColumns();
+    int index = columns.allocate();
+    chunk = columns.chunkOf(index);
+    balances = chunk[DebitColumns.BALANCE];
+    accruals = chunk[DebitColumns.ACCRUALS];
+    slot = index & AccountColumns.CHUNK_MASK;
+    chunk[DebitColumns.RATE_VERSION].put(slot, rates.getVersion());
 
-    balance = BigDecimal.ZERO;
-    accruals = BigDecimal.ZERO;
     bankAccountId = accountId;
     this.owner = owner;
-    this.percent = percent;
+    this.rates = rates;
     this.bank = bank;
   }
 
+  /**
+   Returns the interest rate of this account.
+   @return the percent for debit accounts of the rate table of this account
+   */
+  public BigDecimal getPercent() {
+    return rates.get(Rate.PERCENT_FOR_DEBIT_ACCOUNTS);
+  }
+
+  /**
+   Returns the balance of this account.
+   @return the balance of this account
+   */
+  public synchronized Money getBalance() {
+    settle();
+    return Money.ofUnits(balances.get(slot));
+  }
+
+  /**
+   Returns the total amount of interest accruals for this account.
+   @return the interest accruals of this account
+   */
+  public synchronized Money getAccruals() {
+    settle();
+    return Money.ofUnits(Money.unitsOfAccrual(accruals.get(slot)));
+  }
+
   /**
    Returns the balance of this account.
    @return the balance of this account
    */
-  public BigDecimal getLimit() {
-    return balance;
+  public synchronized Money getLimit() {
+    settle();
+    return Money.ofUnits(balances.get(slot));
+  }
+
+  /**
+   Restores the balance and the accruals of the account, used when the bank is restored from a log.
+   @param balance the balance of the account
+   @param accruals the interest accruals of the account
+   */
+  synchronized void restore(Money balance, Money accruals) {
+    columns.setBalance(chunk, slot, balance.getUnits());
+    this.accruals.put(slot, Money.accrualOfUnits(accruals.getUnits()));
+    chunk[DebitColumns.SETTLED].put(slot, columns.processedDays());
   }
 
   /**
-   Performs daily changes on the account.
-   @param isLastDayOfMonth a boolean indicating whether or not it is the last day of the month
+   Settles the interest of the account up to the days processed by the debit columns.
    */
-  public void dayChange(boolean isLastDayOfMonth) {
-    BigDecimal dayPercent = percent.divide(new BigDecimal(365), 10, RoundingMode.HALF_UP);
-    accruals = accruals.add(
-        balance.multiply(dayPercent).divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP));
-
-    if (isLastDayOfMonth) {
-      balance = balance.add(accruals);
-      accruals = new BigDecimal(0);
-    }
+  synchronized void settle() {
+    columns.settle(chunk, slot);
   }
 
   /**
@@ -89,10 +143,11 @@ public class DebitAccount implements BankAccount {
    @return true if the withdrawal is allowed, false otherwise
    @throws BankAccountException if the requested amount is negative
    */
-  public boolean isWithdrawAllowed(BigDecimal amount) throws BankAccountException {
-    if (amount.compareTo(BigDecimal.ZERO) < 0)
+  public synchronized boolean isWithdrawAllowed(Money amount) throws BankAccountException {
+    if (amount.isNegative())
       throw BankAccountException.invalidAmountOfMoney(amount);
-    return (balance.subtract(amount)).compareTo(BigDecimal.ZERO) >= 0;
+    settle();
+    return balances.get(slot) - amount.getUnits() >= 0;
   }
 
   /**
@@ -100,10 +155,11 @@ public class DebitAccount implements BankAccount {
    @param amount the amount to be added
    @throws BankAccountException if the specified amount is negative
    */
-  public void topUp(BigDecimal amount) throws BankAccountException {
-    if (amount.compareTo(BigDecimal.ZERO) < 0)
+  public synchronized void topUp(Money amount) throws BankAccountException {
+    if (amount.isNegative())
       throw BankAccountException.invalidAmountOfMoney(amount);
-    balance = balance.add(amount);
+    settle();
+    columns.setBalance(chunk, slot, Math.addExact(balances.get(slot), amount.getUnits()));
   }
 
   /**
@@ -111,9 +167,10 @@ public class DebitAccount implements BankAccount {
    @param amount the amount to be subtracted
    @throws BankAccountException if the specified amount is negative or exceeds the account balance
    */
-  public void withdraw(BigDecimal amount) throws BankAccountException {
-    if (amount.compareTo(BigDecimal.ZERO) < 0)
+  public synchronized void withdraw(Money amount) throws BankAccountException {
+    if (amount.isNegative())
       throw BankAccountException.invalidAmountOfMoney(amount);
-    balance = balance.subtract(amount);
+    settle();
+    columns.setBalance(chunk, slot, Math.subtractExact(balances.get(slot), amount.getUnits()));
   }
 }
@@ -0,0 +1,43 @@
+package is.technologies.models;
+
+import is.technologies.entities.Money;
+import is.technologies.entities.Rate;
+import java.nio.LongBuffer;
+
+/**
+ The DebitColumns class stores the balances, the accruals, the rate versions and the settled days of the debit
+ accounts of a bank.
+ */
+final class DebitColumns extends AccountColumns {
+
+  /**The column of the interest accruals in minor units of an accrual.*/
+  static final int ACCRUALS = 1;
+
+  /**The column of the versions of the rate table the slots were opened with.*/
+  static final int RATE_VERSION = 2;
+
+  /**The column of the numbers of processed days the slots were settled at.*/
+  static final int SETTLED = 3;
+
+  /**
+   Creates a new store without debit accounts.
+   @param rates the versions of the rate table of the bank
+   @param storage the memory to store the debit accounts in
+   */
+  DebitColumns(RateHistory rates, AccountStorage storage) {
+    super(4, SETTLED, rates, storage);
+  }
+
+  @Override
+  void accrue(LongBuffer[] chunk, int slot, long days) {
+    long dayAccruals = Money.accrualOf(chunk[BALANCE].get(slot), 
+        rates().get(chunk[RATE_VERSION].get(slot)).getDayPercent(Rate.PERCENT_FOR_DEBIT_ACCOUNTS));
+    chunk[ACCRUALS].put(slot, Math.addExact(chunk[ACCRUALS].get(slot), Math.multiplyExact(dayAccruals, days)));
+  }
+
+  @Override
+  void capitalize(LongBuffer[] chunk, int slot, long monthEnd) {
+    setBalance(chunk, slot, Math.addExact(chunk[BALANCE].get(slot), Money.unitsOfAccrual(chunk[ACCRUALS].get(slot))));
+    chunk[ACCRUALS].put(slot, 0);
+  }
+}
@@ -3,32 +3,72 @@ package is.technologies.models;
 import is.technologies.entities.BankAccount;
 import is.technologies.entities.*;
 import is.technologies.exceptions.*;
+import java.nio.LongBuffer;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.Date;
 import java.util.Calendar;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 /**
  A class representing a deposit account in a bank.
+ The money of the account is kept in the deposit columns of its bank, so the account is a view of its slot there.
+ The dates of the account are kept as epoch days, and its current date is the date it was opened moved by the days
+ processed since then, so the account holds no calendars. The deadline passes once a day on or after it is processed.
+ The interest of the slot is settled whenever the account is read or changed, and the slot is guarded by
+ the monitor of the account.
  */
 @Getter
 public class DepositAccount implements BankAccount {
 
-  /**The date when the loan must be fully repaid.*/
-  private final Calendar dateOfDeadline;
+  /**The date when the loan must be fully repaid, as an epoch day.*/
+  @Getter(AccessLevel.NONE)
+  private final int dateOfDeadline;
 
-  /**The date when the loan was issued.*/
-  private final Calendar date;
+  /**The date when the loan was issued, as an epoch day.*/
+  @Getter(AccessLevel.NONE)
+  private int openingDate;
 
-  /**The interest rate of the loan in percent.*/
-  private final BigDecimal percent;
+  /**The number of days the deposit columns had processed when the date of the account was the opening date.*/
+  @Getter(AccessLevel.NONE)
+  private long openingDay;
 
-  /**The current amount of accrued interest on the loan.*/
-  private BigDecimal accruals;
+  /**The rate table of the bank this account was opened with.*/
+  private final RateTable rates;
 
-  /**The current balance of the loan.*/
-  private BigDecimal balance;
+  /**The rate of the rate table that is the interest rate of the account.*/
+  private final Rate rate;
+
+  /**The deposit columns of the bank.*/
+  @Getter(AccessLevel.NONE)
+  private final DepositColumns columns;
+
+  /**The buffers of the chunk of the account in the deposit columns of the bank.*/
+  @Getter(AccessLevel.NONE)
+  private final LongBuffer[] chunk;
+
+  /**The balances of the chunk of the account in the deposit columns of the bank, in minor units.*/
+  @Getter(AccessLevel.NONE)
+  private final LongBuffer balances;
+
+  /**The accrued interest of the chunk of the account in the deposit columns of the bank, in minor units of an accrual.*/
+  @Getter(AccessLevel.NONE)
+  private final LongBuffer accruals;
+
+  /**The deadline flags of the chunk of the account in the deposit columns of the bank.*/
+  @Getter(AccessLevel.NONE)
+  private final LongBuffer deadlineEnds;
+
+  /**The deadlines of the chunk of the account in the deposit columns of the bank, in processed days.*/
+  @Getter(AccessLevel.NONE)
+  private final LongBuffer deadlines;
+
+  /**The index of the slot of the account in the deposit columns of the bank.*/
+  @Getter(AccessLevel.NONE)
+  private final int index;
+
+  /**The position of the account in the arrays of its chunk.*/
+  @Getter(AccessLevel.NONE)
+  private final int slot;
 
   /**The bank that issued the loan.*/
   private final Bank bank;
@@ -39,72 +79,161 @@ public class DepositAccount implements BankAccount {
   /**The owner of the loan.*/
   private final Client owner;
 
-  /**A boolean indicating whether the loan deadline has passed.*/
-  private boolean isDeadlineEnd;
-
   /**
    Creates a new instance of the DepositAccount class with the specified parameters.
    @param accountId the unique identifier of the bank account
    @param owner the owner of the bank account
-   @param percent the annual percentage yield (APY) of the deposit account
-   @param date the date when the deposit account was created
+   @param rates the rate table of the bank the annual percentage yield (APY) of the deposit account is taken from
+   @param rate the rate of the rate table that is the annual percentage yield of the deposit account
+   @param date the date when the money can be taken from the deposit account
+   @param openingDate the current date of the bank when the deposit account is opened, as an epoch day
    @param balance the initial balance of the deposit account
    @param bank the bank where the deposit account is held
-   @throws BankAccountException if the percent is negative, owner is null, accountId is null,
-   balance is negative, or bank is null
+   @throws BankAccountException if owner is null, accountId is null, balance is negative, bank is null,
+   the rate table isn't a version of the rate table of the bank or the rate isn't a percent for deposit accounts
    */
-  public DepositAccount(BankAccountId accountId, Client owner, BigDecimal percent, Calendar date, BigDecimal balance, Bank bank)
-      throws BankAccountException {
-    if (percent.compareTo(BigDecimal.ZERO) < 0)
-      throw BankAccountException.invalidPercent(percent);
+  public DepositAccount(
+      BankAccountId accountId, Client owner, RateTable rates, Rate rate, Calendar date, int openingDate,
+      Money balance, Bank bank) throws BankAccountException {
     if (owner == null)
       throw BankAccountException.invalidClient();
     if (accountId == null)
       throw BankAccountException.invalidBankAccountId();
-    if (balance.compareTo(BigDecimal.ZERO) < 0)
+    if (balance.isNegative())
       throw BankAccountException.invalidBalance(balance);
     if (bank == null)
       throw BankAccountException.invalidBank();
+    if (date == null)
+      throw BankAccountException.invalidDate();
+    if (!bank.getDepositColumns().rates().contains(rates) || !isDepositRate(rate))
+      throw BankAccountException.invalidRates();
+
+    columns = bank.getDepositColumns();
+    index = columns.allocate();
+    chunk = columns.chunkOf(index);
+    balances = chunk[DepositColumns.BALANCE];
+    accruals = chunk[DepositColumns.ACCRUALS];
+    deadlineEnds = chunk[DepositColumns.DEADLINE_END];
+    deadlines = chunk[DepositColumns.DEADLINE];
+    slot = index & AccountColumns.CHUNK_MASK;
+    columns.setBalance(chunk, slot, balance.getUnits());
+    chunk[DepositColumns.RATE_VERSION].put(slot, rates.getVersion());
+    chunk[DepositColumns.RATE].put(slot, rate.ordinal());
 
-    this.balance = balance;
     this.bankAccountId = accountId;
     this.owner = owner;
-    this.dateOfDeadline = date;
-    this.percent = percent;
-    this.isDeadlineEnd = false;
-    this.accruals = BigDecimal.ZERO;
+    this.dateOfDeadline = EpochDays.of(date);
+    this.rates = rates;
+    this.rate = rate;
     this.bank = bank;
-    this.date = Calendar.getInstance();
-    this.date.setTime(new Date());
+    this.openingDate = openingDate;
+    this.openingDay = columns.processedDays();
+    updateDeadline();
+  }
+
+  /**
+   Returns the interest rate of this account.
+   @return the percent of the rate table of this account for its balance at opening
+   */
+  public BigDecimal getPercent() {
+    return rates.get(rate);
+  }
+
+  /**
+   Returns the balance of this account.
+   @return the balance of this account
+   */
+  public synchronized Money getBalance() {
+    settle();
+    return Money.ofUnits(balances.get(slot));
+  }
+
+  /**
+   Returns the current amount of accrued interest on the loan.
+   @return the accrued interest of this account
+   */
+  public synchronized Money getAccruals() {
+    settle();
+    return Money.ofUnits(Money.unitsOfAccrual(accruals.get(slot)));
   }
 
   /**
    Returns the balance of this account.
    @return the balance of this account
    */
-  public BigDecimal getLimit() {
-    return balance;
+  public synchronized Money getLimit() {
+    settle();
+    return Money.ofUnits(balances.get(slot));
+  }
+
+  /**
+   Returns the current date of the account.
+   @return a copy of the date of the account
+   */
+  public Calendar getDate() {
+    return EpochDays.toCalendar((int) (openingDate + columns.processedDays() - openingDay));
+  }
+
+  /**
+   Returns the date when the loan must be fully repaid.
+   @return a new calendar set to the deadline of the account
+   */
+  public Calendar getDateOfDeadline() {
+    return EpochDays.toCalendar(dateOfDeadline);
+  }
+
+  /**
+   Returns whether the deadline of the deposit has passed.
+   @return true if the money can be taken from the account
+   */
+  public boolean isDeadlineEnd() {
+    return deadlineEnds.get(slot) != 0;
+  }
+
+  /**
+   Restores the state of the account, used when the bank is restored from a log.
+   @param balance the balance of the account
+   @param accruals the accrued interest of the account
+   @param date the current date of the account
+   @param isDeadlineEnd true if the deadline of the account has passed
+   */
+  synchronized void restore(Money balance, Money accruals, Calendar date, boolean isDeadlineEnd) {
+    columns.setBalance(chunk, slot, balance.getUnits());
+    this.accruals.put(slot, Money.accrualOfUnits(accruals.getUnits()));
+    openingDate = EpochDays.of(date);
+    openingDay = columns.processedDays();
+    updateDeadline();
+    if (isDeadlineEnd)
+      deadlines.put(slot, Math.min(deadlines.get(slot), openingDay - 1));
+    deadlineEnds.put(slot, isDeadlineEnd ? 1 : 0);
+    chunk[DepositColumns.SETTLED].put(slot, openingDay);
+  }
+
+  /**
+   Settles the interest of the account up to the days processed by the deposit columns.
+   */
+  synchronized void settle() {
+    columns.settle(chunk, slot);
+  }
+
+  /**
+   Checks whether a rate is one of the percents for deposit accounts.
+   @param rate the rate to check
+   @return true if the rate is a percent for deposit accounts
+   */
+  private static boolean isDepositRate(Rate rate) {
+    return rate == Rate.PERCENT_LESS_FIFTY_THOUSAND || rate == Rate.PERCENT_LESS_ONE_HUNDRED_THOUSAND
+        || rate == Rate.PERCENT_MORE_ONE_HUNDRED_THOUSAND;
   }
 
   /**
-   This method represents a day change on a deposit account. It calculates the daily accrual of interest
-   and updates the balance accordingly.
-   @param isLastDayOfMonth a boolean indicating if the day being processed is the last day of the month.
+   Stores the deadline of the account in the deposit columns, in the processed days of the columns,
+   and schedules it there.
    */
-  public void dayChange(boolean isLastDayOfMonth) {
-    date.add(Calendar.DATE, 1);
-    if (dateOfDeadline == date) {
-      isDeadlineEnd = true;
-    }
-
-    BigDecimal dayPercent = percent.divide(new BigDecimal(365), 10,  RoundingMode.HALF_UP);
-    accruals = accruals.add(
-        balance.multiply(dayPercent).divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP));
-
-    if (isLastDayOfMonth && !isDeadlineEnd) {
-      balance = balance.add(accruals);
-      accruals = BigDecimal.ZERO;
-    }
+  private void updateDeadline() {
+    long deadline = dateOfDeadline - openingDate + openingDay;
+    deadlines.put(slot, deadline);
+    columns.scheduleDeadline(index, deadline);
   }
 
   /**
@@ -112,10 +241,11 @@ public class DepositAccount implements BankAccount {
    @param amount the amount of money to be withdrawn
    @return true if the withdrawal is allowed, false otherwise
    */
-  public boolean isWithdrawAllowed(BigDecimal amount) {
-    if (!isDeadlineEnd) return false;
+  public synchronized boolean isWithdrawAllowed(Money amount) {
+    if (!isDeadlineEnd()) return false;
 
-    return balance.subtract(amount).compareTo(BigDecimal.ZERO) >= 0;
+    settle();
+    return balances.get(slot) - amount.getUnits() >= 0;
   }
 
   /**
@@ -123,10 +253,11 @@ public class DepositAccount implements BankAccount {
    @param amount the amount of money to be deposited
    @throws BankAccountException if the specified amount is negative
    */
-  public void topUp(BigDecimal amount) throws BankAccountException {
-    if (amount.compareTo(BigDecimal.ZERO) < 0)
+  public synchronized void topUp(Money amount) throws BankAccountException {
+    if (amount.isNegative())
       throw BankAccountException.invalidAmountOfMoney(amount);
-    balance = balance.add(amount);
+    settle();
+    columns.setBalance(chunk, slot, Math.addExact(balances.get(slot), amount.getUnits()));
   }
 
   /**
@@ -134,9 +265,10 @@ public class DepositAccount implements BankAccount {
    @param amount the amount of money to be withdrawn
    @throws BankAccountException if the specified amount is negative or if the withdrawal would cause the balance to go below zero
    */
-  public void withdraw(BigDecimal amount) throws BankAccountException {
-    if (amount.compareTo(BigDecimal.ZERO) < 0)
+  public synchronized void withdraw(Money amount) throws BankAccountException {
+    if (amount.isNegative())
       throw BankAccountException.invalidAmountOfMoney(amount);
-    balance = balance.subtract(amount);
+    settle();
+    columns.setBalance(chunk, slot, Math.subtractExact(balances.get(slot), amount.getUnits()));
   }
 }
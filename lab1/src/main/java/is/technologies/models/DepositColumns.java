@@ -0,0 +1,103 @@
+package is.technologies.models;
+
+import is.technologies.entities.Money;
+import is.technologies.entities.Rate;
+import java.nio.LongBuffer;
+
+/**
+ The DepositColumns class stores the balances, the accruals, the rate versions, the deadline flags, the deadlines,
+ the settled days and the rates of the deposit accounts of a bank.
+ All deposit accounts of a bank move through the same days, so instead of a date per account the store counts
+ the days it has processed, and every deposit account derives its date from that count. The deadlines are kept
+ in the same terms: the deadline of an account is the number of processed days at which its date reaches it.
+ The deadlines are scheduled in a maturity queue, so a period only marks the deposits whose deadlines it reaches.
+ */
+final class DepositColumns extends AccountColumns {
+
+  /**The column of the interest accruals in minor units of an accrual.*/
+  static final int ACCRUALS = 1;
+
+  /**The column of the versions of the rate table the slots were opened with.*/
+  static final int RATE_VERSION = 2;
+
+  /**The column of the deadline flags, 1 if the deadline of the deposit has passed.*/
+  static final int DEADLINE_END = 3;
+
+  /**The column of the deadlines, the number of processed days at which the date of the account is its deadline.*/
+  static final int DEADLINE = 4;
+
+  /**The column of the numbers of processed days the slots were settled at.*/
+  static final int SETTLED = 5;
+
+  /**The column of the ordinals of the rates of the slots, the percent of the balance the deposit was opened with.*/
+  static final int RATE = 6;
+
+  /**The rates by their ordinals, so finding the rate of a slot doesn't copy them.*/
+  private static final Rate[] RATES = Rate.values();
+
+  /**The scheduled deadlines of the deposit accounts.*/
+  private final MaturityQueue maturities;
+
+  /**
+   Creates a new store without deposit accounts.
+   @param rates the versions of the rate table of the bank
+   @param storage the memory to store the deposit accounts in
+   */
+  DepositColumns(RateHistory rates, AccountStorage storage) {
+    super(7, SETTLED, rates, storage);
+    maturities = new MaturityQueue();
+  }
+
+  /**
+   Schedules the deadline of a deposit account, whose deadline column already holds it.
+   @param index the index of the slot of the deposit account
+   @param deadline the number of processed days at which the date of the account is its deadline
+   */
+  void scheduleDeadline(int index, long deadline) {
+    maturities.add(deadline, index);
+  }
+
+  /**
+   Counts the days of the period and marks the deposits whose deadlines are on one of them.
+   An entry whose deposit has been scheduled again with a later deadline is dropped.
+   */
+  @Override
+  void startPeriod(int days) {
+    super.startPeriod(days);
+    long lastDay = processedDays() - 1;
+    maturities.pollDue(lastDay, index -> {
+      LongBuffer[] chunk = chunkOf(index);
+      int slot = index & CHUNK_MASK;
+      if (chunk[DEADLINE].get(slot) <= lastDay)
+        chunk[DEADLINE_END].put(slot, 1);
+    });
+  }
+
+  @Override
+  void accrue(LongBuffer[] chunk, int slot, long days) {
+    long dayAccruals = Money.accrualOf(chunk[BALANCE].get(slot), dayPercent(chunk, slot));
+    chunk[ACCRUALS].put(slot, Math.addExact(chunk[ACCRUALS].get(slot), Math.multiplyExact(dayAccruals, days)));
+  }
+
+  /**
+   Gets the daily percent of a slot from the rate table it was opened with.
+   @param chunk the buffers of the chunk of the slot
+   @param slot the position of the slot in its chunk
+   @return the daily percent in minor units
+   */
+  long dayPercent(LongBuffer[] chunk, int slot) {
+    Rate rate = RATES[(int) chunk[RATE].get(slot)];
+    return rates().get(chunk[RATE_VERSION].get(slot)).getDayPercent(rate);
+  }
+
+  /**
+   Capitalises the accruals unless the last day of the month is on or after the deadline of the deposit.
+   */
+  @Override
+  void capitalize(LongBuffer[] chunk, int slot, long monthEnd) {
+    if (monthEnd - 1 >= chunk[DEADLINE].get(slot))
+      return;
+    setBalance(chunk, slot, Math.addExact(chunk[BALANCE].get(slot), Money.unitsOfAccrual(chunk[ACCRUALS].get(slot))));
+    chunk[ACCRUALS].put(slot, 0);
+  }
+}
@@ -0,0 +1,103 @@
+package is.technologies.models;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ The MaturityQueue class schedules the deadlines of the deposit accounts of a bank.
+ It is a binary min-heap of deadlines, each paired with the slot of its deposit account, kept in primitive arrays.
+ A day change pops only the deadlines that are due, so the deposits that are years away from their deadline are
+ not looked at until then. A deposit whose deadline moves is scheduled again; its old entry stays in the heap and
+ the receiver of a due slot has to check the current deadline of the slot.
+ */
+final class MaturityQueue {
+
+  /**The number of entries of a new heap.*/
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**The deadlines of the entries in heap order.*/
+  private long[] deadlines;
+
+  /**The slots of the entries in heap order.*/
+  private int[] slots;
+
+  /**The number of entries in the heap.*/
+  private int size;
+
+  /**
+   Creates a new empty queue.
+   */
+  MaturityQueue() {
+    deadlines = new long[INITIAL_CAPACITY];
+    slots = new int[INITIAL_CAPACITY];
+    size = 0;
+  }
+
+  /**
+   Schedules the deadline of a slot.
+   @param deadline the deadline
+   @param slot the index of the slot
+   */
+  synchronized void add(long deadline, int slot) {
+    if (size == deadlines.length) {
+      deadlines = Arrays.copyOf(deadlines, size * 2);
+      slots = Arrays.copyOf(slots, size * 2);
+    }
+
+    int child = size++;
+    while (child > 0) {
+      int parent = (child - 1) >>> 1;
+      if (deadlines[parent] <= deadline)
+        break;
+      deadlines[child] = deadlines[parent];
+      slots[child] = slots[parent];
+      child = parent;
+    }
+    deadlines[child] = deadline;
+    slots[child] = slot;
+  }
+
+  /**
+   Removes the entries whose deadlines are not after the given day and passes their slots to the given action.
+   @param day the last day the deadlines may be on
+   @param action the action that receives the slots of the removed entries
+   */
+  synchronized void pollDue(long day, IntConsumer action) {
+    while (size > 0 && deadlines[0] <= day) {
+      action.accept(slots[0]);
+      removeFirst();
+    }
+  }
+
+  /**
+   Gets the number of scheduled entries.
+   @return the number of entries
+   */
+  synchronized int size() {
+    return size;
+  }
+
+  /**
+   Removes the entry with the earliest deadline.
+   */
+  private void removeFirst() {
+    size--;
+    long deadline = deadlines[size];
+    int slot = slots[size];
+    int parent = 0;
+    while (true) {
+      int child = 2 * parent + 1;
+      if (child >= size)
+        break;
+      if (child + 1 < size && deadlines[child + 1] < deadlines[child])
+        child++;
+      if (deadline <= deadlines[child])
+        break;
+      deadlines[parent] = deadlines[child];
+      slots[parent] = slots[child];
+      parent = child;
+    }
+    deadlines[parent] = deadline;
+    slots[parent] = slot;
+  }
+}
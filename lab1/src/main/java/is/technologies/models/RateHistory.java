@@ -0,0 +1,124 @@
+package is.technologies.models;
+
+import is.technologies.entities.Rate;
+import is.technologies.entities.RateTable;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ The RateHistory class keeps every version of the rate table of a bank, so a bank account finds the rates it was
+ opened with by their version. The current table is the one new bank accounts are opened with; changing a rate
+ publishes a new current table and leaves the bank accounts as they are. A restored bank account whose rates are
+ in no version gets a version of its own that never becomes current.
+ Publishing is synchronized and rare; finding a table by its version doesn't lock.
+ */
+final class RateHistory {
+
+  /**The number of versions of a new history.*/
+  private static final int INITIAL_CAPACITY = 16;
+
+  /**The tables by their versions, written before the array is published again.*/
+  private volatile RateTable[] tables;
+
+  /**The number of versions.*/
+  private int size;
+
+  /**The table new bank accounts are opened with.*/
+  private volatile RateTable current;
+
+  /**
+   Creates a new history with its first table.
+   @param first the table of version 0
+   */
+  RateHistory(RateTable first) {
+    tables = new RateTable[INITIAL_CAPACITY];
+    tables[0] = first;
+    size = 1;
+    current = first;
+  }
+
+  /**
+   Gets the table new bank accounts are opened with.
+   @return the current table
+   */
+  RateTable current() {
+    return current;
+  }
+
+  /**
+   Finds a table by its version.
+   @param version the version of the table
+   @return the table
+   */
+  RateTable get(long version) {
+    return tables[(int) version];
+  }
+
+  /**
+   Checks whether a table is one of the versions of the history.
+   @param table the table to check
+   @return true if the table is the table of its version
+   */
+  boolean contains(RateTable table) {
+    RateTable[] versions = tables;
+    return table != null && table.getVersion() < versions.length && versions[table.getVersion()] == table;
+  }
+
+  /**
+   Changes a rate by publishing a new current table.
+   @param rate the rate to change
+   @param value the new value of the rate
+   @return the value of the rate in the table that was current before
+   */
+  synchronized BigDecimal publish(Rate rate, BigDecimal value) {
+    BigDecimal previousValue = current.get(rate);
+    current = append(current.with(size, rate, value));
+    return previousValue;
+  }
+
+  /**
+   Finds the newest table with the given rates, adding a version of the current table with them if there is none.
+   @param rates the rates the table must have
+   @return the version of the table
+   */
+  synchronized int versionOf(Map<Rate, BigDecimal> rates) {
+    for (int version = size - 1; version >= 0; version--) {
+      if (matches(tables[version], rates))
+        return version;
+    }
+
+    RateTable table = current;
+    for (Map.Entry<Rate, BigDecimal> rate : rates.entrySet()) {
+      table = table.with(size, rate.getKey(), rate.getValue());
+    }
+    return append(table).getVersion();
+  }
+
+  /**
+   Adds a table as the next version.
+   @param table the table with the next version
+   @return the table
+   */
+  private RateTable append(RateTable table) {
+    RateTable[] newTables = size == tables.length ? Arrays.copyOf(tables, size * 2) : tables;
+    newTables[size] = table;
+    size++;
+    tables = newTables;
+    return table;
+  }
+
+  /**
+   Checks whether a table has the given rates.
+   @param table the table to check
+   @param rates the rates the table must have
+   @return true if every rate of the table is equal to the given one
+   */
+  private static boolean matches(RateTable table, Map<Rate, BigDecimal> rates) {
+    for (Map.Entry<Rate, BigDecimal> rate : rates.entrySet()) {
+      if (table.get(rate.getKey()).compareTo(rate.getValue()) != 0)
+        return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,199 @@
+package is.technologies.models;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ The VelocityLimits class keeps the money not verified clients took from their bank accounts over the last days,
+ so splitting a large withdrawal into many small ones doesn't get around the restriction for not verified customers.
+ Every client has a ring of day buckets as long as the window: recording an operation adds to the bucket of its day,
+ and moving to a later day empties the buckets of the days that left the window. A check or a record touches one
+ bucket, plus the buckets of the days passed since the client's last operation.
+ The days are the processed days of the bank, so they only grow.
+ */
+final class VelocityLimits {
+
+  /**The length of the window of a new bank in days, one day limits the money taken per day.*/
+  static final int DEFAULT_WINDOW_DAYS = 1;
+
+  /**The longest window in days.*/
+  static final int MAX_WINDOW_DAYS = 366;
+
+  /**The windows of the clients that took money, by client.*/
+  private final Map<Client, Window> windows;
+
+  /**The length of the windows in days.*/
+  private volatile int windowDays;
+
+  /**
+   Creates new limits with the default window and without spending.
+   */
+  VelocityLimits() {
+    windows = new ConcurrentHashMap<>();
+    windowDays = DEFAULT_WINDOW_DAYS;
+  }
+
+  /**
+   Gets the length of the windows.
+   @return the length of the windows in days
+   */
+  int windowDays() {
+    return windowDays;
+  }
+
+  /**
+   Changes the length of the windows. The money taken on the days that stay in the window keeps counting.
+   @param windowDays the new length of the windows in days
+   */
+  void setWindowDays(int windowDays) {
+    this.windowDays = windowDays;
+  }
+
+  /**
+   Gets the money a client took within the window.
+   @param client the client
+   @param day the current day
+   @return the money taken in minor units
+   */
+  long spent(Client client, long day) {
+    Window window = windows.get(client);
+    return window == null ? 0 : window.spent(day, windowDays);
+  }
+
+  /**
+   Records an operation of a client if the money taken within the window stays within the limit.
+   @param client the client
+   @param day the current day
+   @param units the money taken by the operation in minor units
+   @param limit the money the client may take within the window in minor units
+   @return true if the operation was recorded, false if it exceeds the limit
+   */
+  boolean tryRecord(Client client, long day, long units, long limit) {
+    if (units > limit)
+      return false;
+    return windows.computeIfAbsent(client, key -> new Window(day)).tryRecord(day, windowDays, units, limit);
+  }
+
+  /**
+   Takes back an operation recorded on the current day that wasn't executed.
+   @param client the client
+   @param day the current day
+   @param units the money of the operation in minor units
+   */
+  void release(Client client, long day, long units) {
+    Window window = windows.get(client);
+    if (window != null)
+      window.release(day, windowDays, units);
+  }
+
+  /**
+   The ring of day buckets of one client.
+   */
+  private static final class Window {
+
+    /**The money taken per day in minor units, the bucket of a day is the day modulo the length of the ring.*/
+    private long[] buckets;
+
+    /**The sum of the buckets.*/
+    private long total;
+
+    /**The latest day the window was moved to.*/
+    private long lastDay;
+
+    /**
+     Creates an empty window.
+     @param day the current day
+     */
+    private Window(long day) {
+      buckets = new long[DEFAULT_WINDOW_DAYS];
+      lastDay = day;
+    }
+
+    /**
+     Gets the money taken within the window.
+     @param day the current day
+     @param windowDays the length of the window in days
+     @return the money taken in minor units
+     */
+    private synchronized long spent(long day, int windowDays) {
+      advance(day, windowDays);
+      return total;
+    }
+
+    /**
+     Records money taken on the current day if the sum stays within the limit.
+     @param day the current day
+     @param windowDays the length of the window in days
+     @param units the money taken in minor units
+     @param limit the money that may be taken within the window in minor units
+     @return true if the money was recorded
+     */
+    private synchronized boolean tryRecord(long day, int windowDays, long units, long limit) {
+      advance(day, windowDays);
+      if (units > limit - total)
+        return false;
+      buckets[(int) (lastDay % buckets.length)] += units;
+      total += units;
+      return true;
+    }
+
+    /**
+     Takes back money recorded on the current day, at most as much as its bucket holds.
+     @param day the current day
+     @param windowDays the length of the window in days
+     @param units the money to take back in minor units
+     */
+    private synchronized void release(long day, int windowDays, long units) {
+      advance(day, windowDays);
+      int bucket = (int) (lastDay % buckets.length);
+      long released = Math.min(units, buckets[bucket]);
+      buckets[bucket] -= released;
+      total -= released;
+    }
+
+    /**
+     Moves the window to a day, emptying the buckets of the days that left it, and resizes the ring
+     if the length of the window changed.
+     @param day the current day
+     @param windowDays the length of the window in days
+     */
+    private void advance(long day, int windowDays) {
+      if (windowDays != buckets.length)
+        resize(windowDays);
+      if (day <= lastDay)
+        return;
+
+      if (day - lastDay >= buckets.length) {
+        Arrays.fill(buckets, 0);
+        total = 0;
+      } else {
+        for (long passed = lastDay + 1; passed <= day; passed++) {
+          int bucket = (int) (passed % buckets.length);
+          total -= buckets[bucket];
+          buckets[bucket] = 0;
+        }
+      }
+      lastDay = day;
+    }
+
+    /**
+     Changes the length of the ring, keeping the days up to the last day that fit into the new one.
+     @param windowDays the new length of the window in days
+     */
+    private void resize(int windowDays) {
+      long[] newBuckets = new long[windowDays];
+      long newTotal = 0;
+      int kept = Math.min(buckets.length, windowDays);
+      for (long keptDay = lastDay - kept + 1; keptDay <= lastDay; keptDay++) {
+        if (keptDay < 0)
+          continue;
+        long units = buckets[(int) (keptDay % buckets.length)];
+        newBuckets[(int) (keptDay % windowDays)] = units;
+        newTotal += units;
+      }
+      buckets = newBuckets;
+      total = newTotal;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package is.technologies.models;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ The WideAdder class adds up longs without a lock and without overflowing, for totals of many amounts that
+ together don't fit into a long. Every value is split into its lowest bits and the rest, which are added up
+ in two LongAdders, so neither of them wraps before about 2^47 additions.
+ */
+final class WideAdder {
+
+  /**The number of the lowest bits of a value that are added up separately.*/
+  private static final int LOW_BITS = 16;
+
+  /**The mask of the lowest bits of a value.*/
+  private static final long LOW_MASK = (1L << LOW_BITS) - 1;
+
+  /**The sum of the values without their lowest bits, shifted right by LOW_BITS.*/
+  private final LongAdder high;
+
+  /**The sum of the lowest bits of the values.*/
+  private final LongAdder low;
+
+  /**
+   Creates a new adder with the sum of zero.
+   */
+  WideAdder() {
+    high = new LongAdder();
+    low = new LongAdder();
+  }
+
+  /**
+   Adds a value to the sum.
+   @param value the value to add
+   */
+  void add(long value) {
+    high.add(value >> LOW_BITS);
+    low.add(value & LOW_MASK);
+  }
+
+  /**
+   Subtracts a value from the sum.
+   @param value the value to subtract
+   */
+  void subtract(long value) {
+    high.add(-(value >> LOW_BITS));
+    low.add(-(value & LOW_MASK));
+  }
+
+  /**
+   Gets the sum of the values. The sum is exact if no values are added while it is read.
+   @return the sum
+   */
+  BigInteger sum() {
+    return BigInteger.valueOf(high.sum()).shiftLeft(LOW_BITS).add(BigInteger.valueOf(low.sum()));
+  }
+}
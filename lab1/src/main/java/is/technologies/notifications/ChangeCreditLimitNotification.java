@@ -1,6 +1,8 @@
 package is.technologies.notifications;
 
 import is.technologies.exceptions.NotificationException;
+import is.technologies.entities.Rate;
+import java.math.BigDecimal;
 import lombok.Getter;
 
 /**
@@ -11,14 +13,30 @@ public class ChangeCreditLimitNotification implements Notification {
 
   private final String message;
 
+  /**The rate changed by the bank.*/
+  private final Rate rate;
+
+  /**The value of the rate before the change.*/
+  private final BigDecimal previousValue;
+
+  /**The new value of the rate.*/
+  private final BigDecimal value;
+
   /**
-   Constructs a new notification with the specified message.
+   Constructs a new notification with the specified message and the previous and new values of the rate.
    @param message the message for the notification.
-   @throws NotificationException if the message is null.
+   @param previousValue the value of the rate before the change.
+   @param value the new value of the rate.
+   @throws NotificationException if the message or one of the values is null.
    */
-  public ChangeCreditLimitNotification(String message) throws NotificationException {
+  public ChangeCreditLimitNotification(String message, BigDecimal previousValue, BigDecimal value) throws NotificationException {
     if (message == null)
       throw NotificationException.invalidMessage();
+    if (previousValue == null || value == null)
+      throw NotificationException.invalidValue();
     this.message = message;
+    this.rate = Rate.CREDIT_LIMIT;
+    this.previousValue = previousValue;
+    this.value = value;
   }
 }
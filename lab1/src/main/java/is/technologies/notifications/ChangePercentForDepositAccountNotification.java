@@ -1,6 +1,8 @@
 package is.technologies.notifications;
 
+import is.technologies.entities.Rate;
 import is.technologies.exceptions.*;
+import java.math.BigDecimal;
 import lombok.Getter;
 
 /**
@@ -11,14 +13,35 @@ public class ChangePercentForDepositAccountNotification implements Notification
 
   private final String message;
 
+  /**The percent of the deposit accounts changed by the bank.*/
+  private final Rate rate;
+
+  /**The value of the percent before the change.*/
+  private final BigDecimal previousValue;
+
+  /**The new value of the percent.*/
+  private final BigDecimal value;
+
   /**
-   Constructs a new notification with the specified message.
+   Constructs a new notification with the specified message, changed percent and its previous and new values.
    @param message the message for the notification.
-   @throws NotificationException if the message is null.
+   @param rate the changed percent, one of the percents for deposit accounts.
+   @param previousValue the value of the percent before the change.
+   @param value the new value of the percent.
+   @throws NotificationException if the message or one of the values is null, or the rate isn't a percent for deposit accounts.
    */
-  public ChangePercentForDepositAccountNotification(String message) throws NotificationException {
+  public ChangePercentForDepositAccountNotification(String message, Rate rate, BigDecimal previousValue, BigDecimal value)
+      throws NotificationException {
     if (message == null)
       throw NotificationException.invalidMessage();
+    if (rate != Rate.PERCENT_LESS_FIFTY_THOUSAND && rate != Rate.PERCENT_LESS_ONE_HUNDRED_THOUSAND
+        && rate != Rate.PERCENT_MORE_ONE_HUNDRED_THOUSAND)
+      throw NotificationException.invalidRate();
+    if (previousValue == null || value == null)
+      throw NotificationException.invalidValue();
     this.message = message;
+    this.rate = rate;
+    this.previousValue = previousValue;
+    this.value = value;
   }
 }
@@ -1,6 +1,8 @@
 package is.technologies.notifications;
 
 import is.technologies.exceptions.*;
+import is.technologies.entities.Rate;
+import java.math.BigDecimal;
 import lombok.Getter;
 
 /**
@@ -11,15 +13,31 @@ public class ChangeRestrictionForNotVerifiedCustomersNotification implements Not
 
   private final String message;
 
+  /**The rate changed by the bank.*/
+  private final Rate rate;
+
+  /**The value of the rate before the change.*/
+  private final BigDecimal previousValue;
+
+  /**The new value of the rate.*/
+  private final BigDecimal value;
+
   /**
-   Constructs a new notification with the specified message.
+   Constructs a new notification with the specified message and the previous and new values of the rate.
    @param message the message for the notification.
-   @throws NotificationException if the message is null.
+   @param previousValue the value of the rate before the change.
+   @param value the new value of the rate.
+   @throws NotificationException if the message or one of the values is null.
    */
-  public ChangeRestrictionForNotVerifiedCustomersNotification(String message)
+  public ChangeRestrictionForNotVerifiedCustomersNotification(String message, BigDecimal previousValue, BigDecimal value)
       throws NotificationException {
     if (message == null)
       throw NotificationException.invalidMessage();
+    if (previousValue == null || value == null)
+      throw NotificationException.invalidValue();
     this.message = message;
+    this.rate = Rate.RESTRICTION_FOR_NOT_VERIFIED_CUSTOMERS;
+    this.previousValue = previousValue;
+    this.value = value;
   }
 }
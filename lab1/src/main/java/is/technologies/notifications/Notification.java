@@ -1,5 +1,8 @@
 package is.technologies.notifications;
 
+import is.technologies.entities.Rate;
+import java.math.BigDecimal;
+
 /**
  Interface representing a notification that can be sent to observers.
  */
@@ -9,4 +12,22 @@ public interface Notification {
   @return the message associated with the notification.
   */
   String getMessage();
+
+  /**
+   Returns the rate the notification is about.
+   @return the rate changed by the bank.
+   */
+  Rate getRate();
+
+  /**
+   Returns the value of the rate before the change.
+   @return the previous value of the rate.
+   */
+  BigDecimal getPreviousValue();
+
+  /**
+   Returns the new value of the rate.
+   @return the new value of the rate.
+   */
+  BigDecimal getValue();
 }
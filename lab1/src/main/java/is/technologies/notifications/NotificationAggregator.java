@@ -0,0 +1,129 @@
+package is.technologies.notifications;
+
+import is.technologies.entities.*;
+import is.technologies.exceptions.*;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ The NotificationAggregator class implements the IObservable interface and delivers the notifications
+ of one topic, such as the changes of the credit limit, to its subscribed observers.
+ An observer is subscribed once however many times it subscribes: the aggregator counts the subscriptions
+ of every observer and delivers each payload to it once, until it unsubscribes as many times as it has subscribed.
+ A change of the subscribers only updates the map of subscriptions and drops the cached array of the observers;
+ the next delivery builds a new array from the map. So subscribing and unsubscribing cost amortised constant time,
+ the payloads are delivered without a lock and subscriptions made during a delivery don't disturb it.
+ @param <TPayload> the type of the payload to deliver
+ */
+public class NotificationAggregator<TPayload> implements Observable<TPayload> {
+
+  /**The number of subscriptions of every subscribed observer, compared by identity, guarded by the aggregator.*/
+  private final Map<Observer<TPayload>, Integer> subscriptions;
+
+  /**The subscribed observers as of the last delivery, or null if the subscribers changed since it was built.*/
+  private volatile Observer<TPayload>[] observers;
+
+  /**
+   Constructs a new instance of NotificationAggregator without subscribers.
+   */
+  public NotificationAggregator() {
+    subscriptions = new IdentityHashMap<>();
+  }
+
+  /**
+   Notifies all subscribed observers with the provided notification payload.
+   @param payload The notification payload to be sent to all subscribed observers.
+   @throws AggregatorException if the provided payload is null.
+   @throws MediatorException if there is an issue with the mediator.
+   @throws ClientException if there is an issue with the client.
+   */
+  public void notify(TPayload payload) throws AggregatorException, MediatorException, ClientException {
+    if (payload == null)
+      throw AggregatorException.invalidPayload();
+
+    for (Observer<TPayload> observer : observers()) {
+      observer.update(payload);
+    }
+  }
+
+  /**
+   Delivers the provided notification payload to all subscribed observers in the background.
+   The observers subscribed during the delivery don't get the payload.
+   @param payload The notification payload to be sent to all subscribed observers.
+   @param dispatcher The dispatcher that delivers the payload.
+   @return the future completed with the observers that failed to take the payload.
+   @throws AggregatorException if the provided payload or dispatcher is null.
+   */
+  public CompletableFuture<List<Observer<TPayload>>> notifyAsync(
+      TPayload payload, NotificationDispatcher dispatcher) throws AggregatorException {
+    if (payload == null)
+      throw AggregatorException.invalidPayload();
+    if (dispatcher == null)
+      throw AggregatorException.invalidDispatcher();
+
+    return dispatcher.dispatch(Arrays.asList(observers()), payload);
+  }
+
+  /**
+   Subscribes an observer to receive notifications.
+   An observer that is already subscribed only gets one more subscription to cancel.
+   @param observer The observer to subscribe.
+   @throws AggregatorException if the provided observer is null.
+   */
+  public synchronized void subscribe(Observer<TPayload> observer) throws AggregatorException {
+    if (observer == null)
+      throw AggregatorException.invalidObserver();
+
+    if (subscriptions.merge(observer, 1, Integer::sum) == 1)
+      observers = null;
+  }
+
+  /**
+   Cancels one subscription of an observer. The observer stops receiving notifications when all
+   its subscriptions are cancelled.
+   @param observer The observer to unsubscribe.
+   @throws AggregatorException if the provided observer is null.
+   */
+  public synchronized void unsubscribe(Observer<TPayload> observer) throws AggregatorException {
+    if (observer == null)
+      throw AggregatorException.invalidObserver();
+
+    Integer count = subscriptions.get(observer);
+    if (count == null)
+      return;
+    if (count > 1) {
+      subscriptions.put(observer, count - 1);
+      return;
+    }
+
+    subscriptions.remove(observer);
+    observers = null;
+  }
+
+  /**
+   Gets the number of distinct observers that receive the notifications.
+   @return the number of subscribed observers
+   */
+  public synchronized int size() {
+    return subscriptions.size();
+  }
+
+  /**
+   Gets the subscribed observers, building the array again if the subscribers changed since the last delivery.
+   @return the subscribed observers
+   */
+  @SuppressWarnings("unchecked")
+  private Observer<TPayload>[] observers() {
+    Observer<TPayload>[] current = observers;
+    if (current != null)
+      return current;
+    synchronized (this) {
+      if (observers == null)
+        observers = subscriptions.keySet().toArray(new Observer[0]);
+      return observers;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package is.technologies.notifications;
+
+import is.technologies.entities.Observer;
+import is.technologies.exceptions.*;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ The NotificationDispatcher class delivers payloads to observers in the background.
+ The observers are split into slices that are delivered by a fixed pool of worker threads. The slices wait in
+ a bounded queue; when it is full, the thread that dispatches the payload delivers the slice itself, so a burst
+ of announcements slows down its sender instead of growing the queue. An observer that fails doesn't stop
+ the delivery to the others, it is reported in the result of the dispatch.
+ */
+public class NotificationDispatcher implements Closeable {
+
+  /**The number of observers delivered by one task.*/
+  private static final int SLICE_SIZE = 1024;
+
+  /**The counter used to name the worker threads.*/
+  private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+  /**The pool of worker threads.*/
+  private final ThreadPoolExecutor executor;
+
+  /**
+   Creates a new dispatcher with the given number of worker threads and the given queue capacity.
+   @param threads the number of worker threads
+   @param queueCapacity the number of slices that can wait for a worker thread
+   @throws NotificationException if the number of threads or the queue capacity isn't positive
+   */
+  public NotificationDispatcher(int threads, int queueCapacity) throws NotificationException {
+    if (threads <= 0)
+      throw NotificationException.invalidThreads(threads);
+    if (queueCapacity <= 0)
+      throw NotificationException.invalidQueueCapacity(queueCapacity);
+
+    ThreadFactory threadFactory = task -> {
+      var thread = new Thread(task, "notification-dispatcher-" + THREAD_NUMBER.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), threadFactory, (task, pool) -> task.run());
+  }
+
+  /**
+   Delivers the given payload to the given observers in the background.
+   @param observers the observers to deliver the payload to, the list must not change during the delivery
+   @param payload the payload to deliver
+   @param <TPayload> the type of the payload
+   @return the future completed with the observers that failed to take the payload when all observers are done
+   */
+  public <TPayload> CompletableFuture<List<Observer<TPayload>>> dispatch(
+      List<Observer<TPayload>> observers, TPayload payload) {
+    ConcurrentLinkedQueue<Observer<TPayload>> failedObservers = new ConcurrentLinkedQueue<>();
+    List<CompletableFuture<Void>> slices = new ArrayList<>();
+    for (int from = 0; from < observers.size(); from += SLICE_SIZE) {
+      List<Observer<TPayload>> slice = observers.subList(from, Math.min(from + SLICE_SIZE, observers.size()));
+      slices.add(CompletableFuture.runAsync(() -> deliver(slice, payload, failedObservers), executor));
+    }
+
+    return CompletableFuture.allOf(slices.toArray(new CompletableFuture[0]))
+        .thenApply(done -> new ArrayList<>(failedObservers));
+  }
+
+  /**
+   Stops the worker threads once the waiting slices are delivered.
+   The slices dispatched after that are delivered by the dispatching thread.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  /**
+   Delivers the payload to every observer of the slice.
+   @param slice the observers to deliver the payload to
+   @param payload the payload to deliver
+   @param failedObservers the observers that failed to take the payload
+   @param <TPayload> the type of the payload
+   */
+  private static <TPayload> void deliver(
+      List<Observer<TPayload>> slice, TPayload payload, ConcurrentLinkedQueue<Observer<TPayload>> failedObservers) {
+    for (Observer<TPayload> observer : slice) {
+      try {
+        observer.update(payload);
+      } catch (MediatorException | ClientException | RuntimeException e) {
+        failedObservers.add(observer);
+      }
+    }
+  }
+}
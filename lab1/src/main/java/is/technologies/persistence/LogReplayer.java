@@ -0,0 +1,385 @@
+package is.technologies.persistence;
+
+import is.technologies.entities.*;
+import is.technologies.exceptions.*;
+import is.technologies.models.*;
+import is.technologies.service.CentralBank;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Getter;
+
+/**
+ The LogReplayer class restores a central bank from the records of a snapshot and a log.
+ Every record is applied through the same methods of the central bank and the banks that made the operation,
+ so the restored journals, subscriptions and rates are the same as before the restart.
+ The records are replayed before a log is attached to the central bank, so they aren't appended again.
+ */
+@Getter
+final class LogReplayer {
+
+  /**The restored central bank.*/
+  private final CentralBank centralBank;
+
+  /**The replayed transactions by the sequence IDs of their records in the log, in the order of the records.*/
+  private final Map<Long, Transaction> transactions;
+
+  /**The sequence ID of the next record in the log.*/
+  private long sequenceId;
+
+  /**
+   Creates a new replayer that restores the given central bank.
+   @param centralBank the new central bank to restore
+   */
+  LogReplayer(CentralBank centralBank) {
+    this.centralBank = centralBank;
+    this.transactions = new LinkedHashMap<>();
+    this.sequenceId = 0;
+  }
+
+  /**
+   Replays all records of a snapshot.
+   @param reader the reader of the snapshot records
+   @throws WriteAheadLogException if the snapshot is incomplete or a record can't be replayed
+   */
+  void replaySnapshot(RecordReader reader) throws WriteAheadLogException {
+    RecordType type = reader.next();
+    while (type != null && type != RecordType.END) {
+      apply(type, reader);
+      type = reader.next();
+    }
+
+    if (type != RecordType.END)
+      throw WriteAheadLogException.corruptedSnapshot();
+  }
+
+  /**
+   Replays the records of a log up to the first incomplete record, counting their sequence IDs.
+   @param reader the reader of the log records
+   @throws WriteAheadLogException if a record can't be replayed
+   */
+  void replayLog(RecordReader reader) throws WriteAheadLogException {
+    sequenceId = 0;
+    for (RecordType type = reader.next(); type != null; type = reader.next()) {
+      apply(type, reader);
+      sequenceId++;
+    }
+  }
+
+  /**
+   Applies one record to the central bank.
+   @param type the type of the record
+   @param reader the reader positioned at the fields of the record
+   @throws WriteAheadLogException if the record can't be replayed
+   */
+  private void apply(RecordType type, RecordReader reader) throws WriteAheadLogException {
+    try {
+      switch (type) {
+        case CLOCK:
+          centralBank.getTimeProvider().changeDate(calendarOf(reader.getLong()));
+          break;
+        case BANK:
+          replayBank(reader);
+          break;
+        case CLIENT:
+          replayClient(reader);
+          break;
+        case ACCOUNT:
+          replayAccount(reader);
+          break;
+        case TRANSACTION:
+          replayTransaction(reader);
+          break;
+        case ROLLBACK:
+          Bank bank = centralBank.getBanks().get(reader.getInt());
+          Transaction transaction = rolledBack(reader);
+          if (transaction == null)
+            revert(reader);
+          else
+            bank.rollback(transaction);
+          break;
+        case TRANSFER_ROLLBACK:
+          Transaction transfer = rolledBack(reader);
+          if (transfer == null)
+            revert(reader);
+          else
+            centralBank.rollback((MoneyTransferTransaction) transfer);
+          break;
+        case ROLLBACK_MARK:
+          Transaction marked = transactions.get(reader.getLong());
+          if (marked != null)
+            centralBank.rolledBackTransaction(marked);
+          break;
+        case RATE:
+          replayRate(reader);
+          break;
+        case DATE:
+          centralBank.changeDate(calendarOf(reader.getLong()));
+          break;
+        case VELOCITY_WINDOW:
+          replayVelocityWindow(reader);
+          break;
+        default:
+          throw WriteAheadLogException.invalidRecord(sequenceId);
+      }
+    } catch (WriteAheadLogException e) {
+      throw e;
+    } catch (Exception e) {
+      throw WriteAheadLogException.invalidRecord(sequenceId);
+    }
+  }
+
+  /**
+   Adds the bank of a bank record to the central bank.
+   @param reader the reader positioned at the fields of the record
+   @throws Exception if the bank can't be added or gets another ID
+   */
+  private void replayBank(RecordReader reader) throws Exception {
+    int id = reader.getInt();
+    String name = reader.getString();
+    BigDecimal[] rates = new BigDecimal[Rate.values().length];
+    for (int i = 0; i < rates.length; i++) {
+      rates[i] = reader.getBigDecimal();
+    }
+
+    Bank bank = centralBank.addNewBank(name, rates[0], rates[1], rates[2], rates[3], rates[4], rates[5], rates[6]);
+    if (bank.getId() != id)
+      throw WriteAheadLogException.invalidRecord(sequenceId);
+  }
+
+  /**
+   Adds the client of a client record to its bank.
+   The restored client gets its own mediator, so it receives the notifications of its bank.
+   @param reader the reader positioned at the fields of the record
+   @throws Exception if the client can't be added
+   */
+  private void replayClient(RecordReader reader) throws Exception {
+    Bank bank = centralBank.getBanks().get(reader.getInt());
+    Client client = new Client.Builder()
+        .setFirstName(reader.getString())
+        .setSurname(reader.getString())
+        .setAddress(reader.getString())
+        .setPassport(reader.getString())
+        .build();
+    client.setMediator(new ClientMediator(client));
+    bank.addNewClient(client);
+  }
+
+  /**
+   Adds the bank account of an account record to its owner.
+   @param reader the reader positioned at the fields of the record
+   @throws Exception if the bank account can't be added
+   */
+  private void replayAccount(RecordReader reader) throws Exception {
+    int clientNumber = reader.getInt();
+    BankAccountId bankAccountId = reader.getAccountId();
+    Bank bank = centralBank.getBanks().get(bankAccountId.getBankId());
+    Client owner = bank.getClients().get(clientNumber);
+    UUID accountId = bankAccountId.getAccountId();
+
+    byte kind = reader.getByte();
+    if (kind == RecordType.DEBIT_ACCOUNT) {
+      bank.restoreDebitAccount(owner, accountId, reader.getBigDecimal(),
+          Money.ofUnits(reader.getLong()), Money.ofUnits(reader.getLong()));
+    } else if (kind == RecordType.CREDIT_ACCOUNT) {
+      bank.restoreCreditAccount(owner, accountId, Money.ofUnits(reader.getLong()), Money.ofUnits(reader.getLong()),
+          Money.ofUnits(reader.getLong()), Money.ofUnits(reader.getLong()));
+    } else if (kind == RecordType.DEPOSIT_ACCOUNT) {
+      BigDecimal percent = reader.getBigDecimal();
+      Calendar dateOfDeadline = calendarOf(reader.getLong());
+      Calendar date = calendarOf(reader.getLong());
+      bank.restoreDepositAccount(owner, accountId, percent, dateOfDeadline, date,
+          Money.ofUnits(reader.getLong()), Money.ofUnits(reader.getLong()), reader.getBoolean());
+    } else {
+      throw WriteAheadLogException.invalidRecord(sequenceId);
+    }
+  }
+
+  /**
+   Executes the transaction of a transaction record and remembers it by the sequence ID of the record.
+   @param reader the reader positioned at the fields of the record
+   @throws Exception if the transaction can't be executed
+   */
+  private void replayTransaction(RecordReader reader) throws Exception {
+    byte kind = reader.getByte();
+    BankAccount accountFrom = findAccount(reader.getAccountId());
+    BankAccount accountTo = findAccount(reader.getAccountId());
+    Money money = Money.ofUnits(reader.getLong());
+    boolean isInterbank = reader.getBoolean();
+
+    Bank bank = accountFrom.getBank();
+    if (kind == RecordType.TOP_UP) {
+      bank.moneyTopUpTransaction(accountFrom, money);
+      transactions.put(sequenceId, lastTransaction(bank));
+    } else if (kind == RecordType.WITHDRAW) {
+      bank.moneyWithdrawTransaction(accountFrom, money);
+      transactions.put(sequenceId, lastTransaction(bank));
+    } else if (isInterbank) {
+      transactions.put(sequenceId, centralBank.moneyTransferTransaction(accountFrom, accountTo, money));
+    } else {
+      transactions.put(sequenceId, bank.moneyTransferTransaction(accountFrom, accountTo, money));
+    }
+  }
+
+  /**
+   Finds the transaction of a rollback record. A record that refers to its transaction by the sequence ID gets
+   the transaction replayed from that record. A record without the sequence ID was written for a transaction executed
+   before the snapshot or one whose record had left the rollback window of the log; the latter is the first replayed
+   transaction outside the window with the same kind, bank accounts and money that isn't rolled back yet. Such
+   transactions have the same effect, so any of them may be rolled back. If there is none, the reader is left
+   at the transaction of the record, so its balances can be reverted.
+   @param reader the reader positioned at the sequence ID of a rollback record
+   @return the transaction to roll back, or null if it wasn't replayed
+   @throws WriteAheadLogException if the transaction of the record refers to unknown bank accounts
+   @throws BankAccountIdException if an ID of a bank account of the record is invalid
+   */
+  private Transaction rolledBack(RecordReader reader) throws WriteAheadLogException, BankAccountIdException {
+    long rolledBackSequenceId = reader.getLong();
+    if (rolledBackSequenceId >= 0)
+      return transactions.get(rolledBackSequenceId);
+
+    reader.mark();
+    byte kind = reader.getByte();
+    BankAccount accountFrom = findAccount(reader.getAccountId());
+    BankAccount accountTo = findAccount(reader.getAccountId());
+    Money money = Money.ofUnits(reader.getLong());
+    int outsideWindow = transactions.size() - WriteAheadLog.ROLLBACK_WINDOW;
+    Iterator<Transaction> replayed = transactions.values().iterator();
+    for (int i = 0; i < outsideWindow; i++) {
+      Transaction transaction = replayed.next();
+      if (!transaction.isRolledBack() && kindOf(transaction) == kind && transaction.getAccountFrom() == accountFrom
+          && transaction.getAccountTo() == accountTo && transaction.getMoney().equals(money))
+        return transaction;
+    }
+    reader.reset();
+    return null;
+  }
+
+  /**
+   Gets the kind of a transaction as it is written in a transaction record.
+   @param transaction the transaction
+   @return the kind of the transaction
+   */
+  private static byte kindOf(Transaction transaction) {
+    if (transaction instanceof MoneyTopUpTransaction)
+      return RecordType.TOP_UP;
+    if (transaction instanceof MoneyWithdrawTransaction)
+      return RecordType.WITHDRAW;
+    return RecordType.TRANSFER;
+  }
+
+  /**
+   Reverts the balances changed by a transaction that was executed before the snapshot, so it isn't in the journals.
+   @param reader the reader positioned at the transaction of a rollback record
+   @throws Exception if the balances can't be changed
+   */
+  private void revert(RecordReader reader) throws Exception {
+    byte kind = reader.getByte();
+    BankAccount accountFrom = findAccount(reader.getAccountId());
+    BankAccount accountTo = findAccount(reader.getAccountId());
+    Money money = Money.ofUnits(reader.getLong());
+
+    if (kind == RecordType.TOP_UP) {
+      accountFrom.withdraw(money);
+    } else if (kind == RecordType.WITHDRAW) {
+      accountFrom.topUp(money);
+    } else {
+      accountTo.withdraw(money);
+      accountFrom.topUp(money);
+    }
+  }
+
+  /**
+   Changes the rate of a rate record.
+   The rate is changed before the clients are notified, so a client that can't take the notification doesn't stop
+   the replay.
+   @param reader the reader positioned at the fields of the record
+   */
+  private void replayRate(RecordReader reader) {
+    Bank bank = centralBank.getBanks().get(reader.getInt());
+    Rate rate = Rate.values()[reader.getByte()];
+    BigDecimal value = reader.getBigDecimal();
+
+    try {
+      switch (rate) {
+        case PERCENT_FOR_DEBIT_ACCOUNTS:
+          bank.changePercentForDebitAccounts(value);
+          break;
+        case PERCENT_LESS_FIFTY_THOUSAND:
+          bank.changePercentLessFiftyThousand(value);
+          break;
+        case PERCENT_LESS_ONE_HUNDRED_THOUSAND:
+          bank.changePercentLessOneHundredThousand(value);
+          break;
+        case PERCENT_MORE_ONE_HUNDRED_THOUSAND:
+          bank.changePercentMoreOneHundredThousand(value);
+          break;
+        case COMMISSION_FOR_CREDIT_ACCOUNT:
+          bank.changeCommissionForCreditAccount(value);
+          break;
+        case RESTRICTION_FOR_NOT_VERIFIED_CUSTOMERS:
+          bank.changeRestrictionForNotVerifiedCustomersAggregator(value);
+          break;
+        case CREDIT_LIMIT:
+          bank.changeCreditLimit(value);
+          break;
+      }
+    } catch (Exception e) {
+      // the rate is already changed, only the notification of the clients failed
+    }
+  }
+
+  /**
+   Changes the velocity window of a velocity window record, keeping the restriction for not verified customers.
+   @param reader the reader positioned at the fields of the record
+   @throws BankException if the window of the record is out of range
+   */
+  private void replayVelocityWindow(RecordReader reader) throws BankException {
+    Bank bank = centralBank.getBanks().get(reader.getInt());
+    int windowDays = reader.getInt();
+
+    try {
+      bank.changeRestrictionForNotVerifiedCustomersAggregator(bank.getRestrictionForNotVerifiedCustomers(), windowDays);
+    } catch (NotificationException | AggregatorException | MediatorException | ClientException e) {
+      // the window is already changed, only the notification of the clients failed
+    }
+  }
+
+  /**
+   Finds the bank account with the given ID in its bank.
+   @param bankAccountId the ID of the bank account
+   @return the bank account
+   @throws WriteAheadLogException if there is no such bank account
+   */
+  private BankAccount findAccount(BankAccountId bankAccountId) throws WriteAheadLogException {
+    List<Bank> banks = centralBank.getBanks();
+    if (bankAccountId.getBankId() >= banks.size())
+      throw WriteAheadLogException.invalidRecord(sequenceId);
+    return banks.get(bankAccountId.getBankId()).findAccount(bankAccountId)
+        .orElseThrow(() -> WriteAheadLogException.invalidRecord(sequenceId));
+  }
+
+  /**
+   Gets the transaction the given bank has executed last.
+   @param bank the bank
+   @return the last transaction in the journal of the bank
+   */
+  private static Transaction lastTransaction(Bank bank) {
+    return bank.getTransactions().get(bank.getTransactions().size() - 1);
+  }
+
+  /**
+   Creates a calendar set to the given time.
+   @param millis the time in milliseconds since the epoch
+   @return the calendar
+   */
+  private static Calendar calendarOf(long millis) {
+    Calendar calendar = Calendar.getInstance();
+    calendar.setTimeInMillis(millis);
+    return calendar;
+  }
+}
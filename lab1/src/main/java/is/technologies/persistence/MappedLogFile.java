@@ -0,0 +1,105 @@
+package is.technologies.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ The MappedLogFile class appends records to a file through a memory-mapped region.
+ Writing a record is a copy into the mapped memory, the operating system writes the pages to the file on its own
+ and force makes sure they are on the disk. When the region is full, the next region of the file is mapped.
+ The file is extended by whole regions, the unused tail of the last region is filled with zeros.
+ Writing isn't synchronized, forcing may be called from any thread.
+ */
+final class MappedLogFile implements Closeable {
+
+  /**The size of a mapped region of the file.*/
+  private static final long REGION_SIZE = 1 << 24;
+
+  /**The channel of the file.*/
+  private final FileChannel channel;
+
+  /**The position in the file where the current region starts.*/
+  private long regionStart;
+
+  /**The mapped region of the file the records are written to.*/
+  private volatile MappedByteBuffer region;
+
+  /**
+   Opens the given file for appending at the given position. Everything after the position is dropped.
+   @param path the path of the file
+   @param position the position to append the records at
+   @throws IOException if the file can't be opened or mapped
+   */
+  MappedLogFile(Path path, long position) throws IOException {
+    channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    channel.truncate(position);
+    map(position, REGION_SIZE);
+  }
+
+  /**
+   Appends the given bytes to the file.
+   @param bytes the bytes to append
+   @throws IOException if the next region of the file can't be mapped
+   */
+  void write(ByteBuffer bytes) throws IOException {
+    if (region.remaining() < bytes.remaining()) {
+      region.force();
+      map(position(), Math.max(REGION_SIZE, bytes.remaining()));
+    }
+    region.put(bytes);
+  }
+
+  /**
+   Gets the position in the file the next bytes are written at.
+   @return the position of the next bytes
+   */
+  long position() {
+    return regionStart + region.position();
+  }
+
+  /**
+   Writes the written bytes to the disk.
+   */
+  void force() {
+    region.force();
+  }
+
+  /**
+   Drops the content of the file and starts it again with the given bytes.
+   @param header the first bytes of the file
+   @throws IOException if the file can't be truncated or mapped
+   */
+  void reset(ByteBuffer header) throws IOException {
+    channel.truncate(0);
+    map(0, REGION_SIZE);
+    write(header);
+    force();
+  }
+
+  /**
+   Writes the written bytes to the disk and closes the file.
+   @throws IOException if the file can't be closed
+   */
+  @Override
+  public void close() throws IOException {
+    force();
+    channel.close();
+  }
+
+  /**
+   Maps the region of the file that starts at the given position.
+   @param position the position in the file where the region starts
+   @param size the size of the region
+   @throws IOException if the region can't be mapped
+   */
+  private void map(long position, long size) throws IOException {
+    MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+    regionStart = position;
+    region = mapped;
+  }
+}
@@ -0,0 +1,149 @@
+package is.technologies.persistence;
+
+import is.technologies.entities.BankAccountId;
+import is.technologies.exceptions.BankAccountIdException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ The RecordReader class reads the records written by RecordWriter one by one.
+ Reading stops at the first record that is incomplete or doesn't match its checksum, which is where the log was
+ cut off when the process stopped.
+ */
+final class RecordReader {
+
+  /**The buffer the records are read from.*/
+  private final ByteBuffer buffer;
+
+  /**The checksum of the current record.*/
+  private final CRC32 checksum;
+
+  /**The position right after the last valid record.*/
+  private int end;
+
+  /**
+   Creates a new reader of the records in the given buffer, starting from its current position.
+   @param buffer the buffer to read the records from
+   */
+  RecordReader(ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.checksum = new CRC32();
+    this.end = buffer.position();
+  }
+
+  /**
+   Moves to the next record.
+   @return the type of the next record, or null if there are no more valid records
+   */
+  RecordType next() {
+    buffer.position(end);
+    if (buffer.remaining() < Integer.BYTES)
+      return null;
+
+    int length = buffer.getInt();
+    if (length <= 0 || buffer.remaining() - Integer.BYTES < length)
+      return null;
+
+    ByteBuffer payload = buffer.slice();
+    payload.limit(length);
+    checksum.reset();
+    checksum.update(payload);
+    if (buffer.getInt(buffer.position() + length) != (int) checksum.getValue())
+      return null;
+
+    RecordType type = RecordType.of(buffer.get());
+    if (type == null)
+      return null;
+    end += Integer.BYTES * 2 + length;
+    return type;
+  }
+
+  /**
+   Gets the position right after the last valid record, where the next record should be written.
+   @return the position after the last valid record
+   */
+  int end() {
+    return end;
+  }
+
+  /**
+   Remembers the current field of the record, so the fields from it can be read again.
+   */
+  void mark() {
+    buffer.mark();
+  }
+
+  /**
+   Goes back to the field remembered by mark.
+   */
+  void reset() {
+    buffer.reset();
+  }
+
+  /**
+   Reads a byte field.
+   @return the value of the field
+   */
+  byte getByte() {
+    return buffer.get();
+  }
+
+  /**
+   Reads a boolean field.
+   @return the value of the field
+   */
+  boolean getBoolean() {
+    return buffer.get() != 0;
+  }
+
+  /**
+   Reads an int field.
+   @return the value of the field
+   */
+  int getInt() {
+    return buffer.getInt();
+  }
+
+  /**
+   Reads a long field.
+   @return the value of the field
+   */
+  long getLong() {
+    return buffer.getLong();
+  }
+
+  /**
+   Reads a string field.
+   @return the value of the field
+   */
+  String getString() {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   Reads a decimal field.
+   @return the value of the field
+   */
+  BigDecimal getBigDecimal() {
+    int scale = buffer.getInt();
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new BigDecimal(new BigInteger(bytes), scale);
+  }
+
+  /**
+   Reads a bank account ID field.
+   @return the value of the field
+   @throws BankAccountIdException if the ID is invalid
+   */
+  BankAccountId getAccountId() throws BankAccountIdException {
+    int bankId = buffer.getInt();
+    return new BankAccountId(bankId, new UUID(buffer.getLong(), buffer.getLong()));
+  }
+}
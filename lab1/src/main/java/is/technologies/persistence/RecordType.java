@@ -0,0 +1,81 @@
+package is.technologies.persistence;
+
+/**
+ Represents the types of the records of the write-ahead log and of the snapshot.
+ */
+enum RecordType {
+
+  /**The current date of the central bank, written at the beginning of a snapshot.*/
+  CLOCK,
+
+  /**A bank with its current rates.*/
+  BANK,
+
+  /**A client of a bank.*/
+  CLIENT,
+
+  /**A bank account with its current state.*/
+  ACCOUNT,
+
+  /**An executed transaction.*/
+  TRANSACTION,
+
+  /**A transaction rolled back by a bank.*/
+  ROLLBACK,
+
+  /**A money transfer transaction rolled back by the central bank.*/
+  TRANSFER_ROLLBACK,
+
+  /**A transaction marked as rolled back in the journals of the banks.*/
+  ROLLBACK_MARK,
+
+  /**A changed rate of a bank.*/
+  RATE,
+
+  /**A changed date of the central bank.*/
+  DATE,
+
+  /**The end of a snapshot.*/
+  END,
+
+  /**A changed velocity window of a bank, written after the bank in a snapshot if it isn't the default one.*/
+  VELOCITY_WINDOW;
+
+  /**The code of a debit account in an account record.*/
+  static final byte DEBIT_ACCOUNT = 0;
+
+  /**The code of a credit account in an account record.*/
+  static final byte CREDIT_ACCOUNT = 1;
+
+  /**The code of a deposit account in an account record.*/
+  static final byte DEPOSIT_ACCOUNT = 2;
+
+  /**The code of a money top-up transaction in a transaction record.*/
+  static final byte TOP_UP = 0;
+
+  /**The code of a money withdraw transaction in a transaction record.*/
+  static final byte WITHDRAW = 1;
+
+  /**The code of a money transfer transaction in a transaction record.*/
+  static final byte TRANSFER = 2;
+
+  /**The record types in the order of their codes.*/
+  private static final RecordType[] TYPES = values();
+
+  /**
+   Gets the record type with the given code.
+   @param code the code of the record type
+   @return the record type, or null if there is no record type with the given code
+   */
+  static RecordType of(byte code) {
+    return code >= 0 && code < TYPES.length ? TYPES[code] : null;
+  }
+
+  /**
+   Gets the code the record type is written with.
+   @return the code of the record type
+   */
+  byte code() {
+    return (byte) ordinal();
+  }
+}
@@ -0,0 +1,155 @@
+package is.technologies.persistence;
+
+import is.technologies.entities.BankAccountId;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ The RecordWriter class encodes one record at a time into a reusable buffer.
+ A record is framed as its length, its type and fields, and the CRC32 checksum of the type and fields, so a record
+ that was only partly written can be detected when the log is read.
+ */
+final class RecordWriter {
+
+  /**The initial capacity of the buffer, enough for every record except the ones with long strings.*/
+  private static final int INITIAL_CAPACITY = 256;
+
+  /**The buffer the record is encoded into.*/
+  private ByteBuffer buffer;
+
+  /**The checksum of the record.*/
+  private final CRC32 checksum;
+
+  /**
+   Creates a new writer with an empty buffer.
+   */
+  RecordWriter() {
+    buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+    checksum = new CRC32();
+  }
+
+  /**
+   Starts a new record of the given type, dropping the previous one.
+   @param type the type of the record
+   @return this writer
+   */
+  RecordWriter begin(RecordType type) {
+    buffer.clear();
+    buffer.putInt(0);
+    buffer.put(type.code());
+    return this;
+  }
+
+  /**
+   Writes a byte field.
+   @param value the value of the field
+   @return this writer
+   */
+  RecordWriter putByte(byte value) {
+    ensure(Byte.BYTES);
+    buffer.put(value);
+    return this;
+  }
+
+  /**
+   Writes a boolean field.
+   @param value the value of the field
+   @return this writer
+   */
+  RecordWriter putBoolean(boolean value) {
+    return putByte(value ? (byte) 1 : (byte) 0);
+  }
+
+  /**
+   Writes an int field.
+   @param value the value of the field
+   @return this writer
+   */
+  RecordWriter putInt(int value) {
+    ensure(Integer.BYTES);
+    buffer.putInt(value);
+    return this;
+  }
+
+  /**
+   Writes a long field.
+   @param value the value of the field
+   @return this writer
+   */
+  RecordWriter putLong(long value) {
+    ensure(Long.BYTES);
+    buffer.putLong(value);
+    return this;
+  }
+
+  /**
+   Writes a string field as its length and its UTF-8 bytes.
+   @param value the value of the field
+   @return this writer
+   */
+  RecordWriter putString(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    ensure(Integer.BYTES + bytes.length);
+    buffer.putInt(bytes.length);
+    buffer.put(bytes);
+    return this;
+  }
+
+  /**
+   Writes a decimal field as its scale and the bytes of its unscaled value.
+   @param value the value of the field
+   @return this writer
+   */
+  RecordWriter putBigDecimal(BigDecimal value) {
+    byte[] bytes = value.unscaledValue().toByteArray();
+    ensure(Integer.BYTES * 2 + bytes.length);
+    buffer.putInt(value.scale());
+    buffer.putInt(bytes.length);
+    buffer.put(bytes);
+    return this;
+  }
+
+  /**
+   Writes a bank account ID field as the ID of the bank and the two halves of the account UUID.
+   @param value the value of the field
+   @return this writer
+   */
+  RecordWriter putAccountId(BankAccountId value) {
+    ensure(Integer.BYTES + Long.BYTES * 2);
+    buffer.putInt(value.getBankId());
+    buffer.putLong(value.getAccountId().getMostSignificantBits());
+    buffer.putLong(value.getAccountId().getLeastSignificantBits());
+    return this;
+  }
+
+  /**
+   Finishes the record by writing its length and checksum.
+   @return the buffer with the framed record, ready to be read; it stays valid until the next record is started
+   */
+  ByteBuffer finish() {
+    int length = buffer.position() - Integer.BYTES;
+    checksum.reset();
+    checksum.update(buffer.array(), Integer.BYTES, length);
+    ensure(Integer.BYTES);
+    buffer.putInt(0, length);
+    buffer.putInt((int) checksum.getValue());
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   Grows the buffer if it can't fit the given number of bytes.
+   @param bytes the number of bytes to fit
+   */
+  private void ensure(int bytes) {
+    if (buffer.remaining() >= bytes)
+      return;
+
+    var grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+    buffer.flip();
+    grown.put(buffer);
+    buffer = grown;
+  }
+}
@@ -0,0 +1,499 @@
+package is.technologies.persistence;
+
+import is.technologies.entities.*;
+import is.technologies.exceptions.*;
+import is.technologies.models.*;
+import is.technologies.service.CentralBank;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+
+/**
+ The WriteAheadLog class keeps the state of a central bank on the disk.
+ The state is stored as a snapshot and a log of the operations made after the snapshot: new banks, clients and
+ bank accounts, executed and rolled back transactions, changed rates and dates. Every operation is appended to
+ the log through a memory-mapped file before the operation returns, so appending is a copy into memory.
+ Appending is asynchronous: the log is forced to the disk once per group of operations instead of once per
+ operation, and an operation returns as soon as its record is in the mapped memory. The record survives a crash
+ of the process then, because the operating system owns the mapped pages, but a crash of the machine loses the
+ operations of the group that wasn't forced yet. An operation is durable once commit returns after it; a group
+ commit size of 1 forces every record before its operation returns.
+ When the log is opened, the central bank is restored from the snapshot and the operations in the log are
+ replayed. A snapshot keeps the banks, clients, rates and bank accounts with their balances, but not the history
+ of the transactions, the transfers that wait for a net settlement or the clearing mode: after a restart the
+ journals start empty, the pending transfers stay paid without being settled, and the clearing mode is gross.
+ */
+public class WriteAheadLog implements OperationLog, Closeable {
+
+  /**The default number of operations that are forced to the disk together.*/
+  public static final int DEFAULT_GROUP_COMMIT_SIZE = 64;
+
+  /**The name of the log file.*/
+  private static final String LOG_FILE = "operations.log";
+
+  /**The name of the snapshot file.*/
+  private static final String SNAPSHOT_FILE = "snapshot.bin";
+
+  /**The name of the snapshot file while it is written.*/
+  private static final String SNAPSHOT_TEMPORARY_FILE = "snapshot.tmp";
+
+  /**The first bytes of the log file.*/
+  private static final int LOG_MAGIC = 0x42574C31;
+
+  /**The first bytes of the snapshot file.*/
+  private static final int SNAPSHOT_MAGIC = 0x42534E31;
+
+  /**The size of the header of the log and snapshot files: the magic and the generation.*/
+  private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+  /**The directory of the log and snapshot files.*/
+  private final Path directory;
+
+  /**The number of operations that are forced to the disk together.*/
+  private final int groupCommitSize;
+
+  /**The log file.*/
+  private final MappedLogFile file;
+
+  /**The restored central bank, all its operations are appended to the log.*/
+  @Getter
+  private final CentralBank centralBank;
+
+  /**The writers of the records, one per thread, so records are encoded outside the lock.*/
+  private final ThreadLocal<RecordWriter> writers;
+
+  /**The number of the latest executed transactions a rollback refers to by the sequence ID of their record.*/
+  static final int ROLLBACK_WINDOW = 1 << 16;
+
+  /**
+   The sequence IDs of the records of the latest executed transactions in the order of the records,
+   so a rollback can refer to the transaction. It holds at most ROLLBACK_WINDOW transactions and is guarded by the log.
+   */
+  private final Map<Transaction, Long> transactionSequenceIds;
+
+  /**The positions of the clients in the lists of clients of their banks.*/
+  private final Map<Client, Integer> clientNumbers;
+
+  /**The generation of the snapshot the log continues, increased by every snapshot.*/
+  private long generation;
+
+  /**The sequence ID of the next record in the log.*/
+  private long nextSequenceId;
+
+  /**The number of records appended since the log was last forced to the disk.*/
+  private int uncommitted;
+
+  /**
+   Creates a new log of the given central bank.
+   @param directory the directory of the log and snapshot files
+   @param groupCommitSize the number of operations that are forced to the disk together
+   @param file the log file opened at the end of the replayed records
+   @param replayer the replayer that restored the central bank
+   @param generation the generation of the snapshot the log continues
+   */
+  private WriteAheadLog(Path directory, int groupCommitSize, MappedLogFile file, LogReplayer replayer, long generation) {
+    this.directory = directory;
+    this.groupCommitSize = groupCommitSize;
+    this.file = file;
+    this.centralBank = replayer.getCentralBank();
+    this.generation = generation;
+    this.nextSequenceId = replayer.getSequenceId();
+    this.uncommitted = 0;
+    writers = ThreadLocal.withInitial(RecordWriter::new);
+    transactionSequenceIds = new LinkedHashMap<>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Transaction, Long> eldest) {
+        return size() > ROLLBACK_WINDOW;
+      }
+    };
+    clientNumbers = new ConcurrentHashMap<>();
+
+    replayer.getTransactions().forEach((sequenceId, transaction) -> transactionSequenceIds.put(transaction, sequenceId));
+    for (Bank bank : centralBank.getBanks()) {
+      List<Client> clients = bank.getClients();
+      for (int i = 0; i < clients.size(); i++) {
+        clientNumbers.put(clients.get(i), i);
+      }
+    }
+  }
+
+  /**
+   Opens the log in the given directory with the default group commit size and restores the central bank.
+   @param directory the directory of the log and snapshot files, created if it doesn't exist
+   @return the opened log
+   @throws IOException if the files can't be read or written
+   @throws WriteAheadLogException if the directory is null or the files can't be replayed
+   */
+  public static WriteAheadLog open(Path directory) throws IOException, WriteAheadLogException {
+    return open(directory, DEFAULT_GROUP_COMMIT_SIZE);
+  }
+
+  /**
+   Opens the log in the given directory and restores the central bank from the snapshot and the log.
+   If there is no snapshot yet, a new central bank is created and its first snapshot is written.
+   The records at the end of the log that were cut off when the process stopped are dropped.
+   @param directory the directory of the log and snapshot files, created if it doesn't exist
+   @param groupCommitSize the number of operations that are forced to the disk together, must be positive
+   @return the opened log
+   @throws IOException if the files can't be read or written
+   @throws WriteAheadLogException if the arguments are invalid or the files can't be replayed
+   */
+  public static WriteAheadLog open(Path directory, int groupCommitSize) throws IOException, WriteAheadLogException {
+    if (directory == null)
+      throw WriteAheadLogException.invalidDirectory();
+    if (groupCommitSize <= 0)
+      throw WriteAheadLogException.invalidGroupCommitSize(groupCommitSize);
+
+    Files.createDirectories(directory);
+    Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+    Path logPath = directory.resolve(LOG_FILE);
+
+    var replayer = new LogReplayer(new CentralBank(new TimeProvider()));
+    long generation = 0;
+    if (Files.exists(snapshotPath)) {
+      ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+      if (snapshot.remaining() < HEADER_SIZE || snapshot.getInt() != SNAPSHOT_MAGIC)
+        throw WriteAheadLogException.corruptedSnapshot();
+      generation = snapshot.getLong();
+      replayer.replaySnapshot(new RecordReader(snapshot));
+    }
+
+    long end = 0;
+    if (generation > 0 && Files.exists(logPath)) {
+      try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+        MappedByteBuffer log = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (log.remaining() >= HEADER_SIZE && log.getInt() == LOG_MAGIC && log.getLong() == generation) {
+          var reader = new RecordReader(log);
+          replayer.replayLog(reader);
+          end = reader.end();
+        }
+      }
+    }
+
+    var writeAheadLog = new WriteAheadLog(directory, groupCommitSize, new MappedLogFile(logPath, end), replayer, generation);
+    if (generation == 0) {
+      writeAheadLog.snapshot();
+    } else if (end == 0) {
+      writeAheadLog.file.reset(header(LOG_MAGIC, generation));
+    }
+
+    try {
+      writeAheadLog.centralBank.setOperationLog(writeAheadLog);
+    } catch (CentralBankException | BankException e) {
+      throw WriteAheadLogException.corruptedSnapshot();
+    }
+    return writeAheadLog;
+  }
+
+  /**
+   Writes the current state of the central bank to a new snapshot and starts a new empty log.
+   The snapshot replaces the previous one only when it is completely written, and the log left by the previous
+   snapshot is ignored by the next replay, so the state survives a crash at any point.
+   The snapshot drops the history of the transactions, the transfers that wait for a net settlement and the
+   clearing mode, so settle the central bank before the snapshot if it clears transfers by net settlement.
+   No operations may run on the central bank while the snapshot is written.
+   @throws IOException if the snapshot can't be written
+   */
+  public synchronized void snapshot() throws IOException {
+    long nextGeneration = generation + 1;
+    Path temporaryPath = directory.resolve(SNAPSHOT_TEMPORARY_FILE);
+
+    try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      OutputStream output = new BufferedOutputStream(Channels.newOutputStream(channel));
+      writeBytes(output, header(SNAPSHOT_MAGIC, nextGeneration));
+
+      var writer = new RecordWriter();
+      writeBytes(output, writer.begin(RecordType.CLOCK)
+          .putLong(centralBank.getTimeProvider().getDate().getTimeInMillis()).finish());
+      for (Bank bank : centralBank.getBanks()) {
+        writeBytes(output, putBank(writer.begin(RecordType.BANK), bank).finish());
+        if (bank.getVelocityWindowDays() != Bank.DEFAULT_VELOCITY_WINDOW_DAYS)
+          writeBytes(output, writer.begin(RecordType.VELOCITY_WINDOW)
+              .putInt(bank.getId()).putInt(bank.getVelocityWindowDays()).finish());
+        List<Client> clients = bank.getClients();
+        for (int i = 0; i < clients.size(); i++) {
+          clientNumbers.put(clients.get(i), i);
+          writeBytes(output, putClient(writer.begin(RecordType.CLIENT), clients.get(i)).finish());
+        }
+        for (BankAccount bankAccount : bank.getBankAccounts()) {
+          writeBytes(output, putAccount(writer.begin(RecordType.ACCOUNT), bankAccount).finish());
+        }
+      }
+      writeBytes(output, writer.begin(RecordType.END).finish());
+      output.flush();
+      channel.force(true);
+    }
+    Files.move(temporaryPath, directory.resolve(SNAPSHOT_FILE),
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+    generation = nextGeneration;
+    file.reset(header(LOG_MAGIC, generation));
+    nextSequenceId = 0;
+    uncommitted = 0;
+    transactionSequenceIds.clear();
+  }
+
+  /**
+   Forces all appended operations to the disk.
+   */
+  public void commit() {
+    synchronized (this) {
+      uncommitted = 0;
+    }
+    file.force();
+  }
+
+  /**
+   Forces all appended operations to the disk and closes the log.
+   @throws IOException if the log file can't be closed
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    file.close();
+  }
+
+  @Override
+  public void bankAdded(Bank bank) {
+    appendAsync(putBank(writers.get().begin(RecordType.BANK), bank).finish());
+  }
+
+  @Override
+  public void clientAdded(Client client) {
+    clientNumbers.put(client, client.getBank().getClients().size() - 1);
+    appendAsync(putClient(writers.get().begin(RecordType.CLIENT), client).finish());
+  }
+
+  @Override
+  public void accountOpened(BankAccount bankAccount) {
+    appendAsync(putAccount(writers.get().begin(RecordType.ACCOUNT), bankAccount).finish());
+  }
+
+  @Override
+  public void transactionExecuted(Transaction transaction, boolean isInterbank) {
+    RecordWriter writer = putTransaction(writers.get().begin(RecordType.TRANSACTION), transaction);
+    appendAsync(writer.putBoolean(isInterbank).finish(), transaction);
+  }
+
+  @Override
+  public void transactionRolledBack(Bank bank, Transaction transaction) {
+    appendRolledBackAsync(writers.get().begin(RecordType.ROLLBACK).putInt(bank.getId()), transaction);
+  }
+
+  @Override
+  public void transferRolledBack(MoneyTransferTransaction transaction) {
+    appendRolledBackAsync(writers.get().begin(RecordType.TRANSFER_ROLLBACK), transaction);
+  }
+
+  @Override
+  public void transactionMarkedRolledBack(Transaction transaction) {
+    appendRolledBackAsync(writers.get().begin(RecordType.ROLLBACK_MARK), transaction);
+  }
+
+  @Override
+  public void rateChanged(Bank bank, Rate rate, BigDecimal value) {
+    appendAsync(writers.get().begin(RecordType.RATE)
+        .putInt(bank.getId()).putByte((byte) rate.ordinal()).putBigDecimal(value).finish());
+  }
+
+  @Override
+  public void velocityWindowChanged(Bank bank, int windowDays) {
+    appendAsync(writers.get().begin(RecordType.VELOCITY_WINDOW).putInt(bank.getId()).putInt(windowDays).finish());
+  }
+
+  @Override
+  public void dateChanged(Calendar time) {
+    appendAsync(writers.get().begin(RecordType.DATE).putLong(time.getTimeInMillis()).finish());
+  }
+
+  /**
+   Appends the given record to the log and forces the log to the disk if a group of records is complete.
+   The record isn't on the disk when this returns unless it completed a group.
+   The disk write is done outside the lock, so other threads keep appending while the group is forced.
+   @param record the framed record
+   */
+  private void appendAsync(ByteBuffer record) {
+    appendAsync(record, null);
+  }
+
+  /**
+   Appends the given record to the log and forces the log to the disk if a group of records is complete,
+   remembering the sequence ID of the record of an executed transaction.
+   @param record the framed record
+   @param executed the transaction of a transaction record, null for other records
+   */
+  private void appendAsync(ByteBuffer record, Transaction executed) {
+    boolean isGroupComplete;
+    synchronized (this) {
+      long sequenceId = nextSequenceId;
+      isGroupComplete = write(record);
+      if (executed != null)
+        transactionSequenceIds.put(executed, sequenceId);
+    }
+
+    if (isGroupComplete)
+      file.force();
+  }
+
+  /**
+   Appends a record of a rolled back transaction to the log and forces the log to the disk if a group of records
+   is complete. The record is finished under the lock, so it refers to the transaction by the sequence ID of its
+   record exactly when the transaction is one of the ROLLBACK_WINDOW latest transaction records at that point.
+   @param writer the writer of the record with the fields before the transaction
+   @param transaction the rolled back transaction
+   */
+  private void appendRolledBackAsync(RecordWriter writer, Transaction transaction) {
+    boolean isGroupComplete;
+    synchronized (this) {
+      isGroupComplete = write(putRolledBack(writer, transaction).finish());
+    }
+
+    if (isGroupComplete)
+      file.force();
+  }
+
+  /**
+   Writes the given record to the log file and counts it. The caller holds the lock of the log.
+   @param record the framed record
+   @return true if the record completes a group of records that must be forced to the disk
+   */
+  private boolean write(ByteBuffer record) {
+    try {
+      file.write(record);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    nextSequenceId++;
+    boolean isGroupComplete = ++uncommitted >= groupCommitSize;
+    if (isGroupComplete)
+      uncommitted = 0;
+    return isGroupComplete;
+  }
+
+  /**
+   Writes a bank with its current rates, in the order of the parameters of CentralBank.addNewBank.
+   @param writer the writer of the record
+   @param bank the bank
+   @return the writer
+   */
+  private static RecordWriter putBank(RecordWriter writer, Bank bank) {
+    return writer.putInt(bank.getId()).putString(bank.getName())
+        .putBigDecimal(bank.getPercentForDebitAccounts())
+        .putBigDecimal(bank.getPercentLessFiftyThousand())
+        .putBigDecimal(bank.getPercentLessOneHundredThousand())
+        .putBigDecimal(bank.getPercentMoreOneHundredThousand())
+        .putBigDecimal(bank.getCommissionForCreditAccount())
+        .putBigDecimal(bank.getRestrictionForNotVerifiedCustomers())
+        .putBigDecimal(bank.getCreditLimit());
+  }
+
+  /**
+   Writes a client.
+   @param writer the writer of the record
+   @param client the client
+   @return the writer
+   */
+  private static RecordWriter putClient(RecordWriter writer, Client client) {
+    return writer.putInt(client.getBank().getId())
+        .putString(client.getName()).putString(client.getSurname())
+        .putString(client.getAddress()).putString(client.getPassport());
+  }
+
+  /**
+   Writes a bank account with its current state.
+   @param writer the writer of the record
+   @param bankAccount the bank account
+   @return the writer
+   */
+  private RecordWriter putAccount(RecordWriter writer, BankAccount bankAccount) {
+    writer.putInt(clientNumbers.get(bankAccount.getOwner())).putAccountId(bankAccount.getBankAccountId());
+
+    if (bankAccount instanceof DebitAccount) {
+      var debitAccount = (DebitAccount) bankAccount;
+      return writer.putByte(RecordType.DEBIT_ACCOUNT).putBigDecimal(debitAccount.getPercent())
+          .putLong(debitAccount.getBalance().getUnits()).putLong(debitAccount.getAccruals().getUnits());
+    }
+    if (bankAccount instanceof CreditAccount) {
+      var creditAccount = (CreditAccount) bankAccount;
+      return writer.putByte(RecordType.CREDIT_ACCOUNT)
+          .putLong(creditAccount.getCreditLimit().getUnits()).putLong(creditAccount.getCommission().getUnits())
+          .putLong(creditAccount.getBalance().getUnits()).putLong(creditAccount.getDebt().getUnits());
+    }
+    var depositAccount = (DepositAccount) bankAccount;
+    return writer.putByte(RecordType.DEPOSIT_ACCOUNT).putBigDecimal(depositAccount.getPercent())
+        .putLong(depositAccount.getDateOfDeadline().getTimeInMillis())
+        .putLong(depositAccount.getDate().getTimeInMillis())
+        .putLong(depositAccount.getBalance().getUnits()).putLong(depositAccount.getAccruals().getUnits())
+        .putBoolean(depositAccount.isDeadlineEnd());
+  }
+
+  /**
+   Writes the kind, the bank accounts and the amount of money of a transaction.
+   @param writer the writer of the record
+   @param transaction the transaction
+   @return the writer
+   */
+  private static RecordWriter putTransaction(RecordWriter writer, Transaction transaction) {
+    byte kind = RecordType.TRANSFER;
+    if (transaction instanceof MoneyTopUpTransaction)
+      kind = RecordType.TOP_UP;
+    if (transaction instanceof MoneyWithdrawTransaction)
+      kind = RecordType.WITHDRAW;
+
+    return writer.putByte(kind)
+        .putAccountId(transaction.getAccountFrom().getBankAccountId())
+        .putAccountId(transaction.getAccountTo().getBankAccountId())
+        .putLong(transaction.getMoney().getUnits());
+  }
+
+  /**
+   Writes a rolled back transaction as the sequence ID of its record and the transaction itself.
+   The sequence ID is -1 if the transaction was executed before the last snapshot or its record is older than
+   the ROLLBACK_WINDOW latest transaction records, then the replay finds it by its content or reverts the balances
+   directly.
+   @param writer the writer of the record
+   @param transaction the rolled back transaction
+   @return the writer
+   */
+  private RecordWriter putRolledBack(RecordWriter writer, Transaction transaction) {
+    Long sequenceId = transactionSequenceIds.get(transaction);
+    return putTransaction(writer.putLong(sequenceId == null ? -1 : sequenceId), transaction);
+  }
+
+  /**
+   Creates the header of a log or snapshot file.
+   @param magic the first bytes of the file
+   @param generation the generation of the snapshot
+   @return the header
+   */
+  private static ByteBuffer header(int magic, long generation) {
+    return ByteBuffer.allocate(HEADER_SIZE).putInt(magic).putLong(generation).flip();
+  }
+
+  /**
+   Writes the remaining bytes of the given buffer to the given stream.
+   @param output the stream
+   @param bytes the bytes to write
+   @throws IOException if the bytes can't be written
+   */
+  private static void writeBytes(OutputStream output, ByteBuffer bytes) throws IOException {
+    output.write(bytes.array(), bytes.position(), bytes.remaining());
+  }
+}
@@ -0,0 +1,13 @@
+package is.technologies.service;
+
+/**
+ Represents the ways a batch of transfers can be applied.
+ */
+public enum BatchMode {
+
+  /**Either every transfer of the batch is executed or none of them is.*/
+  ALL_OR_NOTHING,
+
+  /**Every transfer that can be executed is executed, the others are skipped.*/
+  BEST_EFFORT
+}
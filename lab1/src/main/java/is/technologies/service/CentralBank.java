@@ -4,14 +4,27 @@ import is.technologies.entities.Subject;
 import is.technologies.models.*;
 import is.technologies.entities.*;
 import is.technologies.exceptions.*;
+import is.technologies.metrics.*;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 /**
  The CentralBank class represents a central bank that manages multiple banks and transactions between them.
  It implements the ISubject interface, which defines methods for attaching and detaching watchers to the central bank.
+ Transfers and rollbacks lock both bank accounts through a lock shared with all banks, so they can be called
+ from several threads at once.
+ In the net clearing mode the transfers between two banks move the money at once, but they are recorded by
+ the banks only when they are settled: at every date change or on demand, netted into one position per pair of banks.
  */
 @Getter
 public class CentralBank implements Subject {
@@ -19,8 +32,11 @@ public class CentralBank implements Subject {
   /**The list of all the banks in the system.*/
   private final ArrayList<Bank> banks;
 
-  /**The list of all the money transfer transactions in the system.*/
-  private final ArrayList<MoneyTransferTransaction> transactions;
+  /**The append-only journal of all the money transfer transactions in the system, safe to append to from several threads.*/
+  private final TransactionJournal<MoneyTransferTransaction> transactions;
+
+  /**The lock that guards the balances of the bank accounts of all banks.*/
+  private final StripedAccountLock accountLock;
 
   /**The list of all the watchers in the system.*/
   private final ArrayList<Watcher> watchers;
@@ -31,6 +47,28 @@ public class CentralBank implements Subject {
   /**The time provider used to get the current time.*/
   private final TimeProvider timeProvider;
 
+  /**The log the central bank and all its banks report their operations to.*/
+  private OperationLog operationLog;
+
+  /**The metrics the central bank and all its banks report their operations to.*/
+  private Metrics metrics;
+
+  /**The memory the banks added to the central bank store the money of their bank accounts in.*/
+  private AccountStorage accountStorage;
+
+  /**The cache that executes the operations submitted with a request ID once, shared by all banks.*/
+  private RequestCache requestCache;
+
+  /**The way the transfers between two banks are recorded by the banks.*/
+  private volatile ClearingMode clearingMode;
+
+  /**The transfers between banks that wait for the next settlement run.*/
+  @Getter(AccessLevel.NONE)
+  private final ClearingHouse clearingHouse;
+
+  /**The report of the last settlement run, or null if no run was made.*/
+  private SettlementReport lastSettlement;
+
   /**
    Constructs a new CentralBank object with a specified TimeProvider.
    @param timeProvider the TimeProvider to be used by the CentralBank for time-related operations
@@ -39,9 +77,88 @@ public class CentralBank implements Subject {
   {
     id = 0;
     banks = new ArrayList<>();
-    transactions = new ArrayList<>();
+    transactions = new TransactionJournal<>(timeProvider);
+    accountLock = new StripedAccountLock();
     this.timeProvider = timeProvider;
     watchers = new ArrayList<>();
+    operationLog = OperationLog.NONE;
+    metrics = Metrics.NONE;
+    accountStorage = AccountStorage.HEAP;
+    requestCache = new RequestCache();
+    clearingMode = ClearingMode.GROSS;
+    clearingHouse = new ClearingHouse();
+  }
+
+  /**
+   Sets the log the central bank and all its banks report their operations to.
+   The banks added later report to the same log.
+   @param operationLog the log to report the operations to
+   @throws CentralBankException if the log is null
+   @throws BankException if the log can't be set for one of the banks
+   */
+  public void setOperationLog(OperationLog operationLog) throws CentralBankException, BankException {
+    if (operationLog == null) throw CentralBankException.invalidOperationLog();
+
+    this.operationLog = operationLog;
+    for (Bank bank : banks) {
+      bank.setOperationLog(operationLog);
+    }
+  }
+
+  /**
+   Sets the metrics the central bank and all its banks report their operations to.
+   The banks added later report to the same metrics.
+   @param metrics the metrics to report the operations to
+   @throws CentralBankException if the metrics are null
+   @throws BankException if the metrics can't be set for one of the banks
+   */
+  public void setMetrics(Metrics metrics) throws CentralBankException, BankException {
+    if (metrics == null) throw CentralBankException.invalidMetrics();
+
+    this.metrics = metrics;
+    for (Bank bank : banks) {
+      bank.setMetrics(metrics);
+    }
+  }
+
+  /**
+   Sets the cache that executes the operations submitted with a request ID once, for the central bank and all its banks.
+   The banks added later use the same cache.
+   @param requestCache the cache of the requests
+   @throws CentralBankException if the cache is null
+   @throws BankException if the cache can't be set for one of the banks
+   */
+  public void setRequestCache(RequestCache requestCache) throws CentralBankException, BankException {
+    if (requestCache == null) throw CentralBankException.invalidRequestCache();
+
+    this.requestCache = requestCache;
+    for (Bank bank : banks) {
+      bank.setRequestCache(requestCache);
+    }
+  }
+
+  /**
+   Sets the memory the banks added after this call store the money columns of their bank accounts in.
+   The bank account objects stay on the heap in either storage. The banks that are already added keep their storage.
+   @param accountStorage the memory to store the money of the bank accounts in
+   @throws CentralBankException if the storage is null
+   */
+  public void setAccountStorage(AccountStorage accountStorage) throws CentralBankException {
+    if (accountStorage == null) throw CentralBankException.invalidAccountStorage();
+    this.accountStorage = accountStorage;
+  }
+
+  /**
+   Sets the way the transfers between two banks are recorded by the banks.
+   The transfers waiting for settlement are settled when the net clearing mode is switched off.
+   @param clearingMode the clearing mode
+   @throws CentralBankException if the clearing mode is null
+   */
+  public void setClearingMode(ClearingMode clearingMode) throws CentralBankException {
+    if (clearingMode == null) throw CentralBankException.invalidClearingMode();
+
+    this.clearingMode = clearingMode;
+    if (clearingMode == ClearingMode.GROSS) settle();
   }
 
   /**
@@ -68,10 +185,14 @@ public class CentralBank implements Subject {
     if (restrictionForNotVerifiedCustomers.compareTo(BigDecimal.ZERO) < 0) throw BankException.invalidRestrictionForNotVerifiedCustomers(restrictionForNotVerifiedCustomers);
     if (creditLimit.compareTo(BigDecimal.ZERO) < 0) throw BankException.invalidCreditLimit(creditLimit);
 
-    var newBank = new Bank(name, id, percentForDebitAccounts, percentLessFiftyThousand, percentLessOneHundredThousand, percentMoreOneHundredThousand, commissionForCreditAccount, restrictionForNotVerifiedCustomers, creditLimit);
+    var newBank = new Bank(name, id, percentForDebitAccounts, percentLessFiftyThousand, percentLessOneHundredThousand, percentMoreOneHundredThousand, commissionForCreditAccount, restrictionForNotVerifiedCustomers, creditLimit, accountLock, timeProvider, accountStorage);
+    newBank.setOperationLog(operationLog);
+    newBank.setMetrics(metrics);
+    newBank.setRequestCache(requestCache);
     banks.add(newBank);
     watchers.add(newBank);
     id++;
+    operationLog.bankAdded(newBank);
     return newBank;
   }
 
@@ -86,36 +207,308 @@ public class CentralBank implements Subject {
    @throws BankAccountException if there is an issue with one or both bank accounts involved in the transaction
    */
   public MoneyTransferTransaction moneyTransferTransaction(
-      BankAccount bankAccountFrom, BankAccount bankAccountTo, BigDecimal money)
+      BankAccount bankAccountFrom, BankAccount bankAccountTo, Money money)
+      throws BankException, TransactionException, BankAccountException {
+    return moneyTransferTransaction(bankAccountFrom, bankAccountTo, money, null);
+  }
+
+  /**
+   Transfers a specified amount of money from one bank account to another once per request ID.
+   A retry with the same request ID doesn't transfer the money again, it returns the transaction of the first call,
+   so the requests delivered more than once by a queue are executed once.
+   @param bankAccountFrom the bank account from which the money will be transferred
+   @param bankAccountTo the bank account to which the money will be transferred
+   @param money the amount of money to be transferred
+   @param requestId the ID of the request, or null to execute the transfer without deduplication
+   @return the new money transfer transaction, or the transaction of the first call with the request ID
+   @throws BankException if there is an issue with the bank(s) involved in the transaction
+   @throws TransactionException if there is an issue with the transaction itself, or the request ID was used for another type of transaction
+   @throws BankAccountException if there is an issue with one or both bank accounts involved in the transaction
+   */
+  public MoneyTransferTransaction moneyTransferTransaction(
+      BankAccount bankAccountFrom, BankAccount bankAccountTo, Money money, String requestId)
+      throws BankException, TransactionException, BankAccountException {
+    return requestCache.execute(requestId, MoneyTransferTransaction.class,
+        () -> executeTransfer(bankAccountFrom, bankAccountTo, money));
+  }
+
+  /**
+   Transfers a specified amount of money from one bank account to another.
+   @param bankAccountFrom the bank account from which the money will be transferred
+   @param bankAccountTo the bank account to which the money will be transferred
+   @param money the amount of money to be transferred
+   @return the new money transfer transaction created as a result of the transfer
+   @throws BankException if there is an issue with the bank(s) involved in the transaction
+   @throws TransactionException if there is an issue with the transaction itself
+   @throws BankAccountException if there is an issue with one or both bank accounts involved in the transaction
+   */
+  private MoneyTransferTransaction executeTransfer(
+      BankAccount bankAccountFrom, BankAccount bankAccountTo, Money money)
       throws BankException, TransactionException, BankAccountException {
     if (bankAccountFrom == null) throw BankException.invalidBankAccount();
     if (bankAccountTo == null) throw BankException.invalidBankAccount();
-    if (money.compareTo(BigDecimal.ZERO) < 0) throw BankException.invalidAmountOfMoney(money);
+    if (money.isNegative()) throw BankException.invalidAmountOfMoney(money);
 
-    if (!bankAccountFrom.getOwner().isVerified() && money.compareTo(bankAccountFrom.getBank().getRestrictionForNotVerifiedCustomers()) > 0) throw BankException.invalidOperation();
+    if (!bankAccountFrom.getBank().reserveOperation(bankAccountFrom, money)) {
+      metrics.increment(MetricCounter.REJECTED_OPERATIONS);
+      throw BankException.invalidOperation();
+    }
 
     var newMoneyTransferTransaction = new MoneyTransferTransaction(bankAccountFrom, bankAccountTo, money);
-    newMoneyTransferTransaction.execute();
-    transactions.add(newMoneyTransferTransaction);
+    long start = metrics.startTimer();
+    accountLock.lock(bankAccountFrom, bankAccountTo);
+    try {
+      newMoneyTransferTransaction.execute();
+      operationLog.transactionExecuted(newMoneyTransferTransaction, true);
+      transactions.add(newMoneyTransferTransaction);
+      record(newMoneyTransferTransaction);
+    } catch (TransactionException | BankAccountException e) {
+      bankAccountFrom.getBank().releaseOperation(bankAccountFrom, money);
+      metrics.increment(MetricCounter.DECLINED_TRANSACTIONS);
+      throw e;
+    } finally {
+      accountLock.unlock(bankAccountFrom, bankAccountTo);
+    }
+    metrics.stopTimer(MetricTimer.TRANSACTION, start);
+    metrics.increment(MetricCounter.TRANSFERS);
+
+    return newMoneyTransferTransaction;
+  }
 
-    if (bankAccountFrom.getBank() == bankAccountTo.getBank())
+  /**
+   Records an executed transfer in the journals of its banks, or leaves a transfer between two banks
+   for the next settlement run in the net clearing mode. Called while the bank accounts of the transfer are locked,
+   so the journals get the operations on a bank account in the order they were executed.
+   @param transaction the executed transfer
+   @throws BankException if the transfer can't be added to the journal of a bank
+   */
+  private void record(MoneyTransferTransaction transaction) throws BankException {
+    Bank bankFrom = transaction.getAccountFrom().getBank();
+    Bank bankTo = transaction.getAccountTo().getBank();
+    if (bankFrom == bankTo)
     {
-      bankAccountFrom.getBank().addMoneyTransferTransaction(newMoneyTransferTransaction);
+      bankFrom.addMoneyTransferTransaction(transaction);
+    }
+    else if (clearingMode == ClearingMode.NET)
+    {
+      clearingHouse.add(transaction);
     }
     else
     {
-      bankAccountFrom.getBank().addMoneyTransferTransaction(newMoneyTransferTransaction);
-      bankAccountTo.getBank().addMoneyTransferTransaction(newMoneyTransferTransaction);
+      bankFrom.addMoneyTransferTransaction(transaction);
+      bankTo.addMoneyTransferTransaction(transaction);
     }
+  }
 
-    return newMoneyTransferTransaction;
+  /**
+   Settles the transfers between banks that wait for settlement.
+   The transfers are recorded in the journals of their banks once per bank, and netted into one position per pair
+   of banks. The transfers executed while the run is made wait for the next one. The report is made before
+   the transfers are recorded, so a run that fails leaves its transfers waiting for the next one.
+   @return the report of the run
+   */
+  public synchronized SettlementReport settle() {
+    List<MoneyTransferTransaction> transfers = clearingHouse.drain();
+    SettlementReport report;
+    try {
+      report = clearingHouse.net(transfers, timeProvider.getDay());
+    } catch (RuntimeException e) {
+      clearingHouse.requeue(transfers);
+      throw e;
+    }
+
+    Map<Bank, List<Transaction>> transactionsByBank = new LinkedHashMap<>();
+    for (MoneyTransferTransaction transfer : transfers) {
+      transactionsByBank.computeIfAbsent(transfer.getAccountFrom().getBank(), bank -> new ArrayList<>()).add(transfer);
+      transactionsByBank.computeIfAbsent(transfer.getAccountTo().getBank(), bank -> new ArrayList<>()).add(transfer);
+    }
+    for (Map.Entry<Bank, List<Transaction>> bankTransactions : transactionsByBank.entrySet()) {
+      bankTransactions.getKey().getTransactions().appendAll(bankTransactions.getValue());
+    }
+
+    lastSettlement = report;
+    return report;
+  }
+
+  /**
+   Gets the number of transfers between banks that wait for settlement.
+   @return the number of pending transfers
+   */
+  public int getPendingTransferCount() {
+    return clearingHouse.size();
+  }
+
+  /**
+   Transfers money for every request of the given batch, skipping the transfers that can't be executed.
+   @param requests the transfers to execute, in order
+   @return the result of every transfer, in the order of the requests
+   @throws CentralBankException if the batch is null
+   @throws BankException if there is an issue with the banks involved in the transfers
+   @throws TransactionException if there is an issue with a transaction
+   @throws BankAccountException if there is an issue with a bank account
+   */
+  public List<TransferResult> submitBatch(List<TransferRequest> requests)
+      throws CentralBankException, BankException, TransactionException, BankAccountException {
+    return submitBatch(requests, BatchMode.BEST_EFFORT);
+  }
+
+  /**
+   Transfers money for every request of the given batch.
+   The whole batch is validated first. Then the bank accounts of all valid transfers are locked at once and
+   the transfers are executed in order, so a transfer can spend the money received by an earlier one. The executed
+   transfers are appended to the journal of the central bank and to the journals of their banks once per batch;
+   in the net clearing mode the transfers between two banks wait for the next settlement run instead, like single ones.
+   In the all-or-nothing mode an invalid request cancels the whole batch, and a transfer that can't be executed
+   for any reason, including a failure of a bank account or an overflow of a balance, reverts the transfers
+   executed before it.
+   @param requests the transfers to execute, in order
+   @param mode the way the batch is applied
+   @return the result of every transfer, in the order of the requests
+   @throws CentralBankException if the batch or the mode is null
+   @throws BankException if there is an issue with the banks involved in the transfers
+   @throws TransactionException if there is an issue with a transaction
+   @throws BankAccountException if there is an issue with a bank account
+   */
+  public List<TransferResult> submitBatch(List<TransferRequest> requests, BatchMode mode)
+      throws CentralBankException, BankException, TransactionException, BankAccountException {
+    if (requests == null) throw CentralBankException.invalidBatch();
+    if (mode == null) throw CentralBankException.invalidBatchMode();
+
+    TransferResult[] results = new TransferResult[requests.size()];
+    boolean[] isReserved = new boolean[requests.size()];
+    try {
+      return executeBatch(requests, mode, results, isReserved);
+    } finally {
+      for (int i = 0; i < results.length; i++) {
+        if (isReserved[i] && (results[i] == null || !results[i].isExecuted())) {
+          TransferRequest request = requests.get(i);
+          request.getAccountFrom().getBank().releaseOperation(request.getAccountFrom(), request.getMoney());
+        }
+      }
+    }
+  }
+
+  /**
+   Transfers money for every request of a batch. Every valid request is recorded in the velocity window of
+   the owner of the bank account the money is taken from, so the transfers that end up without being executed
+   are released by the caller, also when the batch fails.
+   @param requests the transfers to execute, in order
+   @param mode the way the batch is applied
+   @param results the result of every transfer, filled in as the batch goes on
+   @param isReserved set for every request recorded in the velocity window
+   @return the result of every transfer, in the order of the requests
+   @throws BankException if there is an issue with the banks involved in the transfers
+   @throws TransactionException if there is an issue with a transaction
+   @throws BankAccountException if there is an issue with a bank account
+   */
+  private List<TransferResult> executeBatch(
+      List<TransferRequest> requests, BatchMode mode, TransferResult[] results, boolean[] isReserved)
+      throws BankException, TransactionException, BankAccountException {
+
+    List<BankAccount> bankAccounts = new ArrayList<>();
+    boolean isBatchValid = true;
+    for (int i = 0; i < results.length; i++) {
+      TransferRequest request = requests.get(i);
+      TransferStatus rejection = rejectionOf(request);
+      if (rejection != null) {
+        results[i] = new TransferResult(rejection, null);
+        isBatchValid = false;
+        if (rejection == TransferStatus.NOT_ALLOWED) metrics.increment(MetricCounter.REJECTED_OPERATIONS);
+      } else {
+        isReserved[i] = true;
+        bankAccounts.add(request.getAccountFrom());
+        bankAccounts.add(request.getAccountTo());
+      }
+    }
+    if (mode == BatchMode.ALL_OR_NOTHING && !isBatchValid) return cancelRemaining(results);
+
+    List<MoneyTransferTransaction> executed = new ArrayList<>();
+    accountLock.lockAll(bankAccounts);
+    try {
+      for (int i = 0; i < results.length; i++) {
+        if (results[i] != null) continue;
+
+        TransferRequest request = requests.get(i);
+        var newMoneyTransferTransaction = new MoneyTransferTransaction(request.getAccountFrom(), request.getAccountTo(), request.getMoney());
+        long start = metrics.startTimer();
+        try {
+          newMoneyTransferTransaction.execute();
+        } catch (TransactionException | BankAccountException | RuntimeException e) {
+          metrics.increment(MetricCounter.DECLINED_TRANSACTIONS);
+          results[i] = new TransferResult(TransferStatus.DECLINED, null);
+          if (mode == BatchMode.BEST_EFFORT) continue;
+
+          for (int j = executed.size() - 1; j >= 0; j--) {
+            executed.get(j).rollback();
+          }
+          Arrays.fill(results, 0, i, null);
+          return cancelRemaining(results);
+        }
+        metrics.stopTimer(MetricTimer.TRANSACTION, start);
+        executed.add(newMoneyTransferTransaction);
+        results[i] = new TransferResult(TransferStatus.EXECUTED, newMoneyTransferTransaction);
+      }
+
+      for (MoneyTransferTransaction transaction : executed) {
+        operationLog.transactionExecuted(transaction, true);
+        metrics.increment(MetricCounter.TRANSFERS);
+      }
+
+      transactions.appendAll(executed);
+      Map<Bank, List<Transaction>> transactionsByBank = new LinkedHashMap<>();
+      for (MoneyTransferTransaction transaction : executed) {
+        Bank bankFrom = transaction.getAccountFrom().getBank();
+        Bank bankTo = transaction.getAccountTo().getBank();
+        if (bankTo != bankFrom && clearingMode == ClearingMode.NET) {
+          clearingHouse.add(transaction);
+          continue;
+        }
+        transactionsByBank.computeIfAbsent(bankFrom, bank -> new ArrayList<>()).add(transaction);
+        if (bankTo != bankFrom)
+          transactionsByBank.computeIfAbsent(bankTo, bank -> new ArrayList<>()).add(transaction);
+      }
+      for (Map.Entry<Bank, List<Transaction>> bankTransactions : transactionsByBank.entrySet()) {
+        bankTransactions.getKey().addMoneyTransferTransactions(bankTransactions.getValue());
+      }
+    } finally {
+      accountLock.unlockAll(bankAccounts);
+    }
+
+    return Arrays.asList(results);
+  }
+
+  /**
+   Checks the given transfer request before the batch is executed, recording a valid one in the velocity window
+   of the owner of the bank account the money is taken from.
+   @param request the transfer request
+   @return the status of the rejected request, or null if the request is valid
+   */
+  private static TransferStatus rejectionOf(TransferRequest request) {
+    if (request == null || request.getAccountFrom() == null || request.getAccountTo() == null) return TransferStatus.INVALID;
+    if (request.getMoney() == null || request.getMoney().isNegative()) return TransferStatus.INVALID;
+    if (!request.getAccountFrom().getBank().reserveOperation(request.getAccountFrom(), request.getMoney())) return TransferStatus.NOT_ALLOWED;
+    return null;
   }
 
   /**
-   Rolls back a given {@link MoneyTransferTransaction}.
+   Marks every transfer of the batch that has no result yet as cancelled.
+   @param results the results of the batch, null for the transfers without a result
+   @return the results of the batch
+   */
+  private static List<TransferResult> cancelRemaining(TransferResult[] results) {
+    for (int i = 0; i < results.length; i++) {
+      if (results[i] == null) results[i] = new TransferResult(TransferStatus.CANCELLED, null);
+    }
+    return Arrays.asList(results);
+  }
+
+  /**
+   Rolls back a given {@link MoneyTransferTransaction} and marks it as rolled back in the journals of the central bank
+   and of the banks of both bank accounts. A transfer that waits for settlement is recorded by its banks at once
+   and isn't settled.
    @param transaction the {@link MoneyTransferTransaction} to be rolled back.
    @return the rolled back {@link MoneyTransferTransaction}.
-   @throws BankException if there is a problem with the bank system.
+   @throws BankException if there is a problem with the bank system or the transaction was already rolled back.
    @throws BankAccountException if there is a problem with one of the bank accounts.
    @throws TransactionException if there is a problem with the transaction.
    */
@@ -124,7 +517,23 @@ public class CentralBank implements Subject {
     if (transaction == null) throw BankException.invalidTransaction();
     if (!transactions.contains(transaction)) throw BankException.transactionDoesntExistInSystem();
 
-    transaction.rollback();
+    long start = metrics.startTimer();
+    accountLock.lock(transaction.getAccountFrom(), transaction.getAccountTo());
+    try {
+      if (transaction.isRolledBack() || transactions.isRolledBack(transaction)) throw BankException.transactionAlreadyRolledBack();
+      transaction.rollback();
+      transactions.markRolledBack(transaction);
+      operationLog.transferRolledBack(transaction);
+      if (clearingHouse.remove(transaction)) {
+        transaction.getAccountFrom().getBank().getTransactions().add(transaction);
+        transaction.getAccountTo().getBank().getTransactions().add(transaction);
+      }
+      markRolledBack(transaction);
+    } finally {
+      accountLock.unlock(transaction.getAccountFrom(), transaction.getAccountTo());
+    }
+    metrics.stopTimer(MetricTimer.ROLLBACK, start);
+    metrics.increment(MetricCounter.ROLLBACKS);
 
     return transaction;
   }
@@ -150,39 +559,125 @@ public class CentralBank implements Subject {
   }
 
   /**
-   Notifies the Central Bank that a transaction has been rolled back and deletes the transaction from the
-   corresponding banks' transaction lists.
+   Notifies the Central Bank that a transaction has been rolled back and marks the transaction as rolled back in the
+   corresponding banks' transaction journals.
    @param transaction the transaction that was rolled back
    @throws TransactionException if the transaction is null
    */
   public void rolledBackTransaction(Transaction transaction) throws TransactionException {
     if (transaction == null) throw TransactionException.invalidTransaction();
 
+    markRolledBack(transaction);
+    operationLog.transactionMarkedRolledBack(transaction);
+  }
+
+  /**
+   Marks the given transaction as rolled back in the journals of the banks of both bank accounts.
+   @param transaction the transaction that was rolled back
+   @throws TransactionException if the transaction is null
+   */
+  private void markRolledBack(Transaction transaction) throws TransactionException {
     if (transaction.getAccountFrom().getBank() == transaction.getAccountTo().getBank())
     {
-      transaction.getAccountFrom().getBank().deleteTransaction(transaction);
+      transaction.getAccountFrom().getBank().markTransactionRolledBack(transaction);
     }
     else
     {
-      transaction.getAccountFrom().getBank().deleteTransaction(transaction);
-      transaction.getAccountTo().getBank().deleteTransaction(transaction);
+      transaction.getAccountFrom().getBank().markTransactionRolledBack(transaction);
+      transaction.getAccountTo().getBank().markTransactionRolledBack(transaction);
+    }
+  }
+
+  /**
+   Takes a consistent snapshot of the balances of all bank accounts of all banks without stopping the transactions.
+   A transfer between two banks is either in the balances of both bank accounts or in neither.
+   @return the balances of the bank accounts at one moment
+   */
+  public BalanceSnapshot snapshot() {
+    List<BankAccount> bankAccounts = new ArrayList<>();
+    for (Bank bank : banks) {
+      List<BankAccount> accounts = bank.getBankAccounts();
+      synchronized (accounts) {
+        bankAccounts.addAll(accounts);
+      }
+    }
+    return accountLock.snapshot(bankAccounts);
+  }
+
+  /**
+   Adds up the figures of all banks. Like the figures of a bank, the balances include the interest and
+   the commissions capitalised at the last month end.
+   @return the sums of the current figures of the banks
+   */
+  public BankStats getStats() {
+    BankStats stats = BankStats.EMPTY;
+    for (Bank bank : banks) {
+      stats = stats.add(bank.getStats());
     }
+    return stats;
   }
 
   /**
    Changes the current date to the given time and notifies all the registered watchers of the change.
+   The days are passed to the watchers in periods that end either on the last day of a month or on the day before
+   the given time, so every watcher is notified once per month instead of once per day.
+   No snapshot of the balances is taken while the date changes. In the net clearing mode the pending transfers are
+   settled first.
    @param time the new time to be set
    */
   public void changeDate(Calendar time)
   {
-    Calendar newDate = timeProvider.getDate();
+    long start = metrics.startTimer();
+    changeDate(time, (lastDay, days) -> watchers.forEach(bank -> bank.updateDates(lastDay, days)));
+    metrics.stopTimer(MetricTimer.DATE_CHANGE, start);
+    operationLog.dateChanged(time);
+  }
 
-    while (timeProvider.getDate().compareTo(time) != 0)
-    {
-      watchers.forEach(bank ->
-          bank.updateDate(timeProvider.getDate()));
-      newDate.add(Calendar.DAY_OF_MONTH, 1);
-      timeProvider.changeDate(newDate);
+  /**
+   Changes the current date to the given time and notifies all the registered watchers of the change in parallel.
+   Every watcher is updated by its own task in the given pool. Each period ends with a barrier: the next period isn't started until every
+   watcher has finished the previous one, so the capitalisation at the end of a month is seen by all banks at once.
+   @param time the new time to be set
+   @param pool the fork-join pool the watchers are updated in
+   @throws CentralBankException if the pool is null
+   */
+  public void changeDate(Calendar time, ForkJoinPool pool) throws CentralBankException
+  {
+    if (pool == null) throw CentralBankException.invalidPool();
+
+    long start = metrics.startTimer();
+    changeDate(time, (lastDay, days) -> {
+      List<ForkJoinTask<?>> tasks = new ArrayList<>();
+      for (Watcher watcher : watchers) {
+        tasks.add(ForkJoinTask.adapt(() -> watcher.updateDates(lastDay, days)));
+      }
+      pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    });
+    metrics.stopTimer(MetricTimer.DATE_CHANGE, start);
+    operationLog.dateChanged(time);
+  }
+
+  /**
+   Moves the current date to the given time period by period and passes every period to the given action.
+   The date is stepped as an epoch day, so a period costs a lookup of the end of its month.
+   @param time the new time to be set
+   @param periodChange the action that receives the last day of each period and the number of days in it
+   */
+  private void changeDate(Calendar time, BiConsumer<Integer, Integer> periodChange)
+  {
+    int endDay = EpochDays.of(time);
+    if (clearingMode == ClearingMode.NET) settle();
+
+    accountLock.lockSnapshots();
+    try {
+      for (int day = timeProvider.getDay(); day < endDay; day = timeProvider.getDay())
+      {
+        int lastDay = Math.min(EpochDays.endOfMonth(day), endDay - 1);
+        periodChange.accept(lastDay, lastDay - day + 1);
+        timeProvider.changeDay(lastDay + 1);
+      }
+    } finally {
+      accountLock.unlockSnapshots();
     }
   }
 
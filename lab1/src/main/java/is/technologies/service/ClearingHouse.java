@@ -0,0 +1,143 @@
+package is.technologies.service;
+
+import is.technologies.entities.MoneyTransferTransaction;
+import is.technologies.entities.Money;
+import is.technologies.models.Bank;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ The ClearingHouse class buffers the executed transfers between banks until they are settled, and nets them
+ into one position per pair of banks. The buffer keeps the transfers in the order they were executed, and
+ a transfer that is rolled back before it is settled can be taken out of it.
+ */
+final class ClearingHouse {
+
+  /**The executed transfers that aren't settled yet, in the order they were executed.*/
+  private final LinkedHashSet<MoneyTransferTransaction> pending;
+
+  /**The number of settlement runs made.*/
+  private int runs;
+
+  /**
+   Creates a new clearing house without pending transfers.
+   */
+  ClearingHouse() {
+    pending = new LinkedHashSet<>();
+    runs = 0;
+  }
+
+  /**
+   Buffers an executed transfer until the next settlement run.
+   @param transaction the executed transfer between two banks
+   */
+  synchronized void add(MoneyTransferTransaction transaction) {
+    pending.add(transaction);
+  }
+
+  /**
+   Takes a transfer out of the buffer.
+   @param transaction the transfer
+   @return true if the transfer was waiting for settlement
+   */
+  synchronized boolean remove(MoneyTransferTransaction transaction) {
+    return pending.remove(transaction);
+  }
+
+  /**
+   Gets the number of transfers waiting for settlement.
+   @return the number of pending transfers
+   */
+  synchronized int size() {
+    return pending.size();
+  }
+
+  /**
+   Takes all pending transfers out of the buffer for a settlement run.
+   @return the pending transfers in the order they were executed
+   */
+  synchronized List<MoneyTransferTransaction> drain() {
+    List<MoneyTransferTransaction> transfers = new ArrayList<>(pending);
+    pending.clear();
+    return transfers;
+  }
+
+  /**
+   Puts the transfers of a settlement run that failed back in front of the buffer, so the next run settles them
+   together with the transfers executed since.
+   @param transfers the transfers of the failed run in the order they were executed
+   */
+  synchronized void requeue(List<MoneyTransferTransaction> transfers) {
+    LinkedHashSet<MoneyTransferTransaction> executedSince = new LinkedHashSet<>(pending);
+    pending.clear();
+    pending.addAll(transfers);
+    pending.addAll(executedSince);
+  }
+
+  /**
+   Nets the transfers of a settlement run into one position per pair of banks.
+   @param transfers the transfers of the run
+   @param day the date of the run as an epoch day
+   @return the report of the run
+   */
+  synchronized SettlementReport net(List<MoneyTransferTransaction> transfers, int day) {
+    Map<Long, Pair> pairs = new TreeMap<>();
+    BigInteger grossUnits = BigInteger.ZERO;
+    for (MoneyTransferTransaction transfer : transfers) {
+      Bank bankFrom = transfer.getAccountFrom().getBank();
+      Bank bankTo = transfer.getAccountTo().getBank();
+      boolean isFromLower = bankFrom.getId() < bankTo.getId();
+      Bank lower = isFromLower ? bankFrom : bankTo;
+      Bank higher = isFromLower ? bankTo : bankFrom;
+
+      Pair pair = pairs.computeIfAbsent(((long) lower.getId() << 32) | higher.getId(), key -> new Pair(lower, higher));
+      BigInteger units = BigInteger.valueOf(transfer.getMoney().getUnits());
+      pair.units = isFromLower ? pair.units.add(units) : pair.units.subtract(units);
+      pair.transferCount++;
+      grossUnits = grossUnits.add(units);
+    }
+
+    List<SettlementPosition> positions = new ArrayList<>(pairs.size());
+    for (Pair pair : pairs.values()) {
+      positions.add(pair.units.signum() >= 0
+          ? new SettlementPosition(pair.lower, pair.higher, pair.transferCount, new BigDecimal(pair.units, Money.SCALE))
+          : new SettlementPosition(pair.higher, pair.lower, pair.transferCount, new BigDecimal(pair.units.negate(), Money.SCALE)));
+    }
+    runs++;
+    return new SettlementReport(runs, day, positions, transfers.size(), new BigDecimal(grossUnits, Money.SCALE));
+  }
+
+  /**
+   The running position of a pair of banks, positive when the bank with the lower ID owes the other one.
+   */
+  private static final class Pair {
+
+    /**The bank of the pair with the lower ID.*/
+    private final Bank lower;
+
+    /**The bank of the pair with the higher ID.*/
+    private final Bank higher;
+
+    /**The net amount the lower bank owes the higher one, in minor units.*/
+    private BigInteger units;
+
+    /**The number of transfers between the banks.*/
+    private int transferCount;
+
+    /**
+     Creates a new pair without transfers.
+     @param lower the bank with the lower ID
+     @param higher the bank with the higher ID
+     */
+    private Pair(Bank lower, Bank higher) {
+      this.lower = lower;
+      this.higher = higher;
+      units = BigInteger.ZERO;
+    }
+  }
+}
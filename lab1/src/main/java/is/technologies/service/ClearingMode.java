@@ -0,0 +1,13 @@
+package is.technologies.service;
+
+/**
+ Represents the ways the transfers between the bank accounts of two different banks are recorded by their banks.
+ */
+public enum ClearingMode {
+
+  /**Every transfer is recorded in the journals of both banks as soon as it is executed.*/
+  GROSS,
+
+  /**The transfers are recorded in the journals of the banks when they are settled, netted per pair of banks.*/
+  NET
+}
@@ -0,0 +1,39 @@
+package is.technologies.service;
+
+import is.technologies.models.Bank;
+import java.math.BigDecimal;
+import lombok.Getter;
+
+/**
+ The SettlementPosition class is the net result of the transfers between two banks in one settlement run:
+ the money one bank owes the other after the transfers in both directions are offset against each other.
+ */
+@Getter
+public class SettlementPosition {
+
+  /**The bank that owes the money, the one whose bank accounts sent more than they received.*/
+  private final Bank payer;
+
+  /**The bank that is owed the money.*/
+  private final Bank payee;
+
+  /**The number of transfers between the two banks in both directions.*/
+  private final int transferCount;
+
+  /**The net amount the payer owes the payee, a decimal because the transfers of a run may add up to more than a Money holds.*/
+  private final BigDecimal amount;
+
+  /**
+   Creates a new position.
+   @param payer the bank that owes the money
+   @param payee the bank that is owed the money
+   @param transferCount the number of transfers between the two banks
+   @param amount the net amount the payer owes the payee
+   */
+  SettlementPosition(Bank payer, Bank payee, int transferCount, BigDecimal amount) {
+    this.payer = payer;
+    this.payee = payee;
+    this.transferCount = transferCount;
+    this.amount = amount;
+  }
+}
@@ -0,0 +1,70 @@
+package is.technologies.service;
+
+import is.technologies.entities.EpochDays;
+import is.technologies.entities.Money;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ The SettlementReport class sums up one settlement run of the transfers between banks.
+ It keeps one position per pair of banks that exchanged money instead of the transfers themselves.
+ */
+@Getter
+public class SettlementReport {
+
+  /**The number of the settlement run, counted from 1.*/
+  private final int run;
+
+  /**The date of the central bank when the run was made, as an epoch day.*/
+  @Getter(AccessLevel.NONE)
+  private final int day;
+
+  /**The net positions of the pairs of banks, ordered by the IDs of the banks.*/
+  private final List<SettlementPosition> positions;
+
+  /**The number of settled transfers.*/
+  private final int transferCount;
+
+  /**The sum of the settled transfers before netting, a decimal because it may add up to more than a Money holds.*/
+  private final BigDecimal grossAmount;
+
+  /**
+   Creates a new report.
+   @param run the number of the settlement run
+   @param day the date of the run as an epoch day
+   @param positions the net positions of the pairs of banks
+   @param transferCount the number of settled transfers
+   @param grossAmount the sum of the settled transfers
+   */
+  SettlementReport(int run, int day, List<SettlementPosition> positions, int transferCount, BigDecimal grossAmount) {
+    this.run = run;
+    this.day = day;
+    this.positions = Collections.unmodifiableList(positions);
+    this.transferCount = transferCount;
+    this.grossAmount = grossAmount;
+  }
+
+  /**
+   Gets the date of the central bank when the run was made.
+   @return a new calendar set to the date of the run
+   */
+  public Calendar getDate() {
+    return EpochDays.toCalendar(day);
+  }
+
+  /**
+   Adds up the money that changed hands between the banks after netting.
+   @return the sum of the net amounts of all positions
+   */
+  public BigDecimal getNetAmount() {
+    BigDecimal total = BigDecimal.valueOf(0, Money.SCALE);
+    for (SettlementPosition position : positions) {
+      total = total.add(position.getAmount());
+    }
+    return total;
+  }
+}
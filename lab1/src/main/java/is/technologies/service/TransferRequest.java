@@ -0,0 +1,34 @@
+package is.technologies.service;
+
+import is.technologies.entities.BankAccount;
+import is.technologies.entities.Money;
+import lombok.Getter;
+
+/**
+ The TransferRequest class describes one transfer of a batch submitted to the central bank.
+ The request isn't validated when it is created, the whole batch is validated when it is submitted.
+ */
+@Getter
+public class TransferRequest {
+
+  /**The bank account the money is transferred from.*/
+  private final BankAccount accountFrom;
+
+  /**The bank account the money is transferred to.*/
+  private final BankAccount accountTo;
+
+  /**The amount of money to transfer.*/
+  private final Money money;
+
+  /**
+   Creates a new transfer request.
+   @param accountFrom the bank account the money is transferred from
+   @param accountTo the bank account the money is transferred to
+   @param money the amount of money to transfer
+   */
+  public TransferRequest(BankAccount accountFrom, BankAccount accountTo, Money money) {
+    this.accountFrom = accountFrom;
+    this.accountTo = accountTo;
+    this.money = money;
+  }
+}
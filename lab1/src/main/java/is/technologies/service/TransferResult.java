@@ -0,0 +1,35 @@
+package is.technologies.service;
+
+import is.technologies.entities.MoneyTransferTransaction;
+import lombok.Getter;
+
+/**
+ The TransferResult class is the outcome of one transfer of a batch.
+ */
+@Getter
+public class TransferResult {
+
+  /**The outcome of the transfer.*/
+  private final TransferStatus status;
+
+  /**The executed transaction, or null if the transfer wasn't executed.*/
+  private final MoneyTransferTransaction transaction;
+
+  /**
+   Creates a new result of a transfer.
+   @param status the outcome of the transfer
+   @param transaction the executed transaction, or null if the transfer wasn't executed
+   */
+  TransferResult(TransferStatus status, MoneyTransferTransaction transaction) {
+    this.status = status;
+    this.transaction = transaction;
+  }
+
+  /**
+   Checks if the transfer was executed.
+   @return true if the transfer was executed, false otherwise
+   */
+  public boolean isExecuted() {
+    return status == TransferStatus.EXECUTED;
+  }
+}
@@ -0,0 +1,22 @@
+package is.technologies.service;
+
+/**
+ Represents the outcome of one transfer of a batch.
+ */
+public enum TransferStatus {
+
+  /**The transfer was executed.*/
+  EXECUTED,
+
+  /**The transfer request is invalid: it is null, misses a bank account or the amount of money is invalid.*/
+  INVALID,
+
+  /**The owner of the bank account the money is taken from isn't allowed to transfer this amount.*/
+  NOT_ALLOWED,
+
+  /**The bank account the money is taken from doesn't have enough money.*/
+  DECLINED,
+
+  /**The transfer was valid but not executed, because another transfer of an all-or-nothing batch failed.*/
+  CANCELLED
+}
@@ -0,0 +1,33 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.notifications.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Assertions;
+
+class AsyncNotificationTest {
+  @org.junit.jupiter.api.Test
+  void dispatcherDeliversRateChangesInBackground()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, MediatorException, NotificationException {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    newClient.setMediator(new ClientMediator(newClient));
+    Client brokenClient = new Client.Builder().setFirstName("Ivanov").setSurname("Ivan").build();
+    sber.addNewClient(newClient);
+    sber.addNewClient(brokenClient);
+    sber.addNewCreditAccountToClient(newClient);
+    sber.addNewCreditAccountToClient(brokenClient);
+
+    try (var dispatcher = new NotificationDispatcher(2, 16)) {
+      sber.setNotificationDispatcher(dispatcher);
+      var failedClients = sber.changeCreditLimit(new BigDecimal(60000)).join();
+
+      Assertions.assertEquals(1, failedClients.size());
+      Assertions.assertSame(brokenClient, failedClients.get(0));
+      Assertions.assertEquals(1, newClient.getUsefulNotifications().size());
+    }
+  }
+}
@@ -0,0 +1,81 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Assertions;
+
+class BalanceSnapshotTest {
+  @org.junit.jupiter.api.Test
+  void snapshotsDuringTransfersKeepTotalMoney()
+      throws Exception {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Bank tinkoff = centralBank.addNewBank("Tinkoff", new BigDecimal(6), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(200), new BigDecimal(20000), new BigDecimal(500000));
+
+    List<BankAccount> accounts = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      Bank bank = i % 2 == 0 ? sber : tinkoff;
+      Client client = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 " + i).build();
+      bank.addNewClient(client);
+      bank.addNewDebitAccountToClient(client);
+      BankAccount account = client.getBankAccounts().get(0);
+      bank.moneyTopUpTransaction(account, Money.of(1000));
+      accounts.add(account);
+    }
+
+    Client newClient = new Client.Builder().setFirstName("Ivanov").setSurname("Ivan").setAddress("Lenina 1").setPassport("4010 1234567").build();
+    sber.addNewClient(newClient);
+
+    AtomicBoolean running = new AtomicBoolean(true);
+    ExecutorService executor = Executors.newFixedThreadPool(5);
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < 4; i++) {
+        futures.add(executor.submit(() -> {
+          ThreadLocalRandom random = ThreadLocalRandom.current();
+          while (running.get()) {
+            BankAccount from = accounts.get(random.nextInt(accounts.size()));
+            BankAccount to = accounts.get(random.nextInt(accounts.size()));
+            try {
+              centralBank.moneyTransferTransaction(from, to, Money.of(1 + random.nextInt(300)));
+            } catch (TransactionException e) {
+              // not enough money on the account
+            }
+          }
+          return null;
+        }));
+      }
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < 100 && running.get(); i++) {
+          sber.addNewDebitAccountToClient(newClient);
+        }
+        return null;
+      }));
+
+      long version = -1;
+      for (int i = 0; i < 2000; i++) {
+        BalanceSnapshot snapshot = centralBank.snapshot();
+        Assertions.assertEquals(Money.of(16000), snapshot.getTotal());
+        Assertions.assertTrue(snapshot.getVersion() > version);
+        version = snapshot.getVersion();
+      }
+    } finally {
+      running.set(false);
+      executor.shutdown();
+    }
+    for (Future<?> future : futures) {
+      future.get(1, TimeUnit.MINUTES);
+    }
+    Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    Assertions.assertEquals(Money.of(16000), sber.snapshot().getTotal().add(tinkoff.snapshot().getTotal()));
+  }
+}
@@ -0,0 +1,54 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Assertions;
+
+class BankStatsTest {
+  @org.junit.jupiter.api.Test
+  void statsFollowOperationsWithoutWalkingAccounts()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException, CentralBankException {
+    var timeProver = new TimeProvider();
+    var centralBank = new CentralBank(timeProver);
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Bank tinkoff = centralBank.addNewBank("Tinkoff", new BigDecimal(6), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(200), new BigDecimal(20000), new BigDecimal(500000));
+
+    Client verified = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    Client unverified = new Client.Builder().setFirstName("Ivanov").setSurname("Ivan").build();
+    sber.addNewClient(verified);
+    sber.addNewClient(unverified);
+    tinkoff.addNewClient(new Client.Builder().setFirstName("Petrov").setSurname("Petr").build());
+    sber.addNewDebitAccountToClient(verified);
+    sber.addNewCreditAccountToClient(verified);
+    sber.addNewDepositAccountToClient(unverified, Money.of(2000), EpochDays.toCalendar(EpochDays.today() + 400));
+    BankAccount debitAccount = verified.getBankAccounts().get(0);
+    BankAccount creditAccount = verified.getBankAccounts().get(1);
+
+    sber.moneyTopUpTransaction(debitAccount, Money.of(1000));
+    sber.moneyWithdrawTransaction(creditAccount, Money.of(300));
+    centralBank.changeDate(EpochDays.toCalendar(timeProver.getDay() + 45));
+
+    BankStats stats = sber.getStats();
+    BankStats centralStats = centralBank.getStats();
+    Assertions.assertEquals(2, stats.getClientCount());
+    Assertions.assertEquals(1, stats.getUnverifiedClientCount());
+    Assertions.assertEquals(3, stats.getAccountCount());
+    Assertions.assertEquals(1, stats.getCreditAccountCount());
+
+    Assertions.assertTrue(stats.getDebitBalance().compareTo(new BigDecimal(1000)) > 0);
+    Assertions.assertTrue(stats.getCreditExposure().compareTo(new BigDecimal(300)) > 0);
+
+    Money total = Money.ZERO;
+    for (BankAccount bankAccount : sber.getBankAccounts()) {
+      total = total.add(bankAccount.getBalance());
+    }
+    Assertions.assertEquals(total.toBigDecimal(), stats.getTotalBalance());
+    Assertions.assertEquals(debitAccount.getBalance().toBigDecimal(), stats.getDebitBalance());
+    Assertions.assertEquals(Money.of(50000).subtract(creditAccount.getBalance()).toBigDecimal(), stats.getCreditExposure());
+
+    Assertions.assertEquals(3, centralStats.getClientCount());
+    Assertions.assertEquals(2, centralStats.getUnverifiedClientCount());
+    Assertions.assertEquals(total.toBigDecimal(), centralStats.getTotalBalance());
+  }
+}
@@ -0,0 +1,44 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Assertions;
+
+class BankStatsVolumeTest {
+  @org.junit.jupiter.api.Test
+  void totalsOfManyLargeAccountsDontOverflow()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Bank tinkoff = centralBank.addNewBank("Tinkoff", new BigDecimal(6), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(200), new BigDecimal(20000), new BigDecimal(500000));
+
+    for (int i = 0; i < 20000; i++) {
+      Client client = new Client.Builder().setFirstName("Client" + i).setSurname("Credit").setAddress("Teatralnaya " + i).setPassport("1017 " + i).build();
+      sber.addNewClient(client);
+      sber.addNewCreditAccountToClient(client);
+      sber.moneyWithdrawTransaction(client.getBankAccounts().get(0), Money.of(500));
+    }
+    Money largeBalance = Money.of(100_000_000_000_000L);
+    for (int i = 0; i < 100; i++) {
+      Client client = new Client.Builder().setFirstName("Client" + i).setSurname("Debit").setAddress("Nevsky " + i).setPassport("4010 " + i).build();
+      tinkoff.addNewClient(client);
+      tinkoff.addNewDebitAccountToClient(client);
+      tinkoff.moneyTopUpTransaction(client.getBankAccounts().get(0), largeBalance);
+    }
+
+    BankStats sberStats = sber.getStats();
+    Assertions.assertEquals(20000, sberStats.getCreditAccountCount());
+    Assertions.assertEquals(0, new BigDecimal("990000000").compareTo(sberStats.getCreditBalance()));
+    Assertions.assertEquals(0, new BigDecimal("10000000").compareTo(sberStats.getCreditExposure()));
+
+    BankStats tinkoffStats = tinkoff.getStats();
+    BigDecimal debitBalance = largeBalance.toBigDecimal().multiply(new BigDecimal(100));
+    Assertions.assertTrue(debitBalance.movePointRight(Money.SCALE).compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0);
+    Assertions.assertEquals(0, debitBalance.compareTo(tinkoffStats.getDebitBalance()));
+
+    BankStats stats = centralBank.getStats();
+    Assertions.assertEquals(20100, stats.getClientCount());
+    Assertions.assertEquals(0, debitBalance.add(new BigDecimal("990000000")).compareTo(stats.getTotalBalance()));
+  }
+}
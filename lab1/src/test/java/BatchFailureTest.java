@@ -0,0 +1,43 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+
+class BatchFailureTest {
+  @org.junit.jupiter.api.Test
+  void failureMidBatchRevertsExecutedTransfers()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException, CentralBankException {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client employer = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    Client employee = new Client.Builder().setFirstName("Ivanov").setSurname("Ivan").setAddress("Lenina 1").setPassport("1017 1111111").build();
+    sber.addNewClient(employer);
+    sber.addNewClient(employee);
+    sber.addNewDebitAccountToClient(employer);
+    sber.addNewDebitAccountToClient(employee);
+    sber.addNewDebitAccountToClient(employee);
+    BankAccount employerAccount = employer.getBankAccounts().get(0);
+    BankAccount employeeAccount = employee.getBankAccounts().get(0);
+    BankAccount fullAccount = employee.getBankAccounts().get(1);
+    employerAccount.topUp(Money.of(1000));
+    fullAccount.topUp(Money.ofUnits(Long.MAX_VALUE));
+
+    List<TransferRequest> batch = List.of(
+        new TransferRequest(employerAccount, employeeAccount, Money.of(100)),
+        new TransferRequest(employerAccount, fullAccount, Money.of(100)),
+        new TransferRequest(employerAccount, employeeAccount, Money.of(100)));
+
+    List<TransferResult> results = centralBank.submitBatch(batch, BatchMode.ALL_OR_NOTHING);
+    Assertions.assertEquals(TransferStatus.CANCELLED, results.get(0).getStatus());
+    Assertions.assertEquals(TransferStatus.DECLINED, results.get(1).getStatus());
+    Assertions.assertEquals(TransferStatus.CANCELLED, results.get(2).getStatus());
+    Assertions.assertEquals(Money.of(1000), employerAccount.getBalance());
+    Assertions.assertEquals(Money.ZERO, employeeAccount.getBalance());
+    Assertions.assertEquals(Money.ofUnits(Long.MAX_VALUE), fullAccount.getBalance());
+    Assertions.assertEquals(0, centralBank.getTransactions().size());
+  }
+}
@@ -0,0 +1,49 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+
+class BatchTransferTest {
+  @org.junit.jupiter.api.Test
+  void batchAppliesTransfersPerMode()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException, CentralBankException {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Bank tinkoff = centralBank.addNewBank("Tinkoff", new BigDecimal(6), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(200), new BigDecimal(20000), new BigDecimal(500000));
+
+    Client employer = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    Client employee = new Client.Builder().setFirstName("Ivanov").setSurname("Ivan").setAddress("Lenina 1").setPassport("1017 1111111").build();
+    sber.addNewClient(employer);
+    tinkoff.addNewClient(employee);
+    sber.addNewDebitAccountToClient(employer);
+    tinkoff.addNewDebitAccountToClient(employee);
+    BankAccount employerAccount = employer.getBankAccounts().get(0);
+    BankAccount employeeAccount = employee.getBankAccounts().get(0);
+    sber.moneyTopUpTransaction(employerAccount, Money.of(1000));
+
+    List<TransferRequest> batch = List.of(
+        new TransferRequest(employerAccount, employeeAccount, Money.of(600)),
+        new TransferRequest(employerAccount, employeeAccount, Money.of(600)),
+        new TransferRequest(employeeAccount, employerAccount, Money.of(100)));
+
+    List<TransferResult> allOrNothing = centralBank.submitBatch(batch, BatchMode.ALL_OR_NOTHING);
+    Assertions.assertEquals(TransferStatus.CANCELLED, allOrNothing.get(0).getStatus());
+    Assertions.assertEquals(TransferStatus.DECLINED, allOrNothing.get(1).getStatus());
+    Assertions.assertEquals(TransferStatus.CANCELLED, allOrNothing.get(2).getStatus());
+    Assertions.assertEquals(Money.of(1000), employerAccount.getBalance());
+    Assertions.assertEquals(0, centralBank.getTransactions().size());
+
+    List<TransferResult> bestEffort = centralBank.submitBatch(batch, BatchMode.BEST_EFFORT);
+    Assertions.assertTrue(bestEffort.get(0).isExecuted());
+    Assertions.assertEquals(TransferStatus.DECLINED, bestEffort.get(1).getStatus());
+    Assertions.assertTrue(bestEffort.get(2).isExecuted());
+    Assertions.assertEquals(Money.of(500), employerAccount.getBalance());
+    Assertions.assertEquals(Money.of(500), employeeAccount.getBalance());
+    Assertions.assertEquals(2, centralBank.getTransactions().size());
+    Assertions.assertEquals(3, sber.getTransactions().size());
+    Assertions.assertEquals(2, tinkoff.getTransactions().size());
+  }
+}
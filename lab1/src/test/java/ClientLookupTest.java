@@ -0,0 +1,40 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+
+class ClientLookupTest {
+  @org.junit.jupiter.api.Test
+  void clientsAndAccountsAreFoundAndPassportsAreUnique()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Bank tinkoff = centralBank.addNewBank("Tinkoff", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    sber.addNewClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+    BankAccount debitAccount = newClient.getBankAccounts().get(0);
+
+    Client otherClient = new Client.Builder().setFirstName("Ivanov").setSurname("Ivan").setAddress("Lenina 1").setPassport("4010 1234567").build();
+    tinkoff.addNewClient(otherClient);
+    tinkoff.addNewDebitAccountToClient(otherClient);
+    BankAccount otherAccount = otherClient.getBankAccounts().get(0);
+
+    Assertions.assertSame(newClient, sber.findClient("1017 3434345").orElseThrow());
+    Assertions.assertTrue(sber.findClient("4010 1234567").isEmpty());
+    Assertions.assertSame(debitAccount, sber.findAccount(debitAccount.getBankAccountId()).orElseThrow());
+    Assertions.assertTrue(sber.findAccount(otherAccount.getBankAccountId()).isEmpty());
+    Assertions.assertTrue(sber.findAccount(new BankAccountId(sber.getId(), UUID.randomUUID())).isEmpty());
+    Assertions.assertTrue(sber.findAccount(null).isEmpty());
+
+    Client samePassportClient = new Client.Builder().setFirstName("Petrov").setSurname("Petr").setAddress("Nevsky 10").setPassport("1017 3434345").build();
+    Assertions.assertThrows(BankException.class, () -> sber.addNewClient(samePassportClient));
+    Assertions.assertThrows(BankException.class, () -> sber.addNewClient(newClient));
+    Assertions.assertEquals(1, sber.getClients().size());
+    Assertions.assertSame(newClient, sber.findClient("1017 3434345").orElseThrow());
+  }
+}
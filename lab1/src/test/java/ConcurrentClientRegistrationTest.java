@@ -0,0 +1,51 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+
+class ConcurrentClientRegistrationTest {
+  @org.junit.jupiter.api.Test
+  void onlyOneClientWithThePassportIsAdded() throws Exception {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Boolean>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < threads; i++) {
+        Client client = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita" + i).setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+        futures.add(executor.submit(() -> {
+          start.await();
+          try {
+            sber.addNewClient(client);
+            return true;
+          } catch (BankException e) {
+            return false;
+          }
+        }));
+      }
+      start.countDown();
+
+      int added = 0;
+      for (Future<Boolean> future : futures) {
+        if (future.get())
+          added++;
+      }
+      Assertions.assertEquals(1, added);
+      Assertions.assertEquals(1, sber.getClients().size());
+      Assertions.assertSame(sber.getClients().get(0), sber.findClient("1017 3434345").orElseThrow());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
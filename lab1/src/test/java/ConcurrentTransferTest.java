@@ -0,0 +1,77 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+
+class ConcurrentTransferTest {
+  @org.junit.jupiter.api.Test
+  void concurrentTransfersKeepTotalMoney()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException, InterruptedException,
+      ExecutionException, TimeoutException {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Bank tinkoff = centralBank.addNewBank("Tinkoff", new BigDecimal(6), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(200), new BigDecimal(20000), new BigDecimal(500000));
+
+    List<BankAccount> accounts = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      Bank bank = i % 2 == 0 ? sber : tinkoff;
+      Client client = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 " + i).build();
+      bank.addNewClient(client);
+      bank.addNewDebitAccountToClient(client);
+      BankAccount account = client.getBankAccounts().get(0);
+      bank.moneyTopUpTransaction(account, Money.of(1000));
+      accounts.add(account);
+    }
+
+    int threads = 8;
+    int transfersPerThread = 20000;
+    AtomicInteger executedTransfers = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      futures.add(executor.submit(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        start.await();
+        for (int j = 0; j < transfersPerThread; j++) {
+          BankAccount from = accounts.get(random.nextInt(accounts.size()));
+          BankAccount to = accounts.get(random.nextInt(accounts.size()));
+          try {
+            centralBank.moneyTransferTransaction(from, to, Money.of(1 + random.nextInt(300)));
+            executedTransfers.incrementAndGet();
+          } catch (TransactionException e) {
+            // not enough money on the account
+          }
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    executor.shutdown();
+    for (Future<?> future : futures) {
+      future.get(1, TimeUnit.MINUTES);
+    }
+    Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+    Money total = Money.ZERO;
+    for (BankAccount account : accounts) {
+      Assertions.assertFalse(account.getBalance().isNegative());
+      total = total.add(account.getBalance());
+    }
+    Assertions.assertEquals(Money.of(16000), total);
+    Assertions.assertEquals(executedTransfers.get(), centralBank.getTransactions().size());
+  }
+}
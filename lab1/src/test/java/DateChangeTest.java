@@ -31,7 +31,7 @@ class DateChangeTest {
     sber.addNewDebitAccountToClient(newClient);
     BankAccount debitAccount = newClient.getBankAccounts().get(0);
     BigDecimal newBalance = new BigDecimal(4000);
-    sber.moneyTopUpTransaction(debitAccount, newBalance);
+    sber.moneyTopUpTransaction(debitAccount, Money.of(newBalance));
 
     var timeProverForChangingDate = new TimeProvider();
 
@@ -50,7 +50,7 @@ class DateChangeTest {
       newAmountOfMoney = newAmountOfMoney.add(newBalance.multiply(dayPercent).divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP));
     }
 
-    Assertions.assertEquals(debitAccount.getBalance(), newAmountOfMoney.add(newBalance));
+    Assertions.assertEquals(debitAccount.getBalance(), Money.of(newAmountOfMoney.add(newBalance)));
 
   }
 }
@@ -0,0 +1,29 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import org.junit.jupiter.api.Assertions;
+
+class DepositDeadlineTest {
+  @org.junit.jupiter.api.Test
+  void depositOpensForWithdrawalOnItsDeadline()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException {
+    var timeProver = new TimeProvider();
+    var centralBank = new CentralBank(timeProver);
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    sber.addNewClient(newClient);
+    sber.addNewDepositAccountToClient(newClient, Money.of(1000), EpochDays.toCalendar(EpochDays.today() + 10));
+    var depositAccount = (DepositAccount) newClient.getBankAccounts().get(0);
+
+    centralBank.changeDate(EpochDays.toCalendar(timeProver.getDay() + 10));
+    Assertions.assertFalse(depositAccount.isWithdrawAllowed(Money.of(1)));
+
+    centralBank.changeDate(EpochDays.toCalendar(timeProver.getDay() + 1));
+    Assertions.assertTrue(depositAccount.isWithdrawAllowed(Money.of(1)));
+    Assertions.assertEquals(0, depositAccount.getDate().compareTo(EpochDays.toCalendar(EpochDays.today() + 11)));
+  }
+}
@@ -0,0 +1,42 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Assertions;
+
+class DoubleRollbackTest {
+  @org.junit.jupiter.api.Test
+  void transferBetweenBanksIsRolledBackOnceWhicheverJournalIsUsed()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Bank tinkoff = centralBank.addNewBank("Tinkoff", new BigDecimal(6), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(200), new BigDecimal(20000), new BigDecimal(500000));
+
+    Client sender = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    Client receiver = new Client.Builder().setFirstName("Petrov").setSurname("Petr").setAddress("Nevsky 1").setPassport("4010 1234567").build();
+    sber.addNewClient(sender);
+    tinkoff.addNewClient(receiver);
+    sber.addNewDebitAccountToClient(sender);
+    tinkoff.addNewDebitAccountToClient(receiver);
+    BankAccount accountFrom = sender.getBankAccounts().get(0);
+    BankAccount accountTo = receiver.getBankAccounts().get(0);
+    sber.moneyTopUpTransaction(accountFrom, Money.of(1000));
+
+    MoneyTransferTransaction first = centralBank.moneyTransferTransaction(accountFrom, accountTo, Money.of(300));
+    sber.rollback(first);
+    Assertions.assertThrows(BankException.class, () -> centralBank.rollback(first));
+    Assertions.assertThrows(BankException.class, () -> tinkoff.rollback(first));
+    Assertions.assertEquals(Money.of(1000), accountFrom.getBalance());
+    Assertions.assertEquals(Money.ZERO, accountTo.getBalance());
+
+    MoneyTransferTransaction second = centralBank.moneyTransferTransaction(accountFrom, accountTo, Money.of(300));
+    centralBank.rollback(second);
+    Assertions.assertThrows(BankException.class, () -> sber.rollback(second));
+    Assertions.assertThrows(TransactionException.class, second::execute);
+    Assertions.assertTrue(second.isRolledBack());
+    Assertions.assertFalse(second.isMoneyTransferred());
+    Assertions.assertEquals(Money.of(1000), accountFrom.getBalance());
+    Assertions.assertEquals(Money.ZERO, accountTo.getBalance());
+  }
+}
@@ -0,0 +1,42 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.time.Duration;
+import org.junit.jupiter.api.Assertions;
+
+class IdempotentTransferTest {
+  @org.junit.jupiter.api.Test
+  void replayedRequestReturnsOriginalTransaction() throws Exception {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Bank tinkoff = centralBank.addNewBank("Tinkoff", new BigDecimal(6), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(200), new BigDecimal(20000), new BigDecimal(500000));
+
+    Client sender = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    Client receiver = new Client.Builder().setFirstName("Ivanov").setSurname("Ivan").setAddress("Lenina 1").setPassport("1017 1111111").build();
+    sber.addNewClient(sender);
+    tinkoff.addNewClient(receiver);
+    sber.addNewDebitAccountToClient(sender);
+    tinkoff.addNewDebitAccountToClient(receiver);
+    BankAccount senderAccount = sender.getBankAccounts().get(0);
+    BankAccount receiverAccount = receiver.getBankAccounts().get(0);
+
+    MoneyTopUpTransaction topUp = sber.moneyTopUpTransaction(senderAccount, Money.of(1000), "top-up-1");
+    Assertions.assertSame(topUp, sber.moneyTopUpTransaction(senderAccount, Money.of(1000), "top-up-1"));
+
+    MoneyTransferTransaction transfer = centralBank.moneyTransferTransaction(senderAccount, receiverAccount, Money.of(300), "transfer-1");
+    Assertions.assertSame(transfer, centralBank.moneyTransferTransaction(senderAccount, receiverAccount, Money.of(300), "transfer-1"));
+    Assertions.assertThrows(TransactionException.class, () -> sber.moneyWithdrawTransaction(senderAccount, Money.of(1), "transfer-1"));
+
+    Assertions.assertEquals(Money.of(700), senderAccount.getBalance());
+    Assertions.assertEquals(Money.of(300), receiverAccount.getBalance());
+    Assertions.assertEquals(1, centralBank.getTransactions().size());
+
+    centralBank.setRequestCache(new RequestCache(16, Duration.ofMillis(1)));
+    sber.moneyWithdrawTransaction(senderAccount, Money.of(100), "withdraw-1");
+    Thread.sleep(5);
+    sber.moneyWithdrawTransaction(senderAccount, Money.of(100), "withdraw-1");
+    Assertions.assertEquals(Money.of(500), senderAccount.getBalance());
+  }
+}
@@ -0,0 +1,39 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Assertions;
+
+class LargeSettlementTest {
+  @org.junit.jupiter.api.Test
+  void settlementRunLargerThanMoneyIsSettled() throws Exception {
+    var timeProver = new TimeProvider();
+    var centralBank = new CentralBank(timeProver);
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Bank tinkoff = centralBank.addNewBank("Tinkoff", new BigDecimal(6), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(200), new BigDecimal(20000), new BigDecimal(500000));
+    centralBank.setClearingMode(ClearingMode.NET);
+
+    Client sender = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    Client receiver = new Client.Builder().setFirstName("Ivanov").setSurname("Ivan").setAddress("Lenina 1").setPassport("1017 1111111").build();
+    sber.addNewClient(sender);
+    tinkoff.addNewClient(receiver);
+    sber.addNewDebitAccountToClient(sender);
+    tinkoff.addNewDebitAccountToClient(receiver);
+    BankAccount senderAccount = sender.getBankAccounts().get(0);
+    BankAccount receiverAccount = receiver.getBankAccounts().get(0);
+    Money amount = Money.of(400_000_000_000_000L);
+    senderAccount.topUp(amount);
+
+    centralBank.moneyTransferTransaction(senderAccount, receiverAccount, amount);
+    centralBank.moneyTransferTransaction(receiverAccount, senderAccount, amount);
+    centralBank.moneyTransferTransaction(senderAccount, receiverAccount, amount);
+    centralBank.changeDate(EpochDays.toCalendar(timeProver.getDay() + 1));
+    SettlementReport report = centralBank.getLastSettlement();
+
+    Assertions.assertEquals(0, centralBank.getPendingTransferCount());
+    Assertions.assertEquals(3, report.getTransferCount());
+    Assertions.assertEquals(amount.toBigDecimal().multiply(new BigDecimal(3)), report.getGrossAmount());
+    Assertions.assertEquals(amount.toBigDecimal(), report.getNetAmount());
+  }
+}
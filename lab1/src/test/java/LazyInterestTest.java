@@ -0,0 +1,35 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Assertions;
+
+class LazyInterestTest {
+  @org.junit.jupiter.api.Test
+  void idleAccountSettlesTheSameInterestAsAccountUsedEveryDay()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException {
+    var timeProver = new TimeProvider();
+    var centralBank = new CentralBank(timeProver);
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    sber.addNewClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+    var idleAccount = (DebitAccount) newClient.getBankAccounts().get(0);
+    var usedAccount = (DebitAccount) newClient.getBankAccounts().get(1);
+    idleAccount.topUp(Money.of(100000));
+    usedAccount.topUp(Money.of(100000));
+
+    int startDay = timeProver.getDay();
+    for (int day = startDay + 1; day <= startDay + 100; day++) {
+      centralBank.changeDate(EpochDays.toCalendar(day));
+      usedAccount.getBalance();
+    }
+
+    Assertions.assertTrue(idleAccount.getBalance().compareTo(Money.of(100000)) > 0);
+    Assertions.assertEquals(usedAccount.getAccruals(), idleAccount.getAccruals());
+    Assertions.assertEquals(usedAccount.getBalance(), idleAccount.getBalance());
+  }
+}
@@ -0,0 +1,31 @@
+import is.technologies.entities.*;
+import is.technologies.notifications.*;
+import is.technologies.exceptions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+
+class ManySubscribersTest {
+  @org.junit.jupiter.api.Test
+  void manyObserversSubscribeAndUnsubscribe() throws AggregatorException, MediatorException, ClientException {
+    var aggregator = new NotificationAggregator<String>();
+    AtomicInteger delivered = new AtomicInteger();
+    List<Observer<String>> observers = new ArrayList<>();
+    for (int i = 0; i < 200000; i++) {
+      Observer<String> observer = payload -> delivered.incrementAndGet();
+      observers.add(observer);
+      aggregator.subscribe(observer);
+    }
+
+    aggregator.notify("first");
+    Assertions.assertEquals(200000, delivered.get());
+
+    for (int i = 0; i < observers.size(); i += 2) {
+      aggregator.unsubscribe(observers.get(i));
+    }
+    aggregator.notify("second");
+    Assertions.assertEquals(100000, aggregator.size());
+    Assertions.assertEquals(300000, delivered.get());
+  }
+}
@@ -0,0 +1,40 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.metrics.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Assertions;
+
+class MetricsTest {
+  @org.junit.jupiter.api.Test
+  void operationsAreCountedAndTimed()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException, CentralBankException {
+    var centralBank = new CentralBank(new TimeProvider());
+    var metrics = new BankMetrics();
+    centralBank.setMetrics(metrics);
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client notVerifiedClient = new Client.Builder().setFirstName("Ivanov").setSurname("Ivan").build();
+    sber.addNewClient(notVerifiedClient);
+    sber.addNewDebitAccountToClient(notVerifiedClient);
+    sber.addNewDebitAccountToClient(notVerifiedClient);
+    BankAccount accountFrom = notVerifiedClient.getBankAccounts().get(0);
+    BankAccount accountTo = notVerifiedClient.getBankAccounts().get(1);
+
+    sber.moneyTopUpTransaction(accountFrom, Money.of(20000));
+    Assertions.assertThrows(BankException.class, () -> sber.moneyWithdrawTransaction(accountFrom, Money.of(15000)));
+    Assertions.assertThrows(TransactionException.class, () -> sber.moneyTransferTransaction(accountTo, accountFrom, Money.of(100)));
+    sber.rollback(sber.moneyTransferTransaction(accountFrom, accountTo, Money.of(500)));
+
+    MetricsSnapshot snapshot = metrics.snapshot();
+    Assertions.assertEquals(1, snapshot.getCount(MetricCounter.TOP_UPS));
+    Assertions.assertEquals(1, snapshot.getCount(MetricCounter.TRANSFERS));
+    Assertions.assertEquals(1, snapshot.getCount(MetricCounter.REJECTED_OPERATIONS));
+    Assertions.assertEquals(1, snapshot.getCount(MetricCounter.DECLINED_TRANSACTIONS));
+    Assertions.assertEquals(1, snapshot.getCount(MetricCounter.ROLLBACKS));
+    Assertions.assertEquals(2, snapshot.getLatencies(MetricTimer.TRANSACTION).getCount());
+    Assertions.assertTrue(snapshot.getLatencies(MetricTimer.TRANSACTION).getQuantile(0.99) <= snapshot.getLatencies(MetricTimer.TRANSACTION).getMax());
+    Assertions.assertTrue(snapshot.export().contains("bank_rollbacks_total 1\n"));
+  }
+}
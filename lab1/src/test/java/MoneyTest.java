@@ -0,0 +1,38 @@
+import is.technologies.entities.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.junit.jupiter.api.Assertions;
+
+class MoneyTest {
+  @org.junit.jupiter.api.Test
+  void amountsArePreciseToTheMinorUnitAndFailOnOverflow() {
+    Assertions.assertEquals(Money.ofUnits(10_000_000_000_000L), Money.of(1_000_000_000));
+    Assertions.assertEquals(new BigDecimal("1000000000.0000"), Money.of(1_000_000_000).toBigDecimal());
+    Assertions.assertEquals(Money.ofUnits(12346), Money.of(new BigDecimal("1.23455")));
+    Assertions.assertEquals(Money.ofUnits(-12346), Money.of(new BigDecimal("-1.23455")));
+    Assertions.assertSame(Money.ZERO, Money.ofUnits(0));
+    Assertions.assertEquals("0.0100", Money.ofUnits(100).toString());
+
+    Assertions.assertEquals(5000, Money.percentOf(Money.of(1).getUnits(), Money.dayPercent(new BigDecimal(18250))));
+    long onePercentPerDay = Money.dayPercent(new BigDecimal(365));
+    Assertions.assertEquals(1, Money.percentOf(149, onePercentPerDay));
+    Assertions.assertEquals(2, Money.percentOf(150, onePercentPerDay));
+    Assertions.assertEquals(-2, Money.percentOf(-150, onePercentPerDay));
+    Assertions.assertEquals(
+        new BigDecimal("123456789012.3456").multiply(new BigDecimal("0.000136986301")).setScale(Money.SCALE, RoundingMode.HALF_UP),
+        Money.ofUnits(Money.percentOf(Money.of(new BigDecimal("123456789012.3456")).getUnits(), Money.dayPercent(new BigDecimal(5)))).toBigDecimal());
+
+    long accrual = Money.accrualOf(Money.of(4000).getUnits(), Money.dayPercent(new BigDecimal(5)));
+    Assertions.assertEquals(54794520, accrual);
+    Assertions.assertEquals(27397, Money.unitsOfAccrual(accrual * 5));
+    Assertions.assertEquals(-27397, Money.unitsOfAccrual(-accrual * 5));
+    Assertions.assertEquals(273970000, Money.accrualOfUnits(27397));
+
+    Money largest = Money.ofUnits(Long.MAX_VALUE);
+    Assertions.assertThrows(ArithmeticException.class, () -> Money.of(1_000_000_000_000_000L));
+    Assertions.assertThrows(ArithmeticException.class, () -> largest.add(Money.ofUnits(1)));
+    Assertions.assertThrows(ArithmeticException.class, () -> Money.ofUnits(Long.MIN_VALUE).subtract(Money.ofUnits(1)));
+    Assertions.assertThrows(ArithmeticException.class, () -> largest.multiply(2));
+    Assertions.assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e15")));
+  }
+}
@@ -0,0 +1,100 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+
+class NetSettlementTest {
+  @org.junit.jupiter.api.Test
+  void crossBankTransfersAreNettedAtDateChange() throws Exception {
+    var timeProver = new TimeProvider();
+    var centralBank = new CentralBank(timeProver);
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Bank tinkoff = centralBank.addNewBank("Tinkoff", new BigDecimal(6), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(200), new BigDecimal(20000), new BigDecimal(500000));
+    centralBank.setClearingMode(ClearingMode.NET);
+
+    Client sender = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    Client receiver = new Client.Builder().setFirstName("Ivanov").setSurname("Ivan").setAddress("Lenina 1").setPassport("1017 1111111").build();
+    sber.addNewClient(sender);
+    tinkoff.addNewClient(receiver);
+    sber.addNewDebitAccountToClient(sender);
+    tinkoff.addNewDebitAccountToClient(receiver);
+    BankAccount senderAccount = sender.getBankAccounts().get(0);
+    BankAccount receiverAccount = receiver.getBankAccounts().get(0);
+    senderAccount.topUp(Money.of(1000));
+
+    centralBank.moneyTransferTransaction(senderAccount, receiverAccount, Money.of(300));
+    centralBank.moneyTransferTransaction(receiverAccount, senderAccount, Money.of(100));
+    MoneyTransferTransaction rolledBack = centralBank.moneyTransferTransaction(senderAccount, receiverAccount, Money.of(500));
+    centralBank.moneyTransferTransaction(senderAccount, receiverAccount, Money.of(50));
+    centralBank.rollback(rolledBack);
+
+    Assertions.assertEquals(Money.of(250), receiverAccount.getBalance());
+    Assertions.assertEquals(3, centralBank.getPendingTransferCount());
+    Assertions.assertEquals(1, sber.getTransactions().size());
+
+    centralBank.changeDate(EpochDays.toCalendar(timeProver.getDay() + 1));
+    SettlementReport report = centralBank.getLastSettlement();
+
+    Assertions.assertEquals(0, centralBank.getPendingTransferCount());
+    Assertions.assertEquals(4, sber.getTransactions().size());
+    Assertions.assertEquals(4, tinkoff.getTransactions().size());
+    Assertions.assertEquals(1, report.getRun());
+    Assertions.assertEquals(3, report.getTransferCount());
+    Assertions.assertEquals(Money.of(450).toBigDecimal(), report.getGrossAmount());
+    Assertions.assertEquals(1, report.getPositions().size());
+    SettlementPosition position = report.getPositions().get(0);
+    Assertions.assertSame(sber, position.getPayer());
+    Assertions.assertSame(tinkoff, position.getPayee());
+    Assertions.assertEquals(Money.of(250).toBigDecimal(), position.getAmount());
+  }
+
+  @org.junit.jupiter.api.Test
+  void crossBankBatchTransfersAreNetted() throws Exception {
+    var timeProver = new TimeProvider();
+    var centralBank = new CentralBank(timeProver);
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Bank tinkoff = centralBank.addNewBank("Tinkoff", new BigDecimal(6), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(200), new BigDecimal(20000), new BigDecimal(500000));
+    centralBank.setClearingMode(ClearingMode.NET);
+
+    Client sender = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    Client receiver = new Client.Builder().setFirstName("Ivanov").setSurname("Ivan").setAddress("Lenina 1").setPassport("1017 1111111").build();
+    sber.addNewClient(sender);
+    tinkoff.addNewClient(receiver);
+    sber.addNewDebitAccountToClient(sender);
+    sber.addNewDebitAccountToClient(sender);
+    tinkoff.addNewDebitAccountToClient(receiver);
+    BankAccount senderAccount = sender.getBankAccounts().get(0);
+    BankAccount savingsAccount = sender.getBankAccounts().get(1);
+    BankAccount receiverAccount = receiver.getBankAccounts().get(0);
+    senderAccount.topUp(Money.of(1000));
+
+    List<TransferResult> results = centralBank.submitBatch(List.of(
+        new TransferRequest(senderAccount, receiverAccount, Money.of(300)),
+        new TransferRequest(receiverAccount, senderAccount, Money.of(100)),
+        new TransferRequest(senderAccount, savingsAccount, Money.of(200))));
+
+    for (TransferResult result : results) {
+      Assertions.assertTrue(result.isExecuted());
+    }
+    Assertions.assertEquals(2, centralBank.getPendingTransferCount());
+    Assertions.assertEquals(1, sber.getTransactions().size());
+    Assertions.assertEquals(0, tinkoff.getTransactions().size());
+
+    centralBank.changeDate(EpochDays.toCalendar(timeProver.getDay() + 1));
+    SettlementReport report = centralBank.getLastSettlement();
+
+    Assertions.assertEquals(0, centralBank.getPendingTransferCount());
+    Assertions.assertEquals(3, sber.getTransactions().size());
+    Assertions.assertEquals(2, tinkoff.getTransactions().size());
+    Assertions.assertEquals(2, report.getTransferCount());
+    Assertions.assertEquals(Money.of(400).toBigDecimal(), report.getGrossAmount());
+    Assertions.assertEquals(1, report.getPositions().size());
+    SettlementPosition position = report.getPositions().get(0);
+    Assertions.assertSame(sber, position.getPayer());
+    Assertions.assertSame(tinkoff, position.getPayee());
+    Assertions.assertEquals(Money.of(200).toBigDecimal(), position.getAmount());
+  }
+}
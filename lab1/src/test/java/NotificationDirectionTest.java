@@ -0,0 +1,35 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import org.junit.jupiter.api.Assertions;
+
+class NotificationDirectionTest {
+  @org.junit.jupiter.api.Test
+  void changesAreSortedByTheirDirection()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, MediatorException, NotificationException {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    newClient.setMediator(new ClientMediator(newClient));
+    sber.addNewClient(newClient);
+    sber.addNewCreditAccountToClient(newClient);
+    sber.addNewDepositAccountToClient(newClient, Money.of(1000), Calendar.getInstance());
+
+    sber.changeCommissionForCreditAccount(new BigDecimal(300));
+    sber.changePercentLessFiftyThousand(new BigDecimal(6));
+    sber.changeCommissionForCreditAccount(new BigDecimal(350));
+    sber.changeCreditLimit(new BigDecimal(40000));
+
+    Assertions.assertEquals(2, newClient.getUsefulNotifications().size());
+    Assertions.assertEquals(new BigDecimal(300), newClient.getUsefulNotifications().get(0).getValue());
+    Assertions.assertEquals(new BigDecimal(400), newClient.getUsefulNotifications().get(0).getPreviousValue());
+    Assertions.assertEquals(Rate.PERCENT_LESS_FIFTY_THOUSAND, newClient.getUsefulNotifications().get(1).getRate());
+    Assertions.assertEquals(2, newClient.getSpamNotifications().size());
+    Assertions.assertEquals(new BigDecimal(350), newClient.getSpamNotifications().get(0).getValue());
+    Assertions.assertEquals(Rate.CREDIT_LIMIT, newClient.getSpamNotifications().get(1).getRate());
+  }
+}
@@ -0,0 +1,30 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import org.junit.jupiter.api.Assertions;
+
+class NotificationTest {
+  @org.junit.jupiter.api.Test
+  void rateChangesAreSortedByRate()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, MediatorException, NotificationException {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    newClient.setMediator(new ClientMediator(newClient));
+    sber.addNewClient(newClient);
+    sber.addNewCreditAccountToClient(newClient);
+    sber.addNewDepositAccountToClient(newClient, Money.of(1000), Calendar.getInstance());
+
+    sber.changeCreditLimit(new BigDecimal(60000));
+    sber.changePercentLessFiftyThousand(new BigDecimal(2));
+
+    Assertions.assertEquals(1, newClient.getUsefulNotifications().size());
+    Assertions.assertEquals(Rate.CREDIT_LIMIT, newClient.getUsefulNotifications().get(0).getRate());
+    Assertions.assertEquals(1, newClient.getSpamNotifications().size());
+    Assertions.assertEquals(new BigDecimal(2), newClient.getSpamNotifications().get(0).getValue());
+  }
+}
@@ -0,0 +1,53 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+
+class OffHeapStorageTest {
+  @org.junit.jupiter.api.Test
+  void offHeapBankMatchesHeapBank()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException, CentralBankException {
+    Calendar startDate = Calendar.getInstance();
+    startDate.setTime(new Date(123, Calendar.NOVEMBER, 17));
+    Calendar endDate = Calendar.getInstance();
+    endDate.setTime(new Date(124, Calendar.MAY, 4));
+
+    var timeProver = new TimeProvider();
+    timeProver.changeDate(startDate);
+    var centralBank = new CentralBank(timeProver);
+    Bank heapBank = createBank(centralBank);
+    centralBank.setAccountStorage(AccountStorage.OFF_HEAP);
+    Bank offHeapBank = createBank(centralBank);
+
+    centralBank.changeDate(endDate);
+
+    List<BankAccount> heapAccounts = heapBank.getBankAccounts();
+    List<BankAccount> offHeapAccounts = offHeapBank.getBankAccounts();
+    for (int i = 0; i < heapAccounts.size(); i++) {
+      Assertions.assertEquals(heapAccounts.get(i).getBalance(), offHeapAccounts.get(i).getBalance());
+      Assertions.assertSame(offHeapAccounts.get(i), offHeapBank.findAccount(offHeapAccounts.get(i).getBankAccountId()).orElseThrow());
+    }
+  }
+
+  private static Bank createBank(CentralBank centralBank)
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException {
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    sber.addNewClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+    sber.addNewCreditAccountToClient(newClient);
+    sber.addNewDepositAccountToClient(newClient, Money.of(new BigDecimal("75000.55")), Calendar.getInstance());
+
+    BankAccount debitAccount = newClient.getBankAccounts().get(0);
+    BankAccount creditAccount = newClient.getBankAccounts().get(1);
+    sber.moneyTopUpTransaction(debitAccount, Money.of(new BigDecimal("4000.37")));
+    sber.moneyTransferTransaction(creditAccount, debitAccount, Money.of(1500));
+    return sber;
+  }
+}
@@ -0,0 +1,71 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Assertions;
+
+class ParallelDateChangeTest {
+  @org.junit.jupiter.api.Test
+  void parallelDateChangeMatchesSequentialChange()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException, CentralBankException {
+    Calendar startDate = Calendar.getInstance();
+    startDate.setTime(new Date(123, Calendar.NOVEMBER, 17));
+    Calendar endDate = Calendar.getInstance();
+    endDate.setTime(new Date(126, Calendar.MARCH, 4));
+
+    var sequentialTimeProver = new TimeProvider();
+    sequentialTimeProver.changeDate((Calendar) startDate.clone());
+    var sequentialCentralBank = new CentralBank(sequentialTimeProver);
+    List<Bank> sequentialBanks = createBanks(sequentialCentralBank);
+
+    var parallelTimeProver = new TimeProvider();
+    parallelTimeProver.changeDate((Calendar) startDate.clone());
+    var parallelCentralBank = new CentralBank(parallelTimeProver);
+    List<Bank> parallelBanks = createBanks(parallelCentralBank);
+
+    sequentialCentralBank.changeDate(endDate);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      parallelCentralBank.changeDate(endDate, pool);
+    } finally {
+      pool.shutdown();
+    }
+
+    for (int i = 0; i < sequentialBanks.size(); i++) {
+      List<BankAccount> sequentialAccounts = sequentialBanks.get(i).getBankAccounts();
+      List<BankAccount> parallelAccounts = parallelBanks.get(i).getBankAccounts();
+      Assertions.assertEquals(sequentialAccounts.size(), parallelAccounts.size());
+      for (int j = 0; j < sequentialAccounts.size(); j++) {
+        Assertions.assertEquals(sequentialAccounts.get(j).getBalance(), parallelAccounts.get(j).getBalance());
+      }
+    }
+    Assertions.assertEquals(0, parallelTimeProver.getDate().compareTo(sequentialTimeProver.getDate()));
+  }
+
+  private static List<Bank> createBanks(CentralBank centralBank)
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException {
+    List<Bank> banks = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      Bank bank = centralBank.addNewBank("Sber" + i, new BigDecimal(5 + i), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+      Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 343434" + i).build();
+      bank.addNewClient(newClient);
+      bank.addNewDebitAccountToClient(newClient);
+      bank.addNewCreditAccountToClient(newClient);
+      bank.addNewDepositAccountToClient(newClient, Money.of(new BigDecimal("75000.55").multiply(new BigDecimal(i + 1))), Calendar.getInstance());
+
+      BankAccount debitAccount = newClient.getBankAccounts().get(0);
+      BankAccount creditAccount = newClient.getBankAccounts().get(1);
+      bank.moneyTopUpTransaction(debitAccount, Money.of(new BigDecimal("4000.37").multiply(new BigDecimal(i + 1))));
+      bank.moneyTransferTransaction(creditAccount, debitAccount, Money.of(1500));
+      banks.add(bank);
+    }
+    return banks;
+  }
+}
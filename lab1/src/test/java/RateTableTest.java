@@ -0,0 +1,37 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Assertions;
+
+class RateTableTest {
+  @org.junit.jupiter.api.Test
+  void rateChangePublishesNewVersionForNewAccountsOnly()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException,
+      NotificationException, MediatorException {
+    var timeProver = new TimeProvider();
+    var centralBank = new CentralBank(timeProver);
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    newClient.setMediator(new ClientMediator(newClient));
+    sber.addNewClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+    RateTable firstRates = sber.getRates();
+
+    sber.changePercentForDebitAccounts(new BigDecimal(10)).join();
+    sber.addNewDebitAccountToClient(newClient);
+    var oldAccount = (DebitAccount) newClient.getBankAccounts().get(0);
+    var newAccount = (DebitAccount) newClient.getBankAccounts().get(1);
+
+    Assertions.assertEquals(0, firstRates.getVersion());
+    Assertions.assertEquals(1, sber.getRates().getVersion());
+    Assertions.assertSame(firstRates, oldAccount.getRates());
+    Assertions.assertSame(sber.getRates(), newAccount.getRates());
+    Assertions.assertEquals(new BigDecimal(5), oldAccount.getPercent());
+    Assertions.assertEquals(new BigDecimal(10), newAccount.getPercent());
+    Assertions.assertEquals(2 * firstRates.getDayPercent(Rate.PERCENT_FOR_DEBIT_ACCOUNTS),
+        sber.getRates().getDayPercent(Rate.PERCENT_FOR_DEBIT_ACCOUNTS), 1);
+  }
+}
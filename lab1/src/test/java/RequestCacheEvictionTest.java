@@ -0,0 +1,56 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+
+class RequestCacheEvictionTest {
+  @org.junit.jupiter.api.Test
+  void runningRequestIsNotForgotten() throws Exception {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    sber.addNewClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+    BankAccount debitAccount = newClient.getBankAccounts().get(0);
+
+    var cache = new RequestCache(16, Duration.ofMinutes(1));
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var executions = new AtomicInteger();
+    RequestCache.Operation<MoneyTopUpTransaction> slowOperation = () -> {
+      executions.incrementAndGet();
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new MoneyTopUpTransaction(debitAccount, Money.of(100));
+    };
+
+    CompletableFuture<MoneyTopUpTransaction> first = CompletableFuture.supplyAsync(() -> execute(cache, slowOperation));
+    started.await();
+    for (int i = 0; i < 256; i++) {
+      cache.execute("other-" + i, MoneyTopUpTransaction.class, () -> new MoneyTopUpTransaction(debitAccount, Money.of(1)));
+    }
+    CompletableFuture<MoneyTopUpTransaction> repeated = CompletableFuture.supplyAsync(() -> execute(cache, slowOperation));
+    release.countDown();
+
+    Assertions.assertSame(first.get(), repeated.get());
+    Assertions.assertEquals(1, executions.get());
+  }
+
+  private static MoneyTopUpTransaction execute(RequestCache cache, RequestCache.Operation<MoneyTopUpTransaction> operation) {
+    try {
+      return cache.execute("slow", MoneyTopUpTransaction.class, operation);
+    } catch (BankException | TransactionException | BankAccountException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -17,9 +17,9 @@ class RollbackOperationTest {
     sber.addNewClient(newClient);
     sber.addNewDebitAccountToClient(newClient);
     BankAccount debitAccount = newClient.getBankAccounts().get(0);
-    BigDecimal newBalance = new BigDecimal(4000);
+    Money newBalance = Money.of(new BigDecimal(4000));
     sber.moneyTopUpTransaction(debitAccount, newBalance);
-    BigDecimal startBalance = BigDecimal.ZERO;
+    Money startBalance = Money.ZERO;
 
     Transaction transaction = sber.getTransactions().get(0);
     transaction.rollback();
@@ -0,0 +1,35 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+
+class StatementDateTest {
+  @org.junit.jupiter.api.Test
+  void statementRangeFollowsSimulatedDate()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException {
+    var timeProver = new TimeProvider();
+    var centralBank = new CentralBank(timeProver);
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    sber.addNewClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+    BankAccount account = newClient.getBankAccounts().get(0);
+    int firstDay = timeProver.getDay();
+
+    sber.moneyTopUpTransaction(account, Money.of(100));
+    sber.moneyTopUpTransaction(account, Money.of(200));
+    centralBank.changeDate(EpochDays.toCalendar(firstDay + 30));
+    sber.moneyTopUpTransaction(account, Money.of(300));
+
+    List<Transaction> firstDayStatement = sber.getStatement(account, EpochDays.toCalendar(firstDay), EpochDays.toCalendar(firstDay + 1), 0, 10);
+    Assertions.assertEquals(2, firstDayStatement.size());
+    List<Transaction> lastDayStatement = sber.getStatement(account, EpochDays.toCalendar(firstDay + 30), EpochDays.toCalendar(firstDay + 31), 0, 10);
+    Assertions.assertEquals(1, lastDayStatement.size());
+    Assertions.assertEquals(Money.of(300), lastDayStatement.get(0).getMoney());
+    Assertions.assertEquals(EpochDays.startOf(firstDay + 30), sber.getTransactions().getTime(lastDayStatement.get(0)));
+  }
+}
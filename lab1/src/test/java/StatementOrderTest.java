@@ -0,0 +1,63 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+
+class StatementOrderTest {
+  @org.junit.jupiter.api.Test
+  void statementKeepsTheOrderOfConcurrentOperations() throws Exception {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    sber.addNewClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+    BankAccount account = newClient.getBankAccounts().get(0);
+
+    int threads = 4;
+    int operationsPerThread = 10000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int j = 0; j < operationsPerThread; j++) {
+            sber.moneyTopUpTransaction(account, Money.of(1));
+            try {
+              sber.moneyWithdrawTransaction(account, Money.of(1));
+            } catch (TransactionException e) {
+              // the money was taken by another thread
+            }
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(1, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    Money balance = Money.ZERO;
+    for (Transaction transaction : sber.getStatement(account, 0, Integer.MAX_VALUE)) {
+      balance = transaction instanceof MoneyTopUpTransaction
+          ? balance.add(transaction.getMoney())
+          : balance.subtract(transaction.getMoney());
+      Assertions.assertFalse(balance.isNegative());
+    }
+    Assertions.assertEquals(account.getBalance(), balance);
+  }
+}
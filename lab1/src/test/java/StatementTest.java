@@ -0,0 +1,44 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+
+class StatementTest {
+  @org.junit.jupiter.api.Test
+  void statementPagesThroughOneAccount()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    sber.addNewClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+    BankAccount account = newClient.getBankAccounts().get(0);
+    BankAccount otherAccount = newClient.getBankAccounts().get(1);
+
+    for (int i = 1; i <= 5; i++) {
+      sber.moneyTopUpTransaction(account, Money.of(i));
+      sber.moneyTopUpTransaction(otherAccount, Money.of(i));
+    }
+    MoneyTransferTransaction transfer = sber.moneyTransferTransaction(account, otherAccount, Money.of(3));
+
+    List<Transaction> secondPage = sber.getStatement(account, 1, 4);
+    Assertions.assertEquals(2, secondPage.size());
+    Assertions.assertEquals(Money.of(5), secondPage.get(0).getMoney());
+    Assertions.assertSame(transfer, secondPage.get(1));
+    Assertions.assertEquals(6, sber.getStatement(otherAccount, 0, 10).size());
+
+    Calendar from = Calendar.getInstance();
+    from.setTimeInMillis(sber.getTransactions().getTime(transfer));
+    Calendar to = (Calendar) from.clone();
+    to.add(Calendar.MILLISECOND, 1);
+    List<Transaction> lastMillisecond = sber.getStatement(account, from, to, 0, 10);
+    Assertions.assertSame(transfer, lastMillisecond.get(lastMillisecond.size() - 1));
+    Assertions.assertThrows(BankException.class, () -> sber.getStatement(account, -1, 4));
+  }
+}
@@ -0,0 +1,29 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Assertions;
+
+class SubscriptionTest {
+  @org.junit.jupiter.api.Test
+  void clientWithSeveralAccountsIsNotifiedOnce()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, MediatorException, NotificationException {
+    var centralBank = new CentralBank(new TimeProvider());
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    newClient.setMediator(new ClientMediator(newClient));
+    sber.addNewClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+
+    sber.changePercentForDebitAccounts(new BigDecimal(7));
+
+    Assertions.assertEquals(1, sber.getChangePercentsForDebitAccountAggregator().size());
+    Assertions.assertEquals(1, newClient.getUsefulNotifications().size());
+    sber.getChangePercentsForDebitAccountAggregator().unsubscribe(newClient);
+    Assertions.assertEquals(1, sber.getChangePercentsForDebitAccountAggregator().size());
+  }
+}
@@ -0,0 +1,77 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Calendar;
+import java.util.Date;
+import org.junit.jupiter.api.Assertions;
+
+class TimeSkipTest {
+  @org.junit.jupiter.api.Test
+  void timeSkipMatchesDayByDayChange()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException, TransactionException {
+    Calendar startDate = Calendar.getInstance();
+    startDate.setTime(new Date(123, Calendar.NOVEMBER, 17));
+    Calendar endDate = Calendar.getInstance();
+    endDate.setTime(new Date(126, Calendar.MARCH, 4));
+    Calendar deadline = Calendar.getInstance();
+    deadline.setTime(new Date(125, Calendar.JUNE, 15));
+
+    var timeProver = new TimeProvider();
+    timeProver.changeDate((Calendar) startDate.clone());
+    var centralBank = new CentralBank(timeProver);
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+
+    Client newClient = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    sber.addNewClient(newClient);
+    sber.addNewDebitAccountToClient(newClient);
+    sber.addNewCreditAccountToClient(newClient);
+    sber.addNewDepositAccountToClient(newClient, Money.of(new BigDecimal("75000.55")), (Calendar) deadline.clone());
+
+    BankAccount debitAccount = newClient.getBankAccounts().get(0);
+    BankAccount creditAccount = newClient.getBankAccounts().get(1);
+    BankAccount depositAccount = newClient.getBankAccounts().get(2);
+    sber.moneyTopUpTransaction(debitAccount, Money.of(new BigDecimal("4000.37")));
+    sber.moneyTransferTransaction(creditAccount, debitAccount, Money.of(1500));
+
+    centralBank.changeDate(endDate);
+
+    BigDecimal debitBalance = new BigDecimal("5500.37");
+    BigDecimal debitAccruals = BigDecimal.ZERO;
+    BigDecimal creditBalance = new BigDecimal("48500");
+    BigDecimal creditDebt = BigDecimal.ZERO;
+    BigDecimal depositBalance = new BigDecimal("75000.55");
+    BigDecimal depositAccruals = BigDecimal.ZERO;
+    Calendar day = (Calendar) startDate.clone();
+    while (day.before(endDate)) {
+      debitAccruals = debitAccruals.add(dayAccrual(debitBalance, new BigDecimal(5)));
+      if (creditBalance.compareTo(new BigDecimal(50000)) < 0)
+        creditDebt = creditDebt.add(new BigDecimal(400));
+      depositAccruals = depositAccruals.add(dayAccrual(depositBalance, new BigDecimal(4)));
+
+      if (day.get(Calendar.DAY_OF_MONTH) == day.getActualMaximum(Calendar.DAY_OF_MONTH)) {
+        debitBalance = debitBalance.add(debitAccruals.setScale(Money.SCALE, RoundingMode.HALF_UP));
+        debitAccruals = BigDecimal.ZERO;
+        creditBalance = creditBalance.subtract(creditDebt);
+        creditDebt = BigDecimal.ZERO;
+        if (day.before(deadline)) {
+          depositBalance = depositBalance.add(depositAccruals.setScale(Money.SCALE, RoundingMode.HALF_UP));
+          depositAccruals = BigDecimal.ZERO;
+        }
+      }
+      day.add(Calendar.DAY_OF_MONTH, 1);
+    }
+
+    Assertions.assertEquals(Money.of(debitBalance), debitAccount.getBalance());
+    Assertions.assertEquals(Money.of(creditBalance), creditAccount.getBalance());
+    Assertions.assertEquals(Money.of(depositBalance), depositAccount.getBalance());
+    Assertions.assertEquals(0, timeProver.getDate().compareTo(endDate));
+  }
+
+  private static BigDecimal dayAccrual(BigDecimal balance, BigDecimal annualPercent) {
+    BigDecimal dayPercent = annualPercent.divide(new BigDecimal(365), Money.PERCENT_SCALE, RoundingMode.HALF_UP);
+    return balance.multiply(dayPercent).divide(new BigDecimal(100), Money.ACCRUAL_SCALE, RoundingMode.HALF_UP);
+  }
+}
@@ -17,7 +17,7 @@ class TopUpBankAccountTest {
     sber.addNewClient(newClient);
     sber.addNewDebitAccountToClient(newClient);
     BankAccount debitAccount = newClient.getBankAccounts().get(0);
-    BigDecimal newBalance = new BigDecimal(4000);
+    Money newBalance = Money.of(new BigDecimal(4000));
     sber.moneyTopUpTransaction(debitAccount, newBalance);
     Assertions.assertEquals(debitAccount.getBalance(), newBalance);
   }
@@ -0,0 +1,43 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.service.*;
+import is.technologies.exceptions.*;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Assertions;
+
+class VelocityLimitTest {
+  @org.junit.jupiter.api.Test
+  void splitWithdrawalsOfNotVerifiedClientAreLimitedWithinWindow()
+      throws BankException, ClientException, AggregatorException, BankAccountException, BankAccountIdException,
+      TransactionException, NotificationException, MediatorException {
+    var timeProver = new TimeProvider();
+    var centralBank = new CentralBank(timeProver);
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    sber.changeRestrictionForNotVerifiedCustomersAggregator(new BigDecimal(10000), 3);
+
+    Client notVerifiedClient = new Client.Builder().setFirstName("Ivanov").setSurname("Ivan").build();
+    sber.addNewClient(notVerifiedClient);
+    sber.addNewDebitAccountToClient(notVerifiedClient);
+    sber.addNewDebitAccountToClient(notVerifiedClient);
+    sber.addNewDebitAccountToClient(notVerifiedClient);
+    BankAccount accountFrom = notVerifiedClient.getBankAccounts().get(0);
+    BankAccount accountTo = notVerifiedClient.getBankAccounts().get(1);
+    BankAccount emptyAccount = notVerifiedClient.getBankAccounts().get(2);
+    sber.moneyTopUpTransaction(accountFrom, Money.of(100000));
+
+    sber.moneyWithdrawTransaction(accountFrom, Money.of(4000));
+    sber.moneyTransferTransaction(accountFrom, accountTo, Money.of(4000));
+    Assertions.assertFalse(sber.isOperationAllowed(accountFrom, Money.of(4000)));
+    Assertions.assertThrows(BankException.class, () -> sber.moneyWithdrawTransaction(accountFrom, Money.of(4000)));
+    Assertions.assertThrows(TransactionException.class, () -> sber.moneyWithdrawTransaction(emptyAccount, Money.of(2000)));
+    sber.moneyWithdrawTransaction(accountFrom, Money.of(2000));
+
+    centralBank.changeDate(EpochDays.toCalendar(timeProver.getDay() + 2));
+    Assertions.assertThrows(BankException.class, () -> sber.moneyWithdrawTransaction(accountFrom, Money.of(1)));
+
+    centralBank.changeDate(EpochDays.toCalendar(timeProver.getDay() + 1));
+    Assertions.assertEquals(3, sber.getVelocityWindowDays());
+    sber.moneyWithdrawTransaction(accountFrom, Money.of(10000));
+    Assertions.assertFalse(sber.isOperationAllowed(accountFrom, Money.of(1)));
+  }
+}
@@ -0,0 +1,35 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.persistence.*;
+import is.technologies.service.*;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteAheadLogRollbackTest {
+  @org.junit.jupiter.api.Test
+  void rollbackOutsideWindowIsReplayed(@TempDir Path directory) throws Exception {
+    int laterTopUps = (1 << 16) + 100;
+    var log = WriteAheadLog.open(directory);
+    Bank sber = log.getCentralBank().addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Client fisenko = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    sber.addNewClient(fisenko);
+    sber.addNewDebitAccountToClient(fisenko);
+    BankAccount debitAccount = fisenko.getBankAccounts().get(0);
+
+    sber.moneyTopUpTransaction(debitAccount, Money.of(100));
+    Transaction first = sber.getTransactions().get(0);
+    for (int i = 0; i < laterTopUps; i++) {
+      sber.moneyTopUpTransaction(debitAccount, Money.of(1));
+    }
+    sber.rollback(first);
+    log.close();
+
+    Bank restored = WriteAheadLog.open(directory).getCentralBank().getBanks().get(0);
+    Assertions.assertEquals(Money.of(laterTopUps), restored.getBankAccounts().get(0).getBalance());
+    Assertions.assertEquals(laterTopUps + 1, restored.getTransactions().size());
+    Assertions.assertTrue(restored.getTransactions().get(0).isRolledBack());
+    Assertions.assertFalse(restored.getTransactions().get(1).isRolledBack());
+  }
+}
@@ -0,0 +1,71 @@
+import is.technologies.models.*;
+import is.technologies.entities.*;
+import is.technologies.persistence.*;
+import is.technologies.service.*;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteAheadLogTest {
+  @org.junit.jupiter.api.Test
+  void reopenedLogRestoresCentralBank(@TempDir Path directory) throws Exception {
+    var log = WriteAheadLog.open(directory, 4);
+    CentralBank centralBank = log.getCentralBank();
+    Calendar startDate = Calendar.getInstance();
+    startDate.setTime(new Date(123, Calendar.NOVEMBER, 17));
+    centralBank.getTimeProvider().changeDate(startDate);
+    log.snapshot();
+
+    Bank sber = centralBank.addNewBank("Sber", new BigDecimal(5), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(400), new BigDecimal(10000), new BigDecimal(50000));
+    Bank tinkoff = centralBank.addNewBank("Tinkoff", new BigDecimal(6), new BigDecimal(3), new BigDecimal(4), new BigDecimal(5), new BigDecimal(200), new BigDecimal(20000), new BigDecimal(500000));
+    Client fisenko = new Client.Builder().setFirstName("Fisenko").setSurname("Nikita").setAddress("Teatralnaya 354").setPassport("1017 3434345").build();
+    Client ivanov = new Client.Builder().setFirstName("Ivanov").setSurname("Ivan").build();
+    sber.addNewClient(fisenko);
+    tinkoff.addNewClient(ivanov);
+    sber.addNewDebitAccountToClient(fisenko);
+    sber.addNewCreditAccountToClient(fisenko);
+    sber.addNewDepositAccountToClient(fisenko, Money.of(75000), Calendar.getInstance());
+    tinkoff.addNewDebitAccountToClient(ivanov);
+
+    BankAccount debitAccount = fisenko.getBankAccounts().get(0);
+    BankAccount creditAccount = fisenko.getBankAccounts().get(1);
+    BankAccount otherAccount = ivanov.getBankAccounts().get(0);
+    sber.moneyTopUpTransaction(debitAccount, Money.of(new BigDecimal("4000.37")));
+    sber.moneyTransferTransaction(creditAccount, debitAccount, Money.of(1500));
+    MoneyTransferTransaction transfer = centralBank.moneyTransferTransaction(debitAccount, otherAccount, Money.of(700));
+    centralBank.rollback(transfer);
+    centralBank.moneyTransferTransaction(debitAccount, otherAccount, Money.of(300));
+    sber.changeRestrictionForNotVerifiedCustomersAggregator(new BigDecimal(9000));
+
+    Calendar endDate = Calendar.getInstance();
+    endDate.setTime(new Date(124, Calendar.MARCH, 4));
+    centralBank.changeDate(endDate);
+    tinkoff.moneyWithdrawTransaction(otherAccount, Money.of(100));
+    sber.moneyTopUpTransaction(debitAccount, Money.of(50));
+    log.close();
+
+    var reopenedLog = WriteAheadLog.open(directory, 4);
+    CentralBank restored = reopenedLog.getCentralBank();
+    Assertions.assertEquals(0, restored.getTimeProvider().getDate().compareTo(endDate));
+    Assertions.assertEquals(new BigDecimal(9000), restored.getBanks().get(0).getRestrictionForNotVerifiedCustomers());
+    for (int i = 0; i < centralBank.getBanks().size(); i++) {
+      List<BankAccount> accounts = centralBank.getBanks().get(i).getBankAccounts();
+      List<BankAccount> restoredAccounts = restored.getBanks().get(i).getBankAccounts();
+      Assertions.assertEquals(accounts.size(), restoredAccounts.size());
+      for (int j = 0; j < accounts.size(); j++) {
+        Assertions.assertEquals(accounts.get(j).getBankAccountId(), restoredAccounts.get(j).getBankAccountId());
+        Assertions.assertEquals(accounts.get(j).getBalance(), restoredAccounts.get(j).getBalance());
+      }
+    }
+
+    reopenedLog.snapshot();
+    restored.getBanks().get(0).moneyTopUpTransaction(restored.getBanks().get(0).getBankAccounts().get(0), Money.of(1));
+    reopenedLog.close();
+    Assertions.assertEquals(debitAccount.getBalance().add(Money.of(1)),
+        WriteAheadLog.open(directory).getCentralBank().getBanks().get(0).getBankAccounts().get(0).getBalance());
+  }
+}